@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.haulmont.cuba.benchmarks;
+
+import com.haulmont.cuba.testsupport.TestContainer;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Test container working with an in-memory HSQL database, so benchmarks can be run without a database server.
+ * <p>
+ * The database schema is created from the platform HSQL init script on start.
+ */
+public class BenchmarkContainer extends TestContainer {
+
+    public static final String DB_SCRIPT = "benchmarks/db/create-db.sql";
+
+    public BenchmarkContainer() {
+        dbUrl = "jdbc:hsqldb:mem:cuba_benchmarks";
+    }
+
+    public void start() throws Throwable {
+        before();
+    }
+
+    public void stop() {
+        after();
+    }
+
+    @Override
+    protected void initDataSources() {
+        super.initDataSources();
+        createDb();
+    }
+
+    protected void createDb() {
+        String script;
+        try (InputStream stream = getClass().getClassLoader().getResourceAsStream(DB_SCRIPT)) {
+            if (stream == null)
+                throw new IllegalStateException("Database init script not found: " + DB_SCRIPT);
+            script = IOUtils.toString(stream, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading database init script", e);
+        }
+
+        try (Connection connection = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
+             Statement statement = connection.createStatement()) {
+            for (String sql : script.split("\\^\\s*(\\r?\\n|$)")) {
+                sql = sql.replaceAll("(?m)^\\s*--.*$", "").trim();
+                if (!sql.isEmpty()) {
+                    statement.execute(sql);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error creating benchmark database", e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.haulmont.cuba.benchmarks;
+
+import com.haulmont.cuba.core.app.ServerConfig;
+import com.haulmont.cuba.core.global.AppBeans;
+import com.haulmont.cuba.core.global.Configuration;
+import com.haulmont.cuba.core.global.GlobalConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigBenchmark {
+
+    protected ServerConfig serverConfig;
+    protected GlobalConfig globalConfig;
+
+    @Setup
+    public void setUp(PlatformState platform) {
+        Configuration configuration = AppBeans.get(Configuration.NAME);
+        serverConfig = configuration.getConfig(ServerConfig.class);
+        globalConfig = configuration.getConfig(GlobalConfig.class);
+    }
+
+    @Benchmark
+    public int getIntProperty() {
+        return serverConfig.getUserSessionExpirationTimeoutSec();
+    }
+
+    @Benchmark
+    public String getStringProperty() {
+        return globalConfig.getWebContextName();
+    }
+
+    @Benchmark
+    public Map<String, Locale> getAvailableLocales() {
+        return globalConfig.getAvailableLocales();
+    }
+}
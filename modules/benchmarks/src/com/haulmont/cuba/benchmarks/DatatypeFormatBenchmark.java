@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.haulmont.cuba.benchmarks;
+
+import com.haulmont.chile.core.datatypes.Datatype;
+import com.haulmont.chile.core.datatypes.Datatypes;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatatypeFormatBenchmark {
+
+    @Param({"en", "ru"})
+    public String localeTag;
+
+    protected Locale locale;
+
+    protected Datatype<BigDecimal> decimalDatatype;
+    protected Datatype<Date> dateDatatype;
+    protected Datatype<Integer> integerDatatype;
+
+    protected BigDecimal decimalValue = new BigDecimal("1234567.89");
+    protected Date dateValue = new Date();
+    protected String formattedDecimal;
+    protected String formattedDate;
+
+    @Setup
+    public void setUp(PlatformState platform) {
+        locale = Locale.forLanguageTag(localeTag);
+        decimalDatatype = Datatypes.getNN(BigDecimal.class);
+        dateDatatype = Datatypes.getNN(Date.class);
+        integerDatatype = Datatypes.getNN(Integer.class);
+
+        formattedDecimal = decimalDatatype.format(decimalValue, locale);
+        formattedDate = dateDatatype.format(dateValue, locale);
+    }
+
+    @Benchmark
+    public String formatDecimal() {
+        return decimalDatatype.format(decimalValue, locale);
+    }
+
+    @Benchmark
+    public BigDecimal parseDecimal() throws ParseException {
+        return decimalDatatype.parse(formattedDecimal, locale);
+    }
+
+    @Benchmark
+    public String formatInteger() {
+        return integerDatatype.format(1234567, locale);
+    }
+
+    @Benchmark
+    public String formatDate() {
+        return dateDatatype.format(dateValue, locale);
+    }
+
+    @Benchmark
+    public Date parseDate() throws ParseException {
+        return dateDatatype.parse(formattedDate, locale);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.haulmont.cuba.benchmarks;
+
+import com.haulmont.chile.core.model.MetaClass;
+import com.haulmont.cuba.core.app.serialization.EntitySerializationAPI;
+import com.haulmont.cuba.core.entity.Entity;
+import com.haulmont.cuba.core.global.AppBeans;
+import com.haulmont.cuba.core.global.Metadata;
+import com.haulmont.cuba.core.global.View;
+import com.haulmont.cuba.core.global.ViewRepository;
+import com.haulmont.cuba.security.entity.Group;
+import com.haulmont.cuba.security.entity.Role;
+import com.haulmont.cuba.security.entity.User;
+import com.haulmont.cuba.security.entity.UserRole;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntitySerializationBenchmark {
+
+    protected EntitySerializationAPI entitySerialization;
+
+    protected User user;
+    protected View view;
+    protected MetaClass metaClass;
+    protected String json;
+
+    @Setup
+    public void setUp(PlatformState platform) {
+        entitySerialization = AppBeans.get(EntitySerializationAPI.NAME);
+        Metadata metadata = AppBeans.get(Metadata.NAME);
+
+        Group group = metadata.create(Group.class);
+        group.setName("Company");
+
+        user = metadata.create(User.class);
+        user.setLogin("jdoe");
+        user.setName("John Doe");
+        user.setEmail("jdoe@example.com");
+        user.setGroup(group);
+        user.setUserRoles(new ArrayList<>());
+        for (int i = 0; i < 5; i++) {
+            Role role = metadata.create(Role.class);
+            role.setName("Role " + i);
+
+            UserRole userRole = metadata.create(UserRole.class);
+            userRole.setUser(user);
+            userRole.setRole(role);
+            user.getUserRoles().add(userRole);
+        }
+
+        metaClass = metadata.getClassNN(User.class);
+        view = AppBeans.get(ViewRepository.class).getView(User.class, "user.edit");
+        json = entitySerialization.toJson(user, view);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return entitySerialization.toJson(user, view);
+    }
+
+    @Benchmark
+    public Entity fromJson() {
+        return entitySerialization.entityFromJson(json, metaClass);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.haulmont.cuba.benchmarks;
+
+import com.haulmont.cuba.core.app.EntitySnapshotAPI;
+import com.haulmont.cuba.core.entity.Entity;
+import com.haulmont.cuba.core.entity.EntitySnapshot;
+import com.haulmont.cuba.core.global.AppBeans;
+import com.haulmont.cuba.core.global.Metadata;
+import com.haulmont.cuba.core.global.View;
+import com.haulmont.cuba.core.global.ViewRepository;
+import com.haulmont.cuba.core.sys.CubaXStream;
+import com.haulmont.cuba.security.entity.Group;
+import com.haulmont.cuba.security.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntitySnapshotBenchmark {
+
+    protected EntitySnapshotAPI entitySnapshot;
+
+    protected User user;
+    protected User author;
+    protected View view;
+    protected EntitySnapshot jsonSnapshot;
+    protected EntitySnapshot xmlSnapshot;
+
+    @Setup
+    public void setUp(PlatformState platform) {
+        entitySnapshot = AppBeans.get(EntitySnapshotAPI.NAME);
+        Metadata metadata = AppBeans.get(Metadata.NAME);
+
+        Group group = metadata.create(Group.class);
+        group.setName("Company");
+
+        user = metadata.create(User.class);
+        user.setLogin("jdoe");
+        user.setName("John Doe");
+        user.setEmail("jdoe@example.com");
+        user.setGroup(group);
+
+        author = metadata.create(User.class);
+        author.setLogin("admin");
+
+        view = AppBeans.get(ViewRepository.class).getView(User.class, View.LOCAL);
+
+        jsonSnapshot = entitySnapshot.createTempSnapshot(user, view, new Date(), author);
+
+        xmlSnapshot = entitySnapshot.createTempSnapshot(user, view, new Date(), author);
+        xmlSnapshot.setSnapshotXml(new CubaXStream().toXML(user));
+        xmlSnapshot.setViewXml(new CubaXStream().toXML(view));
+    }
+
+    @Benchmark
+    public EntitySnapshot createSnapshot() {
+        return entitySnapshot.createTempSnapshot(user, view, new Date(), author);
+    }
+
+    @Benchmark
+    public Entity extractEntity() {
+        return entitySnapshot.extractEntity(jsonSnapshot);
+    }
+
+    @Benchmark
+    public Entity extractEntityFromXml() {
+        return entitySnapshot.extractEntity(xmlSnapshot);
+    }
+
+    @Benchmark
+    public View extractViewFromXml() {
+        return entitySnapshot.extractView(xmlSnapshot);
+    }
+}
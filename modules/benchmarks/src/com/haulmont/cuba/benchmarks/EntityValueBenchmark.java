@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.haulmont.cuba.benchmarks;
+
+import com.haulmont.cuba.core.global.AppBeans;
+import com.haulmont.cuba.core.global.Metadata;
+import com.haulmont.cuba.security.entity.Group;
+import com.haulmont.cuba.security.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityValueBenchmark {
+
+    protected User user;
+
+    @Setup
+    public void setUp(PlatformState platform) {
+        Metadata metadata = AppBeans.get(Metadata.NAME);
+
+        Group group = metadata.create(Group.class);
+        group.setName("Company");
+
+        user = metadata.create(User.class);
+        user.setLogin("jdoe");
+        user.setName("John Doe");
+        user.setGroup(group);
+    }
+
+    @Benchmark
+    public Object getValue() {
+        return user.getValue("login");
+    }
+
+    @Benchmark
+    public Object getValueEx() {
+        return user.getValueEx("group.name");
+    }
+
+    @Benchmark
+    public void setValue() {
+        user.setValue("name", "John Doe");
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.benchmarks;
+
+import com.haulmont.cuba.core.Persistence;
+import com.haulmont.cuba.core.global.AppBeans;
+import com.haulmont.cuba.core.global.DataManager;
+import com.haulmont.cuba.core.global.LoadContext;
+import com.haulmont.cuba.core.global.Metadata;
+import com.haulmont.cuba.core.sys.serialization.CompactKryoSerialization;
+import com.haulmont.cuba.core.sys.serialization.KryoSerialization;
+import com.haulmont.cuba.security.entity.Group;
+import com.haulmont.cuba.security.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link KryoSerialization} with {@link CompactKryoSerialization} on a {@code DataManager} load result,
+ * as it is returned by remoting. Payload sizes are logged on setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KryoSerializationBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(KryoSerializationBenchmark.class);
+
+    protected static final int USERS = 100;
+
+    @Param({"kryo", "compact"})
+    public String profile;
+
+    protected KryoSerialization serialization;
+
+    protected List<User> users;
+    protected byte[] bytes;
+
+    @Setup
+    public void setUp(PlatformState platform) {
+        serialization = "compact".equals(profile) ? new CompactKryoSerialization() : new KryoSerialization();
+
+        Metadata metadata = AppBeans.get(Metadata.NAME);
+        Persistence persistence = AppBeans.get(Persistence.NAME);
+        persistence.runInTransaction(em -> {
+            Group group = metadata.create(Group.class);
+            group.setName("Serialization benchmark");
+            em.persist(group);
+            for (int i = 0; i < USERS; i++) {
+                User user = metadata.create(User.class);
+                user.setLogin("serialization" + i);
+                user.setName("User " + i);
+                user.setEmail("user" + i + "@example.com");
+                user.setGroup(group);
+                em.persist(user);
+            }
+        });
+
+        LoadContext<User> loadContext = LoadContext.create(User.class)
+                .setQuery(LoadContext.createQuery("select u from sec$User u where u.login like 'serialization%'"))
+                .setView("user.browse");
+        users = AppBeans.get(DataManager.class).loadList(loadContext);
+        bytes = serialization.serialize(users);
+
+        log.info("{} payload size for {} users: {} bytes", profile, users.size(), bytes.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serialization.serialize(users);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serialization.deserialize(bytes);
+    }
+}
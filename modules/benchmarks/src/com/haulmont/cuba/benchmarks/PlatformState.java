@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.haulmont.cuba.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark state starting the middleware application context once per fork.
+ * Benchmarks depend on it by declaring a parameter of this type in their {@code @Setup} methods
+ * and then obtain platform beans through {@code AppBeans}.
+ */
+@State(Scope.Benchmark)
+public class PlatformState {
+
+    protected BenchmarkContainer container;
+
+    @Setup(Level.Trial)
+    public void start() throws Throwable {
+        container = new BenchmarkContainer();
+        container.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        container.stop();
+    }
+
+    public BenchmarkContainer getContainer() {
+        return container;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.haulmont.cuba.benchmarks;
+
+import com.haulmont.cuba.core.EntityManager;
+import com.haulmont.cuba.core.Persistence;
+import com.haulmont.cuba.core.Query;
+import com.haulmont.cuba.core.Transaction;
+import com.haulmont.cuba.core.global.AppBeans;
+import com.haulmont.cuba.core.sys.entitycache.QueryCache;
+import com.haulmont.cuba.core.sys.entitycache.QueryKey;
+import com.haulmont.cuba.core.sys.entitycache.QueryResult;
+import com.haulmont.cuba.security.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryCacheBenchmark {
+
+    protected static final String QUERY = "select u from sec$User u where u.login = :login";
+
+    protected Persistence persistence;
+    protected QueryCache queryCache;
+
+    protected QueryKey queryKey;
+    protected QueryResult queryResult;
+
+    @Setup
+    public void setUp(PlatformState platform) {
+        persistence = AppBeans.get(Persistence.class);
+        queryCache = AppBeans.get(QueryCache.NAME);
+
+        try (Transaction tx = persistence.createTransaction()) {
+            Query query = persistence.getEntityManager().createQuery(QUERY);
+            query.setParameter("login", "admin");
+            queryKey = QueryKey.create(QUERY, true, query.getDelegate());
+            queryResult = new QueryResult(query.getResultList(), "sec$User", Collections.singleton("sec$User"));
+            tx.commit();
+        }
+        queryCache.put(queryKey, queryResult);
+    }
+
+    @Benchmark
+    public QueryResult get() {
+        return queryCache.get(queryKey);
+    }
+
+    @Benchmark
+    public QueryResult putAndGet() {
+        queryCache.put(queryKey, queryResult);
+        return queryCache.get(queryKey);
+    }
+
+    @Benchmark
+    public List<User> cacheableQuery() {
+        try (Transaction tx = persistence.createTransaction()) {
+            EntityManager em = persistence.getEntityManager();
+            List<User> list = em.createQuery(QUERY, User.class)
+                    .setParameter("login", "admin")
+                    .setCacheable(true)
+                    .getResultList();
+            tx.commit();
+            return list;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.haulmont.cuba.benchmarks;
+
+import com.haulmont.cuba.core.global.QueryTransformer;
+import com.haulmont.cuba.core.global.QueryTransformerFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryTransformerBenchmark {
+
+    protected static final String QUERY = "select u from sec$User u where u.active = true order by u.login";
+
+    @Setup
+    public void setUp(PlatformState platform) {
+    }
+
+    @Benchmark
+    public String addWhere() {
+        QueryTransformer transformer = QueryTransformerFactory.createTransformer(QUERY);
+        transformer.addWhere("{E}.group.name = :groupName");
+        return transformer.getResult();
+    }
+
+    @Benchmark
+    public String addJoinAndWhere() {
+        QueryTransformer transformer = QueryTransformerFactory.createTransformer(QUERY);
+        transformer.addJoinAndWhere("join {E}.userRoles ur", "ur.role.name = :roleName");
+        return transformer.getResult();
+    }
+
+    @Benchmark
+    public String replaceWithCount() {
+        QueryTransformer transformer = QueryTransformerFactory.createTransformer(QUERY);
+        transformer.replaceWithCount();
+        return transformer.getResult();
+    }
+}
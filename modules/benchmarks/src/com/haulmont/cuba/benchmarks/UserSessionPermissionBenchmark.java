@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.haulmont.cuba.benchmarks;
+
+import com.haulmont.chile.core.model.MetaClass;
+import com.haulmont.cuba.core.global.AppBeans;
+import com.haulmont.cuba.core.global.Metadata;
+import com.haulmont.cuba.security.entity.*;
+import com.haulmont.cuba.security.global.UserSession;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserSessionPermissionBenchmark {
+
+    protected UserSession userSession;
+    protected MetaClass metaClass;
+
+    @Setup
+    public void setUp(PlatformState platform) {
+        metaClass = AppBeans.get(Metadata.class).getClassNN(User.class);
+
+        User user = AppBeans.get(Metadata.class).create(User.class);
+        user.setLogin("jdoe");
+
+        Role role = AppBeans.get(Metadata.class).create(Role.class);
+        role.setName("Read-only");
+        role.setType(RoleType.READONLY);
+
+        userSession = new UserSession(UUID.randomUUID(), user, Collections.singletonList(role), Locale.ENGLISH, false);
+        for (String property : new String[]{"login", "name", "email", "password", "group"}) {
+            userSession.addPermission(PermissionType.ENTITY_ATTR,
+                    metaClass.getName() + Permission.TARGET_PATH_DELIMETER + property, null, EntityAttrAccess.VIEW.getId());
+        }
+    }
+
+    @Benchmark
+    public boolean isEntityOpPermitted() {
+        return userSession.isEntityOpPermitted(metaClass, EntityOp.UPDATE);
+    }
+
+    @Benchmark
+    public boolean isEntityAttrPermitted() {
+        return userSession.isEntityAttrPermitted(metaClass, "email", EntityAttrAccess.MODIFY);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.benchmarks;
+
+import com.haulmont.cuba.core.sys.TimeOrderedUuidGenerator;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of inserting rows keyed by random and by time-ordered UUIDs into a disk-based HSQLDB table
+ * with a primary key index. The table keeps growing during the trial, as an insert-heavy entity table does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UuidIndexInsertBenchmark {
+
+    protected static final int BATCH_SIZE = 1000;
+
+    @Param({"random", "timeOrdered"})
+    public String generator;
+
+    protected TimeOrderedUuidGenerator timeOrderedGenerator = new TimeOrderedUuidGenerator();
+
+    protected File dbDir;
+    protected Connection connection;
+    protected PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbDir = Files.createTempDirectory("uuid-benchmark").toFile();
+        connection = DriverManager.getConnection("jdbc:hsqldb:file:" + new File(dbDir, "db").getAbsolutePath(), "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("create cached table BENCH_ENTITY (ID varchar(36) not null, NAME varchar(255), primary key (ID))");
+        }
+        insert = connection.prepareStatement("insert into BENCH_ENTITY (ID, NAME) values (?, ?)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("shutdown");
+        } finally {
+            connection.close();
+            FileUtils.deleteQuietly(dbDir);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setString(1, createUuid().toString());
+            insert.setString(2, "name");
+            insert.addBatch();
+        }
+        int[] counts = insert.executeBatch();
+        connection.commit();
+        return counts.length;
+    }
+
+    protected UUID createUuid() {
+        if ("timeOrdered".equals(generator)) {
+            return timeOrderedGenerator.createUuid();
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+}
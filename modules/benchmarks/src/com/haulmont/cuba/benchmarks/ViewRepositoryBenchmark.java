@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.haulmont.cuba.benchmarks;
+
+import com.haulmont.chile.core.model.MetaClass;
+import com.haulmont.cuba.core.global.AppBeans;
+import com.haulmont.cuba.core.global.Metadata;
+import com.haulmont.cuba.core.global.View;
+import com.haulmont.cuba.core.global.ViewRepository;
+import com.haulmont.cuba.security.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ViewRepositoryBenchmark {
+
+    protected ViewRepository viewRepository;
+    protected MetaClass metaClass;
+
+    @Setup
+    public void setUp(PlatformState platform) {
+        viewRepository = AppBeans.get(ViewRepository.NAME);
+        metaClass = AppBeans.get(Metadata.class).getClassNN(User.class);
+    }
+
+    @Benchmark
+    public View getNamedView() {
+        return viewRepository.getView(User.class, "user.edit");
+    }
+
+    @Benchmark
+    public View findLocalView() {
+        return viewRepository.findView(metaClass, View.LOCAL);
+    }
+
+    @Benchmark
+    public View findMissingView() {
+        return viewRepository.findView(metaClass, "no-such-view");
+    }
+}
@@ -377,4 +377,27 @@ public interface ClientConfig extends Config {
     @Property("cuba.gui.validationNotificationType")
     @Default("TRAY")
     String getValidationNotificationType();
+
+    /**
+     * Whether {@code ClientCacheManager} returns the current cached object while reloading it in background
+     * instead of reloading it in the calling thread.
+     */
+    @Property("cuba.clientCache.staleWhileRevalidate")
+    @DefaultBoolean(false)
+    boolean getClientCacheStaleWhileRevalidate();
+
+    /**
+     * Max time in seconds during which {@code ClientCacheManager} returns a cached object that cannot be reloaded
+     * in background. After that the object is reloaded in the calling thread.
+     */
+    @Property("cuba.clientCache.maxStalenessSec")
+    @DefaultInt(300)
+    int getClientCacheMaxStalenessSec();
+
+    /**
+     * Number of threads used by {@code ClientCacheManager} to reload cached objects.
+     */
+    @Property("cuba.clientCache.threadPoolSize")
+    @DefaultInt(2)
+    int getClientCacheThreadPoolSize();
 }
\ No newline at end of file
@@ -116,6 +116,13 @@ public class FileLoaderClientImpl implements FileLoader {
         return fileStorageService.fileExists(fd);
     }
 
+    @Override
+    public long getFileSize(FileDescriptor fd) throws FileStorageException {
+        checkNotNullArgument(fd);
+
+        return fileStorageService.getFileSize(fd);
+    }
+
     protected void saveStreamWithServlet(FileDescriptor fd, Supplier<InputStream> inputStreamSupplier,
                                          @Nullable StreamingProgressListener streamingListener)
             throws FileStorageException, InterruptedException {
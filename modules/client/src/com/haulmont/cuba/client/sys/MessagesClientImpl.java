@@ -35,6 +35,8 @@ import javax.inject.Inject;
 import java.net.SocketException;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component(Messages.NAME)
 public class MessagesClientImpl extends AbstractMessages {
@@ -49,6 +51,9 @@ public class MessagesClientImpl extends AbstractMessages {
 
     protected ClientConfig clientConfig;
 
+    // Messages of packs loaded from the middleware: locale -> pack -> key -> message
+    protected Map<Locale, Map<String, Map<String, String>>> remoteMessages = new ConcurrentHashMap<>();
+
     private static final Logger log = LoggerFactory.getLogger(MessagesClientImpl.class);
 
     @Inject
@@ -74,27 +79,77 @@ public class MessagesClientImpl extends AbstractMessages {
         if (log.isTraceEnabled())
             log.trace("searchRemotely: " + pack + "/" + locale + "/" + key);
 
+        Map<String, Map<String, String>> packs = remoteMessages.computeIfAbsent(locale, l -> new ConcurrentHashMap<>());
+        Map<String, String> packMessages = packs.get(pack);
+        if (packMessages == null) {
+            packMessages = loadRemotely(pack, locale);
+            if (packMessages == null)
+                return null;
+            packs.put(pack, packMessages);
+        }
+        String message = packMessages.get(key);
+        if (message == null) {
+            // the middleware can still resolve the key, e.g. from its main message pack
+            message = loadRemotely(pack, key, locale);
+        }
+        return message;
+    }
+
+    /**
+     * Loads all messages of the pack from the middleware in one call.
+     *
+     * @return messages or null if the middleware is not accessible
+     */
+    protected Map<String, String> loadRemotely(String pack, Locale locale) {
+        log.trace("loadRemotely: {}/{}", pack, locale);
+
+        StopWatch stopWatch = new Slf4JStopWatch("Messages.searchRemotely");
+        try {
+            return localizedMessageService.getMessages(pack, locale);
+        } catch (Exception e) {
+            return handleRemoteException(e);
+        } finally {
+            stopWatch.stop();
+        }
+    }
+
+    /**
+     * Loads a message missing in the messages of the pack, which the middleware resolves with a fallback to its main
+     * message pack.
+     *
+     * @return message or null if it is not found or the middleware is not accessible
+     */
+    protected String loadRemotely(String pack, String key, Locale locale) {
+        log.trace("loadRemotely: {}/{}/{}", pack, locale, key);
+
         StopWatch stopWatch = new Slf4JStopWatch("Messages.searchRemotely");
         try {
             String message = localizedMessageService.getMessage(pack, key, locale);
-            if (key.equals(message))
-                return null;
-            else
-                return message;
+            return key.equals(message) ? null : message;
         } catch (Exception e) {
-            List list = ExceptionUtils.getThrowableList(e);
-            for (Object throwable : list) {
-                if (throwable instanceof SocketException) {
-                    log.trace("searchRemotely: {}", throwable);
-                    return null; // silently ignore network errors
-                }
-            }
-            throw (RuntimeException) e;
+            return handleRemoteException(e);
         } finally {
             stopWatch.stop();
         }
     }
 
+    protected <T> T handleRemoteException(Exception e) {
+        List list = ExceptionUtils.getThrowableList(e);
+        for (Object throwable : list) {
+            if (throwable instanceof SocketException) {
+                log.trace("searchRemotely: {}", throwable);
+                return null; // silently ignore network errors
+            }
+        }
+        throw (RuntimeException) e;
+    }
+
+    @Override
+    public void clearCache() {
+        super.clearCache();
+        remoteMessages.clear();
+    }
+
     public boolean isRemoteSearch() {
         return remoteSearch;
     }
@@ -17,17 +17,37 @@
 
 package com.haulmont.cuba.client.sys;
 
+import com.haulmont.cuba.core.global.Configuration;
+import com.haulmont.cuba.core.global.GlobalConfig;
 import com.haulmont.cuba.core.global.UuidSource;
-
+import com.haulmont.cuba.core.sys.TimeOrderedUuidGenerator;
 import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 
 @Component(UuidSource.NAME)
 public class UuidSourceClientImpl implements UuidSource {
 
+    @Inject
+    protected Configuration configuration;
+
+    protected TimeOrderedUuidGenerator timeOrderedGenerator;
+
+    @PostConstruct
+    protected void init() {
+        if (configuration.getConfig(GlobalConfig.class).getTimeOrderedUuids()) {
+            timeOrderedGenerator = new TimeOrderedUuidGenerator();
+        }
+    }
+
     @Override
     public UUID createUuid() {
+        if (timeOrderedGenerator != null) {
+            return timeOrderedGenerator.createUuid();
+        }
         ThreadLocalRandom random = ThreadLocalRandom.current();
         return new UUID(random.nextLong(), random.nextLong());
     }
@@ -49,4 +49,14 @@ public interface CachingStrategy {
      * Indicate whether cached object should be refreshed or not
      */
     boolean needToReload();
+
+    /**
+     * Indicate whether the current object may be returned while it is reloaded in background, see
+     * {@link com.haulmont.cuba.client.ClientConfig#getClientCacheStaleWhileRevalidate()}.
+     * In this mode {@link #getObject()} and {@link #needToReload()} are invoked without the {@link #lock()},
+     * so a strategy returning true must make them thread-safe, e.g. keep its state in volatile fields.
+     */
+    default boolean isStaleWhileRevalidateSupported() {
+        return false;
+    }
 }
\ No newline at end of file
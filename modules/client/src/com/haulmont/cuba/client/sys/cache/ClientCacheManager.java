@@ -17,8 +17,11 @@
 
 package com.haulmont.cuba.client.sys.cache;
 
+import com.haulmont.cuba.client.ClientConfig;
 import com.haulmont.cuba.core.global.AppBeans;
+import com.haulmont.cuba.core.global.Configuration;
 import com.haulmont.cuba.core.global.Events;
+import com.haulmont.cuba.core.sys.SecurityContextAwareRunnable;
 import com.haulmont.cuba.core.sys.events.AppContextInitializedEvent;
 import com.haulmont.cuba.core.sys.events.AppContextStoppedEvent;
 import org.slf4j.Logger;
@@ -29,15 +32,25 @@ import org.springframework.stereotype.Component;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 
 /**
  * Provides ability to cache any abstract object in client application
+ * <p>
+ * If {@link ClientConfig#getClientCacheStaleWhileRevalidate()} is true and the strategy of an object
+ * {@link CachingStrategy#isStaleWhileRevalidateSupported() supports} it, a reader of the object that needs reloading
+ * gets the current object immediately, and the object is reloaded in background. Reload of each object is performed
+ * by one thread at a time, failed reloads are logged and the current object is still returned. The object is loaded
+ * synchronously only at first access and when it was not reloaded successfully for
+ * {@link ClientConfig#getClientCacheMaxStalenessSec()} seconds.
  */
 @Component(ClientCacheManager.NAME)
 public class ClientCacheManager {
@@ -46,20 +59,37 @@ public class ClientCacheManager {
 
     private static final Logger log = LoggerFactory.getLogger(ClientCacheManager.class);
 
+    @Inject
+    protected Configuration configuration;
+
     protected ConcurrentHashMap<String, CachingStrategy> cache = new ConcurrentHashMap<>();
-    protected ScheduledExecutorService executorService = Executors.newScheduledThreadPool(1, new ThreadFactory() {
-        final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
-
-        @Override
-        public Thread newThread(@Nonnull Runnable r) {
-            Thread thread = defaultFactory.newThread(r);
-            thread.setName("ClientCacheManager-" + thread.getName());
-            thread.setUncaughtExceptionHandler((t, e) ->
-                    log.error("Unhandled exception", t)
-            );
-            return thread;
-        }
-    });
+    protected ConcurrentHashMap<String, RefreshState> refreshStates = new ConcurrentHashMap<>();
+    protected ScheduledExecutorService executorService;
+
+    protected boolean staleWhileRevalidate;
+    protected long maxStalenessMs;
+
+    @PostConstruct
+    protected void init() {
+        ClientConfig clientConfig = configuration.getConfig(ClientConfig.class);
+        staleWhileRevalidate = clientConfig.getClientCacheStaleWhileRevalidate();
+        maxStalenessMs = clientConfig.getClientCacheMaxStalenessSec() * 1000L;
+
+        executorService = Executors.newScheduledThreadPool(Math.max(1, clientConfig.getClientCacheThreadPoolSize()),
+                new ThreadFactory() {
+                    final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+
+                    @Override
+                    public Thread newThread(@Nonnull Runnable r) {
+                        Thread thread = defaultFactory.newThread(r);
+                        thread.setName("ClientCacheManager-" + thread.getName());
+                        thread.setUncaughtExceptionHandler((t, e) ->
+                                log.error("Unhandled exception", t)
+                        );
+                        return thread;
+                    }
+                });
+    }
 
     @EventListener(AppContextInitializedEvent.class)
     @Order(Events.LOWEST_PLATFORM_PRECEDENCE - 120)
@@ -86,6 +116,23 @@ public class ClientCacheManager {
     @SuppressWarnings("unchecked")
     public <T> T getCached(String name) {
         CachingStrategy cachingStrategy = cache.get(name);
+        if (cachingStrategy != null && staleWhileRevalidate && cachingStrategy.isStaleWhileRevalidateSupported()) {
+            Object object = cachingStrategy.getObject();
+            if (object != null) {
+                RefreshState refreshState = refreshStates.get(name);
+                if (!cachingStrategy.needToReload()) {
+                    if (refreshState.staleSince != 0) {
+                        refreshState.staleSince = 0;
+                    }
+                    return (T) object;
+                }
+                if (!isStalenessExceeded(refreshState)) {
+                    scheduleRefresh(name, refreshState);
+                    return (T) object;
+                }
+            }
+        }
+
         if (cachingStrategy != null) {
             Lock readLock = cachingStrategy.lock().readLock();
             Lock writeLock = cachingStrategy.lock().writeLock();
@@ -115,6 +162,35 @@ public class ClientCacheManager {
         return null;
     }
 
+    protected boolean isStalenessExceeded(RefreshState refreshState) {
+        long now = System.currentTimeMillis();
+        if (refreshState.staleSince == 0) {
+            refreshState.staleSince = now;
+            return false;
+        }
+        return now - refreshState.staleSince > maxStalenessMs;
+    }
+
+    protected void scheduleRefresh(String name, RefreshState refreshState) {
+        if (!refreshState.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executorService.execute(new SecurityContextAwareRunnable(() -> {
+                try {
+                    refreshCached(name);
+                } catch (Exception e) {
+                    log.error("Unable to refresh cached object {}, the current one is used", name, e);
+                } finally {
+                    refreshState.refreshing.set(false);
+                }
+            }));
+        } catch (RuntimeException e) {
+            refreshState.refreshing.set(false);
+            throw e;
+        }
+    }
+
     public void refreshCached(String name) {
         CachingStrategy cachingStrategy = cache.get(name);
         if (cachingStrategy != null) {
@@ -140,10 +216,16 @@ public class ClientCacheManager {
             writeLock.unlock();
         }
 
+        refreshStates.put(key, new RefreshState());
         cache.put(key, cachingStrategy);
     }
 
     public ScheduledExecutorService getExecutorService() {
         return executorService;
     }
+
+    protected static class RefreshState {
+        protected final AtomicBoolean refreshing = new AtomicBoolean();
+        protected volatile long staleSince;
+    }
 }
\ No newline at end of file
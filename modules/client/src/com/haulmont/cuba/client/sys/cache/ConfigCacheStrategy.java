@@ -119,6 +119,11 @@ public class ConfigCacheStrategy implements CachingStrategy {
         return readWriteLock;
     }
 
+    @Override
+    public boolean isStaleWhileRevalidateSupported() {
+        return true;
+    }
+
     @Override
     public boolean needToReload() {
         return System.currentTimeMillis() - lastUsedTs > updateIntervalMs;
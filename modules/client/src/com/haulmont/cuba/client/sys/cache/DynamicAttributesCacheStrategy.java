@@ -50,7 +50,7 @@ public class DynamicAttributesCacheStrategy implements CachingStrategy {
     protected CacheUserSessionProvider cacheUserSessionProvider;
 
     protected ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
-    protected DynamicAttributesCache dynamicAttributesCache;
+    protected volatile DynamicAttributesCache dynamicAttributesCache;
 
     //there is no need for atomicity when change needToValidateCache or lastRequestedSessionId
     protected volatile boolean needToValidateCache;
@@ -105,4 +105,9 @@ public class DynamicAttributesCacheStrategy implements CachingStrategy {
     public ReadWriteLock lock() {
         return readWriteLock;
     }
+
+    @Override
+    public boolean isStaleWhileRevalidateSupported() {
+        return true;
+    }
 }
\ No newline at end of file
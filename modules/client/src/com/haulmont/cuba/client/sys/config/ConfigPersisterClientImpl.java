@@ -18,6 +18,7 @@ package com.haulmont.cuba.client.sys.config;
 
 import com.haulmont.cuba.core.app.ConfigStorageService;
 import com.haulmont.cuba.core.config.ConfigPersister;
+import com.haulmont.cuba.core.config.ConfigVersion;
 import com.haulmont.cuba.core.config.SourceType;
 import com.haulmont.cuba.core.sys.AppContext;
 import org.apache.commons.lang3.StringUtils;
@@ -83,12 +84,19 @@ public class ConfigPersisterClientImpl implements ConfigPersister {
         }
     }
 
+    @Override
+    public boolean isVersioned(SourceType sourceType) {
+        // DB-stored properties are reloaded from the middleware by ClientCacheManager on access
+        return sourceType != SourceType.DATABASE;
+    }
+
     @Override
     public void setProperty(SourceType sourceType, String name, String value) {
         log.debug("Setting property '{}' to '{}', source={}", name, value, sourceType.name());
         switch (sourceType) {
             case SYSTEM:
                 System.setProperty(name, value);
+                ConfigVersion.increment();
                 break;
             case APP:
                 AppContext.setProperty(name, value);
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package spec.cuba.client.cache
+
+import com.haulmont.cuba.client.ClientConfig
+import com.haulmont.cuba.client.sys.cache.CachingStrategy
+import com.haulmont.cuba.client.sys.cache.ClientCacheManager
+import com.haulmont.cuba.core.global.Configuration
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.locks.ReadWriteLock
+import java.util.concurrent.locks.ReentrantReadWriteLock
+
+class ClientCacheManagerTest extends Specification {
+
+    private ClientCacheManager manager
+    private TestCachingStrategy strategy = new TestCachingStrategy()
+
+    void cleanup() {
+        manager?.destroy()
+    }
+
+    def "expired object is returned while a single refresh runs in background"() {
+
+        createManager(60)
+        manager.getCached('test')
+
+        def started = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+        strategy.loader = {
+            started.countDown()
+            release.await(10, TimeUnit.SECONDS)
+            'v2'
+        }
+        strategy.expired = true
+
+        def results = new ConcurrentLinkedQueue()
+
+        when:
+
+        (1..10).collect { Thread.start { results << manager.getCached('test') } }*.join()
+        started.await(10, TimeUnit.SECONDS)
+        (1..10).collect { Thread.start { results << manager.getCached('test') } }*.join()
+        release.countDown()
+
+        then:
+
+        results.size() == 20
+        results.every { it == 'v1' }
+        new PollingConditions(timeout: 10).eventually {
+            assert manager.getCached('test') == 'v2'
+        }
+        strategy.loads.get() == 2
+    }
+
+    def "current object is used if refresh fails"() {
+
+        createManager(60)
+        manager.getCached('test')
+
+        strategy.loader = { throw new RuntimeException('Test refresh failure') }
+        strategy.expired = true
+
+        when:
+
+        def value = manager.getCached('test')
+
+        then:
+
+        value == 'v1'
+        new PollingConditions(timeout: 10).eventually {
+            assert strategy.loads.get() == 2
+            assert !manager.refreshStates.get('test').refreshing.get()
+        }
+        manager.getCached('test') == 'v1'
+    }
+
+    def "object is loaded synchronously if it stays stale longer than allowed"() {
+
+        createManager(0)
+        manager.getCached('test')
+
+        // refresh in background fails, loading in the calling thread succeeds
+        strategy.loader = {
+            if (Thread.currentThread().name.startsWith('ClientCacheManager-'))
+                throw new RuntimeException('Test refresh failure')
+            'v2'
+        }
+        strategy.expired = true
+
+        when:
+
+        def first = manager.getCached('test')
+        Thread.sleep(10)
+        def second = manager.getCached('test')
+
+        then:
+
+        first == 'v1'
+        second == 'v2'
+    }
+
+    def "strategy not supporting the mode is reloaded synchronously"() {
+
+        strategy.staleWhileRevalidateSupported = false
+        createManager(60)
+        manager.getCached('test')
+
+        strategy.loader = { 'v2' }
+        strategy.expired = true
+
+        when:
+
+        def value = manager.getCached('test')
+
+        then:
+
+        value == 'v2'
+        strategy.loads.get() == 2
+    }
+
+    private void createManager(int maxStalenessSec) {
+        def clientConfig = Stub(ClientConfig) {
+            getClientCacheStaleWhileRevalidate() >> true
+            getClientCacheMaxStalenessSec() >> maxStalenessSec
+            getClientCacheThreadPoolSize() >> 2
+        }
+        manager = new ClientCacheManager()
+        manager.configuration = Stub(Configuration) {
+            getConfig(ClientConfig) >> clientConfig
+        }
+        manager.init()
+        manager.addCachedObject('test', strategy)
+    }
+
+    static class TestCachingStrategy implements CachingStrategy {
+
+        final AtomicInteger loads = new AtomicInteger()
+        final ReadWriteLock readWriteLock = new ReentrantReadWriteLock()
+
+        volatile Object object
+        volatile boolean expired
+        volatile boolean staleWhileRevalidateSupported = true
+        volatile Closure loader = { 'v1' }
+
+        @Override
+        Object getObject() {
+            return object
+        }
+
+        @Override
+        Object loadObject() {
+            loads.incrementAndGet()
+            object = loader.call()
+            expired = false
+            return object
+        }
+
+        @Override
+        ReadWriteLock lock() {
+            return readWriteLock
+        }
+
+        @Override
+        boolean needToReload() {
+            return object == null || expired
+        }
+
+        @Override
+        boolean isStaleWhileRevalidateSupported() {
+            return staleWhileRevalidateSupported
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.haulmont.bali.db.QueryRunner;
 import com.haulmont.bali.db.ResultSetHandler;
 import com.haulmont.bali.util.Preconditions;
 import com.haulmont.cuba.core.*;
+import com.haulmont.cuba.core.config.ConfigVersion;
 import com.haulmont.cuba.core.entity.Config;
 import com.haulmont.cuba.core.global.AppBeans;
 import com.haulmont.cuba.core.global.Metadata;
@@ -27,20 +28,27 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.io.Serializable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Supports configuration parameters framework functionality.
- *
+ * <p>
+ * DB-stored properties are cached in an immutable map which is replaced on each change, so reading never locks.
+ * A changed property is applied to the caches of all cluster members in place, without reloading the whole table.
+ * If the property is changed in an existing transaction, the change is applied after the transaction is committed.
  */
 @Component(ConfigStorageAPI.NAME)
 public class ConfigStorage implements ConfigStorageAPI {
@@ -50,17 +58,27 @@ public class ConfigStorage implements ConfigStorageAPI {
 
     protected ClusterManagerAPI clusterManager;
 
-    protected Map<String, String> cache;
+    protected volatile Map<String, String> cache;
 
-    protected ReadWriteLock lock = new ReentrantReadWriteLock();
-    protected Lock readLock = lock.readLock();
-    protected Lock writeLock = lock.writeLock();
+    protected Lock lock = new ReentrantLock();
 
     private static final Logger log = LoggerFactory.getLogger(ConfigStorage.class);
 
     private static class InvalidateCacheMsg implements Serializable {
         private static final long serialVersionUID = -3116358584797500962L;
     }
+
+    private static class PropertyChangedMsg implements Serializable {
+        private static final long serialVersionUID = 3581746394526185920L;
+
+        private final String name;
+        private final String value;
+
+        private PropertyChangedMsg(String name, @Nullable String value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
     
     @Inject
     public void setClusterManager(ClusterManagerAPI clusterManager) {
@@ -71,6 +89,12 @@ public class ConfigStorage implements ConfigStorageAPI {
                 internalClearCache();
             }
         });
+        clusterManager.addListener(PropertyChangedMsg.class, new ClusterListenerAdapter<PropertyChangedMsg>() {
+            @Override
+            public void receive(PropertyChangedMsg message) {
+                internalUpdateCache(message.name, message.value);
+            }
+        });
     }
     
     @Override
@@ -80,71 +104,89 @@ public class ConfigStorage implements ConfigStorageAPI {
     }
 
     private void internalClearCache() {
-        writeLock.lock();
+        lock.lock();
         try {
             cache = null;
+            ConfigVersion.increment();
         } finally {
-            writeLock.unlock();
+            lock.unlock();
         }
     }
 
-    @Override
-    public Map<String, String> getDbProperties() {
-        readLock.lock();
+    /**
+     * Applies a changed property to the cache if it is loaded.
+     *
+     * @param name  property name
+     * @param value new value or null if the property is removed
+     */
+    protected void internalUpdateCache(String name, @Nullable String value) {
+        lock.lock();
         try {
-            loadCache();
-            return new HashMap<>(cache);
+            Map<String, String> current = cache;
+            if (current != null) {
+                Map<String, String> map = new HashMap<>(current);
+                if (value != null) {
+                    map.put(name, value);
+                } else {
+                    map.remove(name);
+                }
+                cache = Collections.unmodifiableMap(map);
+            }
+            ConfigVersion.increment();
         } finally {
-            readLock.unlock();
+            lock.unlock();
         }
     }
 
+    @Override
+    public Map<String, String> getDbProperties() {
+        return new HashMap<>(getCache());
+    }
+
     @Override
     public String getDbProperty(String name) {
-        readLock.lock();
-        try {
-            loadCache();
-            return cache.get(name);
-        } finally {
-            readLock.unlock();
-        }
+        return getCache().get(name);
+    }
+
+    protected Map<String, String> getCache() {
+        Map<String, String> current = cache;
+        return current != null ? current : loadCache();
     }
 
-    protected void loadCache() {
-        if (cache == null) {
-            lock.readLock().unlock();
-            lock.writeLock().lock();
-            try {
-                if (cache == null) {
-                    log.info("Loading DB-stored app properties cache");
-                    // Don't use transactions here because of loop possibility from EntityLog
-                    QueryRunner queryRunner = new QueryRunner(persistence.getDataSource());
-                    try {
-                        cache = queryRunner.query("select NAME, VALUE_ from SYS_CONFIG",
-                                new ResultSetHandler<Map<String, String>>() {
-                                    @Override
-                                    public Map<String, String> handle(ResultSet rs) throws SQLException {
-                                        HashMap<String, String> map = new HashMap<>();
-                                        while (rs.next()) {
-                                            map.put(rs.getString(1), rs.getString(2));
-                                        }
-                                        return map;
+    protected Map<String, String> loadCache() {
+        lock.lock();
+        try {
+            if (cache == null) {
+                log.info("Loading DB-stored app properties cache");
+                // Don't use transactions here because of loop possibility from EntityLog
+                QueryRunner queryRunner = new QueryRunner(persistence.getDataSource());
+                try {
+                    cache = queryRunner.query("select NAME, VALUE_ from SYS_CONFIG",
+                            new ResultSetHandler<Map<String, String>>() {
+                                @Override
+                                public Map<String, String> handle(ResultSet rs) throws SQLException {
+                                    HashMap<String, String> map = new HashMap<>();
+                                    while (rs.next()) {
+                                        map.put(rs.getString(1), rs.getString(2));
                                     }
-                                });
-                    } catch (SQLException e) {
-                        throw new RuntimeException("Error loading DB-stored app properties cache", e);
-                    }
+                                    return Collections.unmodifiableMap(map);
+                                }
+                            });
+                } catch (SQLException e) {
+                    throw new RuntimeException("Error loading DB-stored app properties cache", e);
                 }
-            } finally {
-                lock.readLock().lock();
-                lock.writeLock().unlock();
             }
+            return cache;
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public void setDbProperty(String name, String value) {
         Preconditions.checkNotNullArgument(name, "name is null");
+        String storedName = name;
+        String storedValue = null;
         Transaction tx = persistence.getTransaction();
         try {
             EntityManager em = persistence.getEntityManager();
@@ -160,15 +202,37 @@ public class ConfigStorage implements ConfigStorageAPI {
                 } else {
                     instance.setValue(value);
                 }
+                storedName = instance.getName();
+                storedValue = instance.getValue();
             } else {
-                if (instance != null)
+                if (instance != null) {
                     em.remove(instance);
+                    storedName = instance.getName();
+                }
             }
             tx.commit();
         } finally {
             tx.end();
         }
-        clearCache();
+
+        String changedName = storedName;
+        String changedValue = storedValue;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // the change was made in the caller's transaction, apply it when the transaction is committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    propertyChanged(changedName, changedValue);
+                }
+            });
+        } else {
+            propertyChanged(changedName, changedValue);
+        }
+    }
+
+    protected void propertyChanged(String name, @Nullable String value) {
+        internalUpdateCache(name, value);
+        clusterManager.send(new PropertyChangedMsg(name, value));
     }
 
     private Config getConfigInstance(String name) {
@@ -29,6 +29,8 @@ import com.haulmont.cuba.core.entity.CategoryAttribute;
 import com.haulmont.cuba.core.entity.EmbeddableEntity;
 import com.haulmont.cuba.core.entity.Entity;
 import com.haulmont.cuba.core.entity.EntitySnapshot;
+import com.haulmont.cuba.core.entity.Updatable;
+import com.haulmont.cuba.core.entity.Versioned;
 import com.haulmont.cuba.core.entity.diff.*;
 import com.haulmont.cuba.core.global.*;
 import com.haulmont.cuba.core.sys.ViewHelper;
@@ -288,21 +290,23 @@ public class EntityDiffManager {
         Collection firstCollection = firstValue == null ? Collections.emptyList() : (Collection) firstValue;
         Collection secondCollection = secondValue == null ? Collections.emptyList() : (Collection) secondValue;
 
+        Map<Object, Entity> firstById = indexById(firstCollection);
+        Map<Object, Entity> secondById = indexById(secondCollection);
+
         // added or modified
         for (Object item : secondCollection) {
             Entity secondEntity = (Entity) item;
-            Entity firstEntity = getRelatedItem(firstCollection, secondEntity);
+            Entity firstEntity = firstById.get(secondEntity.getId());
             if (firstEntity == null)
                 addedEntities.add(secondEntity);
-            else
+            else if (!isSameState(firstEntity, secondEntity, viewProperty))
                 modifiedEntities.add(new Pair<>(firstEntity, secondEntity));
         }
 
         // removed
         for (Object item : firstCollection) {
             Entity firstEntity = (Entity) item;
-            Entity secondEntity = getRelatedItem(secondCollection, firstEntity);
-            if (secondEntity == null)
+            if (!secondById.containsKey(firstEntity.getId()))
                 removedEntities.add(firstEntity);
         }
 
@@ -398,6 +402,47 @@ public class EntityDiffManager {
         return hasChanges ? collectionDiff : null;
     }
 
+    /**
+     * @return collection items by id, the first item wins if the collection contains duplicates
+     */
+    protected Map<Object, Entity> indexById(Collection collection) {
+        Map<Object, Entity> result = new HashMap<>(collection.size() * 4 / 3 + 1);
+        for (Object item : collection) {
+            Entity entity = (Entity) item;
+            result.putIfAbsent(entity.getId(), entity);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether two snapshot states of a collection item are known to be equal without comparing the attributes.
+     * It is so if the item has the same version and update timestamp in both snapshots, and the view of the item
+     * contains no references, because changes of referenced entities do not affect the version.
+     */
+    protected boolean isSameState(Entity firstEntity, Entity secondEntity, ViewProperty viewProperty) {
+        if (!(firstEntity instanceof Versioned) || !(secondEntity instanceof Versioned))
+            return false;
+
+        Integer firstVersion = ((Versioned) firstEntity).getVersion();
+        if (firstVersion == null || !firstVersion.equals(((Versioned) secondEntity).getVersion()))
+            return false;
+
+        if (firstEntity instanceof Updatable && secondEntity instanceof Updatable) {
+            Date firstUpdateTs = ((Updatable) firstEntity).getUpdateTs();
+            if (firstUpdateTs == null || !firstUpdateTs.equals(((Updatable) secondEntity).getUpdateTs()))
+                return false;
+        }
+
+        View view = viewProperty.getView();
+        if (view != null) {
+            for (ViewProperty property : view.getProperties()) {
+                if (property.getView() != null)
+                    return false;
+            }
+        }
+        return true;
+    }
+
     protected Entity getRelatedItem(Collection collection, Entity entity) {
         for (Object item : collection) {
             Entity itemEntity = (Entity) item;
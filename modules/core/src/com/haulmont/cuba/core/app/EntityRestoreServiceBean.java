@@ -17,24 +17,33 @@
 
 package com.haulmont.cuba.core.app;
 
+import com.google.common.collect.Iterables;
+import com.haulmont.bali.db.QueryRunner;
 import com.haulmont.chile.core.model.MetaClass;
 import com.haulmont.chile.core.model.MetaProperty;
 import com.haulmont.cuba.core.EntityManager;
 import com.haulmont.cuba.core.Persistence;
 import com.haulmont.cuba.core.Query;
 import com.haulmont.cuba.core.Transaction;
-import com.haulmont.cuba.core.entity.Entity;
-import com.haulmont.cuba.core.entity.SoftDelete;
+import com.haulmont.cuba.core.entity.*;
 import com.haulmont.cuba.core.entity.annotation.OnDelete;
 import com.haulmont.cuba.core.entity.annotation.OnDeleteInverse;
-import com.haulmont.cuba.core.global.DeletePolicy;
-import com.haulmont.cuba.core.global.Metadata;
+import com.haulmont.cuba.core.entity.annotation.PublishEntityChangedEvents;
+import com.haulmont.cuba.core.global.*;
+import com.haulmont.cuba.core.sys.AuditInfoProvider;
+import com.haulmont.cuba.core.sys.entitycache.QueryCacheManager;
+import com.haulmont.cuba.core.sys.persistence.DbTypeConverter;
+import com.haulmont.cuba.core.sys.listener.EntityListenerManager;
+import com.haulmont.cuba.core.sys.listener.EntityListenerType;
+import com.haulmont.cuba.security.app.EntityLogAPI;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import javax.inject.Inject;
+import java.sql.SQLException;
 import java.util.*;
 
 @Service(EntityRestoreService.NAME)
@@ -42,14 +51,39 @@ public class EntityRestoreServiceBean implements EntityRestoreService {
 
     private static final Logger log = LoggerFactory.getLogger(EntityRestoreServiceBean.class);
 
+    protected static final int MAX_IDS_IN_STATEMENT = 500;
+
     @Inject
     protected Persistence persistence;
 
     @Inject
     protected Metadata metadata;
 
+    @Inject
+    protected ServerConfig serverConfig;
+
+    @Inject
+    protected EntityListenerManager entityListenerManager;
+
+    @Inject
+    protected EntityLogAPI entityLog;
+
+    @Inject
+    protected QueryCacheManager queryCacheManager;
+
+    @Inject
+    protected TimeSource timeSource;
+
+    @Inject
+    protected AuditInfoProvider auditInfoProvider;
+
     @Override
     public void restoreEntities(Collection<Entity> entities) {
+        if (serverConfig.getBulkEntityRestore()) {
+            bulkRestoreEntities(entities);
+            return;
+        }
+
         for (Entity entity : entities) {
             if (!(entity instanceof SoftDelete))
                 continue;
@@ -72,10 +106,14 @@ public class EntityRestoreServiceBean implements EntityRestoreService {
     }
 
     protected void restoreEntity(Entity entity, String storeName) {
+        restoreEntity(entity.getClass(), entity.getId(), storeName);
+    }
+
+    protected void restoreEntity(Class<? extends Entity> entityClass, Object id, String storeName) {
         EntityManager em = persistence.getEntityManager(storeName);
-        Entity reloadedEntity = em.find(entity.getClass(), entity.getId());
+        Entity reloadedEntity = em.find(entityClass, id);
         if (reloadedEntity != null && ((SoftDelete) reloadedEntity).isDeleted()) {
-            log.info("Restoring deleted entity " + entity);
+            log.info("Restoring deleted entity " + reloadedEntity);
             Date deleteTs = ((SoftDelete) reloadedEntity).getDeleteTs();
             ((SoftDelete) reloadedEntity).setDeleteTs(null);
             em.merge(reloadedEntity);
@@ -162,6 +200,271 @@ public class EntityRestoreServiceBean implements EntityRestoreService {
         }
     }
 
+    /**
+     * Restores the given entities together with their cascade-deleted details, processing each level of the graph
+     * by set-based queries. Entities of classes which cannot be updated by SQL statements, see
+     * {@link #isBulkRestorePossible(MetaClass)}, are restored one by one after that.
+     */
+    protected void bulkRestoreEntities(Collection<Entity> entities) {
+        Map<String, Map<MetaClass, Set<Object>>> idsByStore = new LinkedHashMap<>();
+        for (Entity entity : entities) {
+            if (!(entity instanceof SoftDelete))
+                continue;
+
+            MetaClass metaClass = metadata.getClassNN(entity.getClass());
+            String storeName = metadata.getTools().getStoreName(metaClass);
+            if (storeName == null) {
+                log.warn("Unable to restore entity {}: cannot determine data store", entity);
+                continue;
+            }
+            Object id = entity.getId() instanceof IdProxy ? ((IdProxy) entity.getId()).get() : entity.getId();
+            idsByStore.computeIfAbsent(storeName, name -> new LinkedHashMap<>())
+                    .computeIfAbsent(metaClass, aClass -> new LinkedHashSet<>())
+                    .add(id);
+        }
+
+        for (Map.Entry<String, Map<MetaClass, Set<Object>>> entry : idsByStore.entrySet()) {
+            String storeName = entry.getKey();
+            Transaction tx = persistence.createTransaction(storeName);
+            try {
+                persistence.getEntityManager(storeName).setSoftDeletion(false);
+                bulkRestore(entry.getValue(), storeName);
+                tx.commit();
+            } finally {
+                tx.end();
+            }
+        }
+    }
+
+    protected void bulkRestore(Map<MetaClass, Set<Object>> ids, String storeName) {
+        // ids of deleted instances with their deletion time, by entity class
+        Map<MetaClass, Map<Object, Date>> level = new LinkedHashMap<>();
+        Map<MetaClass, Map<Object, Date>> toRestore = new LinkedHashMap<>();
+        Map<MetaClass, Set<Object>> toRestoreSeparately = new LinkedHashMap<>();
+
+        for (Map.Entry<MetaClass, Set<Object>> entry : ids.entrySet()) {
+            MetaClass metaClass = entry.getKey();
+            if (isBulkRestorePossible(metaClass)) {
+                level.put(metaClass, loadDeleteTs(metaClass, entry.getValue(), storeName));
+            } else {
+                toRestoreSeparately.computeIfAbsent(metaClass, aClass -> new LinkedHashSet<>()).addAll(entry.getValue());
+            }
+        }
+
+        while (!level.isEmpty()) {
+            Map<MetaClass, Map<Object, Date>> nextLevel = new LinkedHashMap<>();
+            for (Map.Entry<MetaClass, Map<Object, Date>> entry : level.entrySet()) {
+                Map<Object, Date> restored = toRestore.computeIfAbsent(entry.getKey(), aClass -> new LinkedHashMap<>());
+                Map<Object, Date> masters = new LinkedHashMap<>();
+                for (Map.Entry<Object, Date> idEntry : entry.getValue().entrySet()) {
+                    if (restored.putIfAbsent(idEntry.getKey(), idEntry.getValue()) == null) {
+                        masters.put(idEntry.getKey(), idEntry.getValue());
+                    }
+                }
+                if (!masters.isEmpty()) {
+                    collectDetails(entry.getKey(), masters, nextLevel, toRestoreSeparately, storeName);
+                }
+            }
+            level = nextLevel;
+        }
+
+        for (Map.Entry<MetaClass, Map<Object, Date>> entry : toRestore.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                bulkClearDeleteTs(entry.getKey(), entry.getValue().keySet(), storeName);
+            }
+        }
+
+        for (Map.Entry<MetaClass, Set<Object>> entry : toRestoreSeparately.entrySet()) {
+            for (Object id : entry.getValue()) {
+                restoreEntity(entry.getKey().getJavaClass(), id, storeName);
+            }
+        }
+    }
+
+    protected Map<Object, Date> loadDeleteTs(MetaClass metaClass, Collection<Object> ids, String storeName) {
+        EntityManager em = persistence.getEntityManager(storeName);
+        String primaryKey = metadata.getTools().getPrimaryKeyName(metaClass);
+        String jpql = "select e." + primaryKey + ", e.deleteTs from " + metaClass.getName() + " e where e."
+                + primaryKey + " in :ids and e.deleteTs is not null";
+
+        Map<Object, Date> result = new LinkedHashMap<>();
+        for (List<Object> batchIds : Iterables.partition(ids, MAX_IDS_IN_STATEMENT)) {
+            Query query = em.createQuery(jpql);
+            query.setParameter("ids", batchIds);
+            //noinspection unchecked
+            List<Object[]> rows = query.getResultList();
+            for (Object[] row : rows) {
+                result.put(row[0], (Date) row[1]);
+            }
+        }
+        return result;
+    }
+
+    protected void collectDetails(MetaClass metaClass, Map<Object, Date> masters,
+                                  Map<MetaClass, Map<Object, Date>> details,
+                                  Map<MetaClass, Set<Object>> detailsToRestoreSeparately, String storeName) {
+        List<MetaProperty> properties = new ArrayList<>();
+        fillProperties(metaClass, properties, OnDelete.class.getName());
+        for (MetaProperty property : properties) {
+            OnDelete annotation = property.getAnnotatedElement().getAnnotation(OnDelete.class);
+            if (annotation.value() == DeletePolicy.CASCADE) {
+                MetaClass detailMetaClass = property.getRange().asClass();
+                MetaProperty inverseProp = property.getInverse();
+                if (isRestorable(detailMetaClass, storeName) && inverseProp != null) {
+                    collectDetails(detailMetaClass, inverseProp.getName(), masters, details,
+                            detailsToRestoreSeparately, storeName);
+                }
+            }
+        }
+
+        fillProperties(metaClass, properties, OnDeleteInverse.class.getName());
+        for (MetaProperty property : properties) {
+            OnDeleteInverse annotation = property.getAnnotatedElement().getAnnotation(OnDeleteInverse.class);
+            if (annotation.value() == DeletePolicy.CASCADE) {
+                MetaClass detailMetaClass = property.getDomain();
+                if (!isRestorable(detailMetaClass, storeName))
+                    continue;
+
+                List<MetaClass> metaClassesToRestore = new ArrayList<>();
+                metaClassesToRestore.add(detailMetaClass);
+                metaClassesToRestore.addAll(detailMetaClass.getDescendants());
+                for (MetaClass metaClassToRestore : metaClassesToRestore) {
+                    if (metadata.getTools().isPersistent(metaClassToRestore)) {
+                        collectDetails(metaClassToRestore, property.getName(), masters, details,
+                                detailsToRestoreSeparately, storeName);
+                    }
+                }
+            }
+        }
+    }
+
+    protected void collectDetails(MetaClass detailMetaClass, String referenceProperty, Map<Object, Date> masters,
+                                  Map<MetaClass, Map<Object, Date>> details,
+                                  Map<MetaClass, Set<Object>> detailsToRestoreSeparately, String storeName) {
+        EntityManager em = persistence.getEntityManager(storeName);
+        String primaryKey = metadata.getTools().getPrimaryKeyName(detailMetaClass);
+        String jpql = "select e." + primaryKey + ", e.deleteTs, e." + referenceProperty + ".id from "
+                + detailMetaClass.getName() + " e where e." + referenceProperty + ".id in :ids and e.deleteTs is not null";
+        boolean bulkRestorePossible = isBulkRestorePossible(detailMetaClass);
+
+        for (List<Object> batchIds : Iterables.partition(masters.keySet(), MAX_IDS_IN_STATEMENT)) {
+            Query query = em.createQuery(jpql);
+            query.setParameter("ids", batchIds);
+            //noinspection unchecked
+            List<Object[]> rows = query.getResultList();
+            for (Object[] row : rows) {
+                Date masterDeleteTs = masters.get(row[2]);
+                Date deleteTs = (Date) row[1];
+                if (masterDeleteTs == null
+                        || deleteTs.before(DateUtils.addMilliseconds(masterDeleteTs, -100))
+                        || deleteTs.after(DateUtils.addMilliseconds(masterDeleteTs, 1000)))
+                    continue;
+
+                if (bulkRestorePossible) {
+                    details.computeIfAbsent(detailMetaClass, aClass -> new LinkedHashMap<>()).put(row[0], deleteTs);
+                } else {
+                    detailsToRestoreSeparately.computeIfAbsent(detailMetaClass, aClass -> new LinkedHashSet<>())
+                            .add(row[0]);
+                }
+            }
+        }
+    }
+
+    protected boolean isRestorable(MetaClass detailMetaClass, String storeName) {
+        if (!storeName.equals(metadata.getTools().getStoreName(detailMetaClass))) {
+            log.debug("Cannot restore " + detailMetaClass + " because it is from different data store");
+            return false;
+        }
+        if (!SoftDelete.class.isAssignableFrom(detailMetaClass.getJavaClass())) {
+            log.debug("Cannot restore " + detailMetaClass + " because it is hard deleted");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return true if instances of the given class can be restored by an SQL update, i.e. they are stored in a
+     * single table and nothing has to observe the change: entity listeners, entity log, full-text search,
+     * entity cache or {@code EntityChangedEvent} listeners
+     */
+    protected boolean isBulkRestorePossible(MetaClass metaClass) {
+        MetadataTools metadataTools = metadata.getTools();
+        Class<? extends Entity> javaClass = metaClass.getJavaClass();
+        if (!SoftDelete.class.isAssignableFrom(javaClass)
+                || metadataTools.hasCompositePrimaryKey(metaClass)
+                || metadataTools.getDatabaseTable(metaClass) == null)
+            return false;
+
+        for (MetaClass aClass : Iterables.concat(metaClass.getAncestors(), metaClass.getDescendants())) {
+            if (metadataTools.isPersistent(aClass))
+                return false;
+        }
+
+        if (entityListenerManager.hasListeners(javaClass, EntityListenerType.BEFORE_UPDATE)
+                || entityListenerManager.hasListeners(javaClass, EntityListenerType.AFTER_UPDATE))
+            return false;
+
+        if (entityLog.isLogged(metadata.getExtendedEntities().getOriginalOrThisMetaClass(metaClass).getName())
+                || FtsConfigHelper.getEnabled()
+                || metadataTools.isCacheable(metaClass)
+                || metaClass.getAnnotations().get(PublishEntityChangedEvents.class.getName()) != null)
+            return false;
+
+        for (MetaProperty property : metaClass.getProperties()) {
+            if (property.getRange().isClass() && !property.getRange().getCardinality().isMany()
+                    && metadataTools.isCacheable(property.getRange().asClass()))
+                return false;
+        }
+        return true;
+    }
+
+    protected void bulkClearDeleteTs(MetaClass metaClass, Collection<Object> ids, String storeName) {
+        MetadataTools metadataTools = metadata.getTools();
+        DbTypeConverter converter = persistence.getDbTypeConverter(storeName);
+        Class<? extends Entity> javaClass = metaClass.getJavaClass();
+
+        String deleteTsColumn = getColumn(metaClass, "deleteTs");
+        StringBuilder sb = new StringBuilder();
+        sb.append("update ").append(metadataTools.getDatabaseTable(metaClass))
+                .append(" set ").append(deleteTsColumn).append(" = null");
+        List<Object> params = new ArrayList<>();
+        if (Updatable.class.isAssignableFrom(javaClass)) {
+            sb.append(", ").append(getColumn(metaClass, "updateTs")).append(" = ?, ")
+                    .append(getColumn(metaClass, "updatedBy")).append(" = ?");
+            params.add(converter.getSqlObject(timeSource.currentTimestamp()));
+            params.add(auditInfoProvider.getCurrentUserLogin());
+        }
+        if (Versioned.class.isAssignableFrom(javaClass)) {
+            String versionColumn = getColumn(metaClass, "version");
+            sb.append(", ").append(versionColumn).append(" = ").append(versionColumn).append(" + 1");
+        }
+        sb.append(" where ").append(getColumn(metaClass, metadataTools.getPrimaryKeyName(metaClass))).append(" in (");
+
+        EntityManager em = persistence.getEntityManager(storeName);
+        QueryRunner queryRunner = new QueryRunner();
+        for (List<Object> batchIds : Iterables.partition(ids, MAX_IDS_IN_STATEMENT)) {
+            String sql = sb + StringUtils.repeat("?", ", ", batchIds.size()) + ") and " + deleteTsColumn + " is not null";
+            List<Object> batchParams = new ArrayList<>(params);
+            for (Object id : batchIds) {
+                batchParams.add(converter.getSqlObject(id));
+            }
+            log.debug("Restoring deleted entities of {}: {}, bind: {}", metaClass.getName(), sql, batchParams);
+            try {
+                queryRunner.update(em.getConnection(), sql, batchParams.toArray());
+            } catch (SQLException e) {
+                throw new RuntimeException("Error restoring entities of " + metaClass.getName(), e);
+            }
+        }
+        queryCacheManager.invalidate(javaClass, true);
+    }
+
+    protected String getColumn(MetaClass metaClass, String propertyName) {
+        String column = metadata.getTools().getDatabaseColumn(metaClass.getPropertyNN(propertyName));
+        if (column == null)
+            throw new IllegalStateException("Cannot determine a database column for " + metaClass.getName() + "." + propertyName);
+        return column;
+    }
+
     protected void fillProperties(MetaClass metaClass, List<MetaProperty> properties, String annotationName) {
         properties.clear();
         MetaProperty[] metaProperties = (MetaProperty[]) metaClass.getAnnotations().get(annotationName);
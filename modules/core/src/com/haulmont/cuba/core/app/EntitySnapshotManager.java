@@ -74,6 +74,8 @@ public class EntitySnapshotManager implements EntitySnapshotAPI {
     @Inject
     protected DataManager dataManager;
 
+    protected volatile XStream xStream;
+
     @Override
     public List<EntitySnapshot> getSnapshots(MetaClass metaClass, Object id) {
         metaClass = extendedEntities.getOriginalOrThisMetaClass(metaClass);
@@ -198,6 +200,28 @@ public class EntitySnapshotManager implements EntitySnapshotAPI {
     }
 
     protected Object fromXML(String xml) {
+        return getXStream().fromXML(xml);
+    }
+
+    /**
+     * Returns an XStream instance for reading snapshots saved in XML format by previous platform versions.
+     * The instance is created once: XStream is thread-safe after it is configured, and the creation is expensive.
+     */
+    protected XStream getXStream() {
+        XStream result = xStream;
+        if (result == null) {
+            synchronized (this) {
+                result = xStream;
+                if (result == null) {
+                    result = createXStream();
+                    xStream = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    protected XStream createXStream() {
         final List exclUpdateFields = Arrays.asList("updateTs", "updatedBy");
         XStream xStream = new CubaXStream() {
             @Override
@@ -229,7 +253,7 @@ public class EntitySnapshotManager implements EntitySnapshotAPI {
         xStream.omitField(BaseGenericIdEntity.class, "createTs");
         xStream.omitField(BaseGenericIdEntity.class, "createdBy");
 
-        return xStream.fromXML(xml);
+        return xStream;
     }
 
     protected boolean isXml(String value) {
@@ -79,4 +79,15 @@ public interface FileStorageAPI {
      * @throws IllegalArgumentException if arguments are incorrect
      */
     boolean fileExists(FileDescriptor fileDescr) throws FileStorageException;
-}
\ No newline at end of file
+
+    /**
+     * Return the actual size of the file contents, which can differ from {@link FileDescriptor#getSize()}.
+     * @param fileDescr file descriptor
+     * @return           size in bytes, or -1 if the storage cannot determine it without reading the contents
+     * @throws IllegalArgumentException if arguments are incorrect
+     * @throws FileStorageException     if something goes wrong
+     */
+    default long getFileSize(FileDescriptor fileDescr) throws FileStorageException {
+        return -1;
+    }
+}
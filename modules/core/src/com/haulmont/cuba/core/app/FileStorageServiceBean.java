@@ -47,4 +47,9 @@ public class FileStorageServiceBean implements FileStorageService {
     public boolean fileExists(FileDescriptor fileDescr) throws FileStorageException {
         return fileStorageAPI.fileExists(fileDescr);
     }
-}
\ No newline at end of file
+
+    @Override
+    public long getFileSize(FileDescriptor fileDescr) throws FileStorageException {
+        return fileStorageAPI.getFileSize(fileDescr);
+    }
+}
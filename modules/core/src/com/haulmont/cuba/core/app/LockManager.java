@@ -33,11 +33,10 @@ import org.springframework.stereotype.Component;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.io.*;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component(LockManagerAPI.NAME)
 public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
@@ -73,12 +72,60 @@ public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
         }
     }
 
+    /**
+     * Scheduled expiration of a lock. Entries of released locks are removed from the schedule on unlock, entries of
+     * locks replaced by a cluster message are skipped when their time comes.
+     */
+    private static class LockExpiration implements Comparable<LockExpiration> {
+
+        private static final AtomicLong sequence = new AtomicLong();
+
+        private final LockKey key;
+        private final LockInfo lockInfo;
+        private final long expirationTime;
+        private final long seq = sequence.incrementAndGet();
+
+        private LockExpiration(LockKey key, LockInfo lockInfo, long expirationTime) {
+            this.key = key;
+            this.lockInfo = lockInfo;
+            this.expirationTime = expirationTime;
+        }
+
+        @Override
+        public int compareTo(LockExpiration o) {
+            int result = Long.compare(expirationTime, o.expirationTime);
+            return result != 0 ? result : Long.compare(seq, o.seq);
+        }
+    }
+
+    /**
+     * Cluster message carrying a batch of acquired locks and released locks (the latter have null user).
+     */
+    private static class LockInfoBatch implements Serializable {
+
+        private static final long serialVersionUID = 3597451240652826128L;
+
+        private final List<LockInfo> locks;
+
+        private LockInfoBatch(List<LockInfo> locks) {
+            this.locks = locks;
+        }
+    }
+
     private static final Logger log = LoggerFactory.getLogger(LockManager.class);
 
     private volatile Map<String, LockDescriptor> config;
 
     private Map<LockKey, LockInfo> locks = new ConcurrentHashMap<>();
 
+    private NavigableSet<LockExpiration> expirations = new ConcurrentSkipListSet<>();
+
+    // entries of the expiration schedule by lock, to remove them on unlock
+    private Map<LockKey, LockExpiration> scheduledExpirations = new ConcurrentHashMap<>();
+
+    // set when the configuration is reloaded and the expiration schedule must be rebuilt
+    private volatile boolean rescheduleExpirations;
+
     @Inject
     private Persistence persistence;
 
@@ -88,12 +135,23 @@ public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
     @Inject
     private UserSessionSource userSessionSource;
 
+    @Inject
+    private TimeSource timeSource;
+
     private ClusterManagerAPI clusterManager;
 
     @Inject
     public void setClusterManager(ClusterManagerAPI clusterManager) {
         this.clusterManager = clusterManager;
         this.clusterManager.addListener(LockInfo.class, this);
+        this.clusterManager.addListener(LockInfoBatch.class, new ClusterListenerAdapter<LockInfoBatch>() {
+            @Override
+            public void receive(LockInfoBatch message) {
+                for (LockInfo lockInfo : message.locks) {
+                    LockManager.this.receive(lockInfo);
+                }
+            }
+        });
     }
 
     private Map<String, LockDescriptor> getConfig() {
@@ -124,11 +182,26 @@ public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
 
     @Override
     public LockInfo lock(String name, String id) {
+        List<LockInfo> acquired = new ArrayList<>(1);
+        LockInfo lockInfo = tryLock(name, id, acquired);
+        for (LockInfo acquiredLockInfo : acquired) {
+            clusterManager.send(acquiredLockInfo);
+        }
+        return lockInfo;
+    }
+
+    /**
+     * Acquires the lock locally and adds it to the {@code acquired} list.
+     *
+     * @return null if the lock is acquired, otherwise existing lock or {@link LockNotSupported}
+     */
+    @Nullable
+    private LockInfo tryLock(String name, String id, List<LockInfo> acquired) {
         LockKey key = new LockKey(name, id);
 
         LockInfo lockInfo = locks.get(key);
         if (lockInfo != null) {
-            log.debug("Already locked: " + lockInfo);
+            log.debug("Already locked: {}", lockInfo);
             return lockInfo;
         }
 
@@ -138,10 +211,14 @@ public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
         }
 
         lockInfo = new LockInfo(userSessionSource.getUserSession().getCurrentOrSubstitutedUser(), name, id);
-        locks.put(key, lockInfo);
-        log.debug("Locked " + name + "/" + id);
-
-        clusterManager.send(lockInfo);
+        LockInfo existingLockInfo = locks.putIfAbsent(key, lockInfo);
+        if (existingLockInfo != null) {
+            log.debug("Already locked: {}", existingLockInfo);
+            return existingLockInfo;
+        }
+        scheduleExpiration(key, lockInfo, ld);
+        acquired.add(lockInfo);
+        log.debug("Locked {}/{}", name, id);
 
         return null;
     }
@@ -151,30 +228,76 @@ public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
     public LockInfo lock(Entity entity) {
         Preconditions.checkNotNullArgument(entity, "entity is null");
 
-        MetaClass metaClass = metadata.getClassNN(entity.getClass());
-        MetaClass originalMetaClass = metadata.getExtendedEntities().getOriginalOrThisMetaClass(metaClass);
+        return lock(getLockName(entity), entity.getId().toString());
+    }
 
-        return lock(originalMetaClass.getName(), entity.getId().toString());
+    @Override
+    public List<LockInfo> lock(Collection<? extends Entity> entities) {
+        Preconditions.checkNotNullArgument(entities, "entities collection is null");
+
+        List<LockInfo> result = new ArrayList<>(entities.size());
+        List<LockInfo> acquired = new ArrayList<>(entities.size());
+        for (Entity entity : entities) {
+            Preconditions.checkNotNullArgument(entity, "entity is null");
+
+            result.add(tryLock(getLockName(entity), entity.getId().toString(), acquired));
+        }
+
+        if (!acquired.isEmpty()) {
+            clusterManager.send(new LockInfoBatch(acquired));
+        }
+        return result;
     }
 
     @Override
     public void unlock(String name, String id) {
-        LockInfo lockInfo = locks.remove(new LockKey(name, id));
-        if (lockInfo != null) {
-            log.debug("Unlocked " + name + "/" + id);
-
+        if (tryUnlock(name, id)) {
             clusterManager.send(new LockInfo(null, name, id));
         }
     }
 
+    private boolean tryUnlock(String name, String id) {
+        LockKey key = new LockKey(name, id);
+        LockInfo lockInfo = locks.remove(key);
+        if (lockInfo != null) {
+            unscheduleExpiration(key, lockInfo);
+            log.debug("Unlocked {}/{}", name, id);
+            return true;
+        }
+        return false;
+    }
+
     @Override
     public void unlock(Entity entity) {
         Preconditions.checkNotNullArgument(entity, "entity is null");
 
+        unlock(getLockName(entity), entity.getId().toString());
+    }
+
+    @Override
+    public void unlock(Collection<? extends Entity> entities) {
+        Preconditions.checkNotNullArgument(entities, "entities collection is null");
+
+        List<LockInfo> released = new ArrayList<>(entities.size());
+        for (Entity entity : entities) {
+            Preconditions.checkNotNullArgument(entity, "entity is null");
+
+            String name = getLockName(entity);
+            String id = entity.getId().toString();
+            if (tryUnlock(name, id)) {
+                released.add(new LockInfo(null, name, id));
+            }
+        }
+
+        if (!released.isEmpty()) {
+            clusterManager.send(new LockInfoBatch(released));
+        }
+    }
+
+    private String getLockName(Entity entity) {
         MetaClass metaClass = metadata.getClassNN(entity.getClass());
         MetaClass originalMetaClass = metadata.getExtendedEntities().getOriginalOrThisMetaClass(metaClass);
-
-        unlock(originalMetaClass.getName(), entity.getId().toString());
+        return originalMetaClass.getName();
     }
 
     @Override
@@ -192,34 +315,87 @@ public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
         return new ArrayList<>(locks.values());
     }
 
+    private void scheduleExpiration(LockKey key, LockInfo lockInfo, @Nullable LockDescriptor ld) {
+        long expirationTime;
+        if (ld == null) {
+            // a lock received from the cluster is not configured on this node, remove it on the next run
+            expirationTime = 0;
+        } else {
+            Integer timeoutSec = ld.getTimeoutSec();
+            if (timeoutSec == null || timeoutSec <= 0)
+                return;
+            expirationTime = lockInfo.getSince().getTime() + timeoutSec * 1000L;
+        }
+        LockExpiration expiration = new LockExpiration(key, lockInfo, expirationTime);
+        expirations.add(expiration);
+        LockExpiration previous = scheduledExpirations.put(key, expiration);
+        if (previous != null) {
+            expirations.remove(previous);
+        }
+    }
+
+    private void unscheduleExpiration(LockKey key, LockInfo lockInfo) {
+        LockExpiration expiration = scheduledExpirations.get(key);
+        // the lock can be acquired again concurrently, do not remove the expiration of the new one
+        if (expiration != null && expiration.lockInfo == lockInfo && scheduledExpirations.remove(key, expiration)) {
+            expirations.remove(expiration);
+        }
+    }
+
+    /**
+     * @return number of entries in the expiration schedule
+     */
+    int getScheduledExpirationsCount() {
+        return expirations.size();
+    }
+
     @Override
     public void expireLocks() {
         log.debug("Expiring locks");
-        ArrayList<LockKey> list = new ArrayList<>(locks.keySet());
-        for (LockKey key : list) {
-            LockInfo lockInfo = locks.get(key);
-            if (lockInfo != null) {
-                LockDescriptor ld = getConfig().get(key.name);
-                if (ld == null) {
-                    log.debug("Lock " + key.name + "/" + key.id + " configuration not found, remove it");
-                    locks.remove(key);
-                } else {
-                    Integer timeoutSec = ld.getTimeoutSec();
-                    if (timeoutSec != null && timeoutSec > 0) {
-                        Date since = lockInfo.getSince();
-                        if (since.getTime() + timeoutSec * 1000 < AppBeans.get(TimeSource.class).currentTimestamp().getTime()) {
-                            log.debug("Lock " + key.name + "/" + key.id + " expired");
-                            locks.remove(key);
-                        }
-                    }
+
+        if (rescheduleExpirations) {
+            rescheduleExpirations = false;
+            rescheduleExpirations();
+        }
+
+        long currentTime = timeSource.currentTimeMillis();
+        // the iterator returns the earliest expiration first, entries which are not expired yet stay in the schedule
+        for (LockExpiration expiration : expirations) {
+            if (expiration.expirationTime >= currentTime)
+                break;
+            if (expirations.remove(expiration)) {
+                scheduledExpirations.remove(expiration.key, expiration);
+                if (locks.remove(expiration.key, expiration.lockInfo)) {
+                    log.debug("Lock {}/{} expired", expiration.key.name, expiration.key.id);
                 }
             }
         }
     }
 
+    /**
+     * Rebuilds the expiration schedule according to the current configuration and removes locks
+     * which are not configured anymore.
+     */
+    private void rescheduleExpirations() {
+        expirations.clear();
+        scheduledExpirations.clear();
+        Map<String, LockDescriptor> config = getConfig();
+        for (Map.Entry<LockKey, LockInfo> entry : locks.entrySet()) {
+            LockKey key = entry.getKey();
+            LockDescriptor ld = config.get(key.name);
+            if (ld == null) {
+                log.debug("Lock {}/{} configuration not found, remove it", key.name, key.id);
+                locks.remove(key, entry.getValue());
+            } else {
+                scheduleExpiration(key, entry.getValue(), ld);
+            }
+        }
+    }
+
     @Override
     public void reloadConfiguration() {
         config = null;
+        rescheduleExpirations = true;
     }
 
     @Override
@@ -229,9 +405,18 @@ public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
             LockInfo lockInfo = locks.get(key);
             if (lockInfo == null || lockInfo.getSince().before(message.getSince())) {
                 locks.put(key, message);
+                Map<String, LockDescriptor> config = this.config;
+                if (config != null) {
+                    scheduleExpiration(key, message, config.get(key.name));
+                } else {
+                    rescheduleExpirations = true;
+                }
             }
         } else {
-            locks.remove(key);
+            LockInfo lockInfo = locks.remove(key);
+            if (lockInfo != null) {
+                unscheduleExpiration(key, lockInfo);
+            }
         }
     }
 
@@ -17,13 +17,12 @@
 
 package com.haulmont.cuba.core.app;
 
+import com.google.common.collect.Lists;
 import com.haulmont.chile.core.model.MetaClass;
 import com.haulmont.chile.core.model.MetaProperty;
 import com.haulmont.cuba.core.*;
-import com.haulmont.cuba.core.entity.Entity;
 import com.haulmont.cuba.core.global.ExtendedEntities;
 import com.haulmont.cuba.core.global.Metadata;
-import com.haulmont.cuba.core.global.View;
 import com.haulmont.cuba.core.global.ViewRepository;
 import org.springframework.stereotype.Service;
 
@@ -35,6 +34,8 @@ import static com.haulmont.bali.util.Preconditions.checkNotNullArgument;
 @Service(RelatedEntitiesService.NAME)
 public class RelatedEntitiesServiceBean implements RelatedEntitiesService {
 
+    protected static final int DEFAULT_LOADING_BATCH_SIZE = 500;
+
     @Inject
     protected Persistence persistence;
 
@@ -47,6 +48,9 @@ public class RelatedEntitiesServiceBean implements RelatedEntitiesService {
     @Inject
     protected ExtendedEntities extendedEntities;
 
+    @Inject
+    protected ServerConfig serverConfig;
+
     @SuppressWarnings("unchecked")
     @Override
     public List<Object> getRelatedIds(List<Object> parentIds, String parentMetaClass, String relationProperty) {
@@ -55,7 +59,6 @@ public class RelatedEntitiesServiceBean implements RelatedEntitiesService {
         checkNotNullArgument(relationProperty, "relationProperty argument is null");
 
         MetaClass metaClass = extendedEntities.getEffectiveMetaClass(metadata.getClassNN(parentMetaClass));
-        Class parentClass = metaClass.getJavaClass();
 
         MetaProperty metaProperty = metaClass.getPropertyNN(relationProperty);
 
@@ -65,35 +68,21 @@ public class RelatedEntitiesServiceBean implements RelatedEntitiesService {
         }
 
         MetaClass propertyMetaClass = extendedEntities.getEffectiveMetaClass(metaProperty.getRange().asClass());
-        Class propertyClass = propertyMetaClass.getJavaClass();
 
-        List<Object> relatedIds = new ArrayList<>();
+        String parentPrimaryKey = metadata.getTools().getPrimaryKeyName(metaClass);
+        String relatedPrimaryKey = metadata.getTools().getPrimaryKeyName(propertyMetaClass);
+        String queryString = "select r." + relatedPrimaryKey + " from " + parentMetaClass + " x join x." +
+                relationProperty + " r where x." + parentPrimaryKey + " in :ids";
+
+        Set<Object> relatedIds = new LinkedHashSet<>();
 
         Transaction tx = persistence.createTransaction();
         try {
             EntityManager em = persistence.getEntityManager();
-            String parentPrimaryKey = metadata.getTools().getPrimaryKeyName(metaClass);
-            String queryString = "select x from " + parentMetaClass + " x where x." +
-                    parentPrimaryKey + " in :ids";
-            Query query = em.createQuery(queryString);
-
-            String relatedPrimaryKey = metadata.getTools().getPrimaryKeyName(propertyMetaClass);
-            View view = new View(parentClass);
-            view.addProperty(relationProperty, new View(propertyClass).addProperty(relatedPrimaryKey));
-
-            query.setView(view);
-            query.setParameter("ids", parentIds);
-
-            List<Entity> resultList = query.getResultList();
-            for (Entity e : resultList) {
-                Object value = e.getValue(relationProperty);
-                if (value instanceof Entity) {
-                    relatedIds.add(((Entity) value).getId());
-                } else if (value instanceof Collection) {
-                    for (Object collectionItem : (Collection)value) {
-                        relatedIds.add(((Entity) collectionItem).getId());
-                    }
-                }
+            for (List<Object> batchIds : Lists.partition(parentIds, getLoadingBatchSize())) {
+                Query query = em.createQuery(queryString);
+                query.setParameter("ids", batchIds);
+                relatedIds.addAll(query.getResultList());
             }
 
             tx.commit();
@@ -101,6 +90,11 @@ public class RelatedEntitiesServiceBean implements RelatedEntitiesService {
             tx.end();
         }
 
-        return relatedIds;
+        return new ArrayList<>(relatedIds);
+    }
+
+    protected int getLoadingBatchSize() {
+        int batchSize = serverConfig.getRelatedEntitiesLoadingBatchSize();
+        return batchSize > 0 ? batchSize : DEFAULT_LOADING_BATCH_SIZE;
     }
-}
\ No newline at end of file
+}
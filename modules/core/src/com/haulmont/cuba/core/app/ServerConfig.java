@@ -270,6 +270,28 @@ public interface ServerConfig extends Config {
     @DefaultInt(50)
     int getCrossDataStoreReferenceLoadingBatchSize();
 
+    /**
+     * @return max number of entities which dynamic attribute values are loaded by one query
+     */
+    @Property("cuba.dynamicAttributesLoadingBatchSize")
+    @DefaultInt(500)
+    int getDynamicAttributesLoadingBatchSize();
+
+    /**
+     * @return max number of detached references which are reloaded by one query in {@code EntityFetcher}
+     */
+    @Property("cuba.entityFetcherLoadingBatchSize")
+    @DefaultInt(500)
+    int getEntityFetcherLoadingBatchSize();
+
+    /**
+     * @return max number of parent entities which related entity ids are loaded by one query in
+     * {@link RelatedEntitiesService}
+     */
+    @Property("cuba.relatedEntitiesLoadingBatchSize")
+    @DefaultInt(500)
+    int getRelatedEntitiesLoadingBatchSize();
+
     /**
      * @return use read-only transactions in {@code DataManager} load operations and do not commit them
      */
@@ -301,4 +323,47 @@ public interface ServerConfig extends Config {
     @Property("cuba.enableDeleteStatementInSoftDeleteMode")
     @DefaultBoolean(false)
     boolean getEnableDeleteStatementInSoftDeleteMode();
-}
\ No newline at end of file
+
+    /**
+     * @return if true, {@code @OnDeleteInverse} CASCADE and UNLINK policies are processed by set-based SQL updates
+     * of referencing rows when the referencing entities have no listeners, entity log or nested delete policies.
+     * Otherwise (by default), each referencing instance is loaded and processed separately.
+     */
+    @Property("cuba.bulkDeletePolicyProcessing")
+    @DefaultBoolean(false)
+    boolean getBulkDeletePolicyProcessing();
+
+    /**
+     * @return if true, {@code EntityRestoreService} restores soft-deleted entities and their cascade-deleted details
+     * by set-based queries and SQL updates, loading instances only for entity classes that have listeners or are
+     * included in entity log. Otherwise (by default), each instance of the graph is loaded and restored separately.
+     */
+    @Property("cuba.bulkEntityRestore")
+    @DefaultBoolean(false)
+    boolean getBulkEntityRestore();
+
+    /**
+     * @return if true, execution time of entity listeners is measured and can be displayed by the
+     * {@code app-core.cuba:type=PersistenceManager} JMX bean. Can also be switched at runtime by the JMX bean.
+     */
+    @Property("cuba.entityListenerStatisticsEnabled")
+    @DefaultBoolean(false)
+    boolean getEntityListenerStatisticsEnabled();
+
+    /**
+     * @return number of threads processing {@code @AsyncAfterCommit} listeners of {@code EntityChangedEvent}.
+     * Each thread processes events of its own subset of entity instances.
+     */
+    @Property("cuba.entityChangedEventsAsyncThreads")
+    @DefaultInt(4)
+    int getEntityChangedEventsAsyncThreads();
+
+    /**
+     * @return maximum number of events waiting for processing by each {@code @AsyncAfterCommit} thread.
+     * When the queue is full, committing threads wait for free space. Events committed by {@code @AsyncAfterCommit}
+     * listeners themselves do not wait and are queued over this limit.
+     */
+    @Property("cuba.entityChangedEventsAsyncQueueCapacity")
+    @DefaultInt(1000)
+    int getEntityChangedEventsAsyncQueueCapacity();
+}
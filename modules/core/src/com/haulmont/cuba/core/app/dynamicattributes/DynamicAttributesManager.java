@@ -18,6 +18,7 @@
 package com.haulmont.cuba.core.app.dynamicattributes;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.haulmont.chile.core.model.MetaClass;
 import com.haulmont.chile.core.model.MetaProperty;
@@ -27,6 +28,7 @@ import com.haulmont.cuba.core.Transaction;
 import com.haulmont.cuba.core.TypedQuery;
 import com.haulmont.cuba.core.app.ClusterListenerAdapter;
 import com.haulmont.cuba.core.app.ClusterManagerAPI;
+import com.haulmont.cuba.core.app.ServerConfig;
 import com.haulmont.cuba.core.entity.*;
 import com.haulmont.cuba.core.global.*;
 import org.apache.commons.collections4.CollectionUtils;
@@ -47,6 +49,9 @@ import static java.lang.String.format;
 
 @Component(DynamicAttributesManagerAPI.NAME)
 public class DynamicAttributesManager implements DynamicAttributesManagerAPI {
+    /**
+     * Batch size used if {@link ServerConfig#getDynamicAttributesLoadingBatchSize()} is not positive.
+     */
     public static final int MAX_ENTITIES_FOR_ATTRIBUTE_VALUES_BATCH = 100;
 
     private static final Logger log = LoggerFactory.getLogger(DynamicAttributesManager.class);
@@ -66,6 +71,9 @@ public class DynamicAttributesManager implements DynamicAttributesManagerAPI {
     @Inject
     protected ReferenceToEntitySupport referenceToEntitySupport;
 
+    @Inject
+    protected ServerConfig serverConfig;
+
     protected ClusterManagerAPI clusterManager;
 
     protected ReentrantLock loadCacheLock = new ReentrantLock();
@@ -220,12 +228,11 @@ public class DynamicAttributesManager implements DynamicAttributesManagerAPI {
             return;
 
         try (Transaction tx = persistence.getTransaction()) {
-            Multimap<String, BaseGenericIdEntity> entitiesByType = HashMultimap.create();
-            toProcess.forEach(e -> entitiesByType.put(e.getMetaClass().getName(), e));
-            entitiesByType.keySet().forEach(entityType -> {
-                MetaClass metaClass = metadata.getExtendedEntities().getOriginalOrThisMetaClass(metadata.getClass(entityType));
-                doFetchDynamicAttributes(metaClass, entitiesByType.get(entityType));
-            });
+            // group by original meta class to load values of extended and original entities together
+            Multimap<MetaClass, BaseGenericIdEntity> entitiesByType = HashMultimap.create();
+            toProcess.forEach(e -> entitiesByType.put(
+                    metadata.getExtendedEntities().getOriginalOrThisMetaClass(e.getMetaClass()), e));
+            entitiesByType.asMap().forEach(this::doFetchDynamicAttributes);
             tx.commit();
         }
     }
@@ -342,16 +349,7 @@ public class DynamicAttributesManager implements DynamicAttributesManagerAPI {
                 .collect(Collectors.toList());
 
         Multimap<Object, CategoryAttributeValue> allAttributeValues = HashMultimap.create();
-
-        List<Object> currentIds = new ArrayList<>();
-        for (Object id : ids) {
-            currentIds.add(id);
-            if (currentIds.size() >= MAX_ENTITIES_FOR_ATTRIBUTE_VALUES_BATCH) {
-                handleAttributeValuesForIds(metaClass, currentIds, allAttributeValues);
-                currentIds = new ArrayList<>();
-            }
-        }
-        handleAttributeValuesForIds(metaClass, currentIds, allAttributeValues);
+        handleAttributeValuesForIds(metaClass, ids, allAttributeValues);
 
         for (BaseGenericIdEntity entity : entities) {
             Collection<CategoryAttributeValue> entityAttributeValues = allAttributeValues.get(referenceToEntitySupport.getReferenceId(entity));
@@ -376,6 +374,11 @@ public class DynamicAttributesManager implements DynamicAttributesManagerAPI {
         }
     }
 
+    /**
+     * Loads values of the given entities. Values are selected in batches of
+     * {@link ServerConfig#getDynamicAttributesLoadingBatchSize()} entities, then referenced entities and
+     * collection values are loaded once for all batches.
+     */
     protected List<CategoryAttributeValue> loadAttributeValues(MetaClass metaClass, List<Object> entityIds) {
         List<CategoryAttributeValue> attributeValues = new ArrayList<>();
         try (Transaction tx = persistence.getTransaction()) {
@@ -386,21 +389,27 @@ public class DynamicAttributesManager implements DynamicAttributesManagerAPI {
                             .addProperty("category")
                             .addProperty("defaultEntity", viewRepository.getView(ReferenceToEntity.class, View.LOCAL)));
 
-            TypedQuery<CategoryAttributeValue> query;
-            if (HasUuid.class.isAssignableFrom(metaClass.getJavaClass())) {
-                query = em.createQuery(format("select cav from sys$CategoryAttributeValue cav where cav.entity.%s in :ids and cav.parent is null",
-                        referenceToEntitySupport.getReferenceIdPropertyName(metaClass)),
-                        CategoryAttributeValue.class);
+            String queryString;
+            boolean hasUuid = HasUuid.class.isAssignableFrom(metaClass.getJavaClass());
+            if (hasUuid) {
+                queryString = format("select cav from sys$CategoryAttributeValue cav where cav.entity.%s in :ids and cav.parent is null",
+                        referenceToEntitySupport.getReferenceIdPropertyName(metaClass));
             } else {
-                query = em.createQuery(format("select cav from sys$CategoryAttributeValue cav where cav.entity.%s in :ids " +
+                queryString = format("select cav from sys$CategoryAttributeValue cav where cav.entity.%s in :ids " +
                                 "and cav.categoryAttribute.categoryEntityType = :entityType and cav.parent is null",
-                        referenceToEntitySupport.getReferenceIdPropertyName(metaClass)),
-                        CategoryAttributeValue.class);
-                query.setParameter("entityType", metaClass.getName());
+                        referenceToEntitySupport.getReferenceIdPropertyName(metaClass));
+            }
+
+            List<CategoryAttributeValue> resultList = new ArrayList<>();
+            for (List<Object> batchIds : Lists.partition(entityIds, getLoadingBatchSize())) {
+                TypedQuery<CategoryAttributeValue> query = em.createQuery(queryString, CategoryAttributeValue.class);
+                if (!hasUuid) {
+                    query.setParameter("entityType", metaClass.getName());
+                }
+                query.setParameter("ids", batchIds);
+                query.setView(view);
+                resultList.addAll(query.getResultList());
             }
-            query.setParameter("ids", entityIds);
-            query.setView(view);
-            List<CategoryAttributeValue> resultList = query.getResultList();
 
             List<CategoryAttributeValue> cavsOfEntityType = resultList.stream()
                     .filter(cav -> cav.getObjectEntityValueId() != null)
@@ -453,17 +462,23 @@ public class DynamicAttributesManager implements DynamicAttributesManagerAPI {
     protected void loadEntityValues(List<CategoryAttributeValue> cavsOfEntityType) {
         HashMultimap<MetaClass, Object> entitiesIdsToBeLoaded = HashMultimap.create();
         HashMultimap<MetaClass, CategoryAttributeValue> cavByType = HashMultimap.create();
+        Map<String, MetaClass> metaClassesByClassName = new HashMap<>();
 
         cavsOfEntityType.forEach(cav -> {
             String className = cav.getCategoryAttribute().getEntityClass();
-            try {
-                Class<?> aClass = Class.forName(className);
-                MetaClass metaClass = metadata.getClass(aClass);
-                entitiesIdsToBeLoaded.put(metaClass, cav.getObjectEntityValueId());
-                cavByType.put(metaClass, cav);
-            } catch (ClassNotFoundException e) {
-                log.error("Class {} not found", className);
+            MetaClass metaClass = metaClassesByClassName.get(className);
+            if (metaClass == null) {
+                try {
+                    Class<?> aClass = Class.forName(className);
+                    metaClass = metadata.getClass(aClass);
+                    metaClassesByClassName.put(className, metaClass);
+                } catch (ClassNotFoundException e) {
+                    log.error("Class {} not found", className);
+                    return;
+                }
             }
+            entitiesIdsToBeLoaded.put(metaClass, cav.getObjectEntityValueId());
+            cavByType.put(metaClass, cav);
         });
 
         EntityManager em = persistence.getEntityManager();
@@ -475,13 +490,16 @@ public class DynamicAttributesManager implements DynamicAttributesManagerAPI {
 
             if (!ids.isEmpty()) {
                 String pkName = referenceToEntitySupport.getPrimaryKeyForLoadingEntity(metaClass);
-                List<BaseGenericIdEntity> entitiesValues = em.createQuery(format("select e from %s e where e.%s in :ids", metaClass.getName(), pkName))
-                        .setParameter("ids", ids)
-                        .setView(metaClass.getJavaClass(), View.MINIMAL)
-                        .getResultList();
-
-                for (BaseGenericIdEntity entity : entitiesValues) {
-                    idToEntityMap.put(entity.getId(), entity);
+                String queryString = format("select e from %s e where e.%s in :ids", metaClass.getName(), pkName);
+                for (List<Object> batchIds : Lists.partition(new ArrayList<>(ids), getLoadingBatchSize())) {
+                    List<BaseGenericIdEntity> entitiesValues = em.createQuery(queryString)
+                            .setParameter("ids", batchIds)
+                            .setView(metaClass.getJavaClass(), View.MINIMAL)
+                            .getResultList();
+
+                    for (BaseGenericIdEntity entity : entitiesValues) {
+                        idToEntityMap.put(entity.getId(), entity);
+                    }
                 }
             }
 
@@ -505,10 +523,19 @@ public class DynamicAttributesManager implements DynamicAttributesManagerAPI {
                 .map(BaseUuidEntity::getId)
                 .collect(Collectors.toList());
 
-        return em.createQuery("select cav from sys$CategoryAttributeValue cav where cav.id in :ids", CategoryAttributeValue.class)
-                .setParameter("ids", ids)
-                .setView(view)
-                .getResultList();
+        List<CategoryAttributeValue> result = new ArrayList<>(ids.size());
+        for (List<UUID> batchIds : Lists.partition(ids, getLoadingBatchSize())) {
+            result.addAll(em.createQuery("select cav from sys$CategoryAttributeValue cav where cav.id in :ids", CategoryAttributeValue.class)
+                    .setParameter("ids", batchIds)
+                    .setView(view)
+                    .getResultList());
+        }
+        return result;
+    }
+
+    protected int getLoadingBatchSize() {
+        int batchSize = serverConfig.getDynamicAttributesLoadingBatchSize();
+        return batchSize > 0 ? batchSize : MAX_ENTITIES_FOR_ATTRIBUTE_VALUES_BATCH;
     }
 
     private static class ReloadCacheMsg implements Serializable {
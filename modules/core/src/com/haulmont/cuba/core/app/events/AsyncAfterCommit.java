@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.core.app.events;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that an {@code AFTER_COMMIT} {@code @TransactionalEventListener} of {@link EntityChangedEvent} must be
+ * invoked asynchronously instead of on the committing thread.
+ * <p>
+ * Events are processed by a bounded pool of threads configured by {@code cuba.entityChangedEventsAsyncThreads}
+ * and {@code cuba.entityChangedEventsAsyncQueueCapacity}. Events related to the same entity instance are processed
+ * in the order of commits. If the queue is full, the committing thread waits until there is free space, unless it
+ * is itself a thread processing an event: then the event is queued over the limit, still after the events committed
+ * before it.
+ * <pre>
+ *     {@literal @}TransactionalEventListener
+ *     {@literal @}AsyncAfterCommit
+ *     protected void orderChanged(EntityChangedEvent&lt;Order, UUID&gt; event) {
+ *         //...
+ *     }
+ * </pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD})
+public @interface AsyncAfterCommit {
+}
@@ -47,6 +47,7 @@ import org.springframework.core.ResolvableTypeProvider;
  *     }
  * }
  * </pre>
+ * After commit handlers can be moved off the committing thread with the {@link AsyncAfterCommit} annotation.
  *
  * @param <E>   entity type
  * @param <K>   entity identifier type
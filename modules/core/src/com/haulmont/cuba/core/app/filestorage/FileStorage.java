@@ -30,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
@@ -307,6 +308,33 @@ public class FileStorage implements FileStorageAPI {
         return false;
     }
 
+    @Override
+    public long getFileSize(FileDescriptor fileDescr) throws FileStorageException {
+        File file = findFile(fileDescr);
+        if (file == null) {
+            throw new FileStorageException(FileStorageException.Type.FILE_NOT_FOUND, fileDescr.getId().toString());
+        }
+        return file.length();
+    }
+
+    /**
+     * INTERNAL. Don't use in application code.
+     *
+     * @return the first existing file of the given descriptor in the storage roots, or null if not found
+     */
+    @Nullable
+    public File findFile(FileDescriptor fileDescr) {
+        checkFileDescriptor(fileDescr);
+
+        for (File root : getStorageRoots()) {
+            File file = new File(getStorageDir(root, fileDescr), getFileName(fileDescr));
+            if (file.exists()) {
+                return file;
+            }
+        }
+        return null;
+    }
+
     /**
      * INTERNAL. Don't use in application code.
      */
@@ -41,4 +41,27 @@ public interface AmazonS3Config extends Config {
     @Property("cuba.amazonS3.chunkSize")
     @DefaultInt(8192)
     int getChunkSize();
+
+    /**
+     * @return URL of an S3-compatible service, e.g. {@code http://localhost:9000}. Objects are addressed in path style
+     * relative to this URL. If not set, the Amazon S3 endpoint of the bucket is used.
+     */
+    @Property("cuba.amazonS3.endpointUrl")
+    String getEndpointUrl();
+
+    /**
+     * @return size in bytes of a part of multipart uploads and ranged downloads. Files that are not larger than
+     * this size are transferred by a single request. Amazon S3 requires upload parts of at least 5 MB.
+     */
+    @Property("cuba.amazonS3.partSize")
+    @DefaultInt(8388608)
+    int getPartSize();
+
+    /**
+     * @return maximum number of parts transferred concurrently. Also limits the number of parts kept in memory by
+     * a single upload or download. 0 disables multipart uploads and ranged downloads.
+     */
+    @Property("cuba.amazonS3.transferThreadsCount")
+    @DefaultInt(4)
+    int getTransferThreadsCount();
 }
\ No newline at end of file
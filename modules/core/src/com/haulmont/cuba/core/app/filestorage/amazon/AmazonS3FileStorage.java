@@ -17,42 +17,61 @@
 
 package com.haulmont.cuba.core.app.filestorage.amazon;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.haulmont.bali.util.Dom4j;
 import com.haulmont.bali.util.Preconditions;
 import com.haulmont.cuba.core.app.FileStorageAPI;
 import com.haulmont.cuba.core.app.filestorage.amazon.auth.AWS4SignerBase;
 import com.haulmont.cuba.core.app.filestorage.amazon.auth.AWS4SignerForAuthorizationHeader;
 import com.haulmont.cuba.core.app.filestorage.amazon.auth.AWS4SignerForChunkedUpload;
+import com.haulmont.cuba.core.app.filestorage.amazon.util.BinaryUtils;
 import com.haulmont.cuba.core.app.filestorage.amazon.util.HttpUtils;
 import com.haulmont.cuba.core.entity.FileDescriptor;
 import com.haulmont.cuba.core.global.FileStorageException;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.text.StringEscapeUtils;
+import org.dom4j.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
-import java.io.ByteArrayInputStream;
-import java.io.DataOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.haulmont.bali.util.Preconditions.checkNotNullArgument;
 
 public class AmazonS3FileStorage implements FileStorageAPI {
 
+    private static final Logger log = LoggerFactory.getLogger(AmazonS3FileStorage.class);
+
     @Inject
     protected AmazonS3Config amazonS3Config;
 
+    protected volatile ExecutorService transferExecutor;
+
     @Override
     public long saveStream(FileDescriptor fileDescr, InputStream inputStream) throws FileStorageException {
         Preconditions.checkNotNullArgument(fileDescr.getSize());
 
+        if (isPartedTransfer(fileDescr.getSize())) {
+            return saveStreamMultipart(fileDescr, inputStream);
+        }
+        return saveStreamChunked(fileDescr, inputStream);
+    }
+
+    /**
+     * Uploads the file by a single PUT request with the payload sent as a series of signed chunks.
+     */
+    protected long saveStreamChunked(FileDescriptor fileDescr, InputStream inputStream) throws FileStorageException {
         int chunkSize = amazonS3Config.getChunkSize();
         long fileSize = fileDescr.getSize();
         URL amazonUrl = getAmazonUrl(fileDescr);
@@ -135,6 +154,211 @@ public class AmazonS3FileStorage implements FileStorageAPI {
         return fileDescr.getSize();
     }
 
+    /**
+     * Uploads the file using S3 multipart upload. Parts are read from the stream sequentially and sent concurrently
+     * by the transfer executor; at most {@link AmazonS3Config#getTransferThreadsCount()} parts are kept in memory.
+     */
+    protected long saveStreamMultipart(FileDescriptor fileDescr, InputStream inputStream) throws FileStorageException {
+        int partSize = amazonS3Config.getPartSize();
+        Semaphore permits = new Semaphore(amazonS3Config.getTransferThreadsCount());
+        AtomicBoolean failed = new AtomicBoolean();
+        ExecutorService executor = getTransferExecutor();
+
+        String uploadId = initiateMultipartUpload(fileDescr);
+        List<Future<String>> parts = new ArrayList<>();
+        long size = 0;
+        try {
+            int bytesRead;
+            do {
+                permits.acquire();
+                byte[] buffer = new byte[partSize];
+                try {
+                    bytesRead = IOUtils.read(inputStream, buffer, 0, partSize);
+                } catch (IOException e) {
+                    permits.release();
+                    throw e;
+                }
+                if (bytesRead == 0 && !parts.isEmpty()) {
+                    permits.release();
+                    break;
+                }
+                size += bytesRead;
+
+                int partNumber = parts.size() + 1;
+                int partLength = bytesRead;
+                parts.add(executor.submit(() -> {
+                    try {
+                        return uploadPart(fileDescr, uploadId, partNumber, buffer, partLength);
+                    } catch (Exception e) {
+                        failed.set(true);
+                        throw e;
+                    } finally {
+                        permits.release();
+                    }
+                }));
+                // stop reading the stream as soon as any part has failed
+                if (failed.get())
+                    break;
+            } while (bytesRead == partSize);
+
+            List<String> eTags = new ArrayList<>(parts.size());
+            for (Future<String> part : parts) {
+                eTags.add(part.get());
+            }
+            completeMultipartUpload(fileDescr, uploadId, eTags);
+        } catch (Exception e) {
+            for (Future<String> part : parts) {
+                part.cancel(true);
+            }
+            abortMultipartUpload(fileDescr, uploadId);
+
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            if (cause instanceof FileStorageException) {
+                throw (FileStorageException) cause;
+            }
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION,
+                    "Could not save file " + getFileName(fileDescr), cause);
+        }
+        return size;
+    }
+
+    protected String initiateMultipartUpload(FileDescriptor fileDescr) throws FileStorageException {
+        Map<String, String> query = Collections.singletonMap("uploads", "");
+        Map<String, String> headers = new HashMap<>();
+        headers.put("x-amz-storage-class", "REDUCED_REDUNDANCY");
+
+        HttpUtils.HttpResponse httpResponse = invokeRequest(fileDescr, "POST", query, headers, new byte[0]);
+        Element root = readResponseDocument(fileDescr, httpResponse, "Could not initiate upload of file %s. %s");
+        String uploadId = root.elementText("UploadId");
+        if (StringUtils.isEmpty(uploadId)) {
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION,
+                    "Could not initiate upload of file " + getFileName(fileDescr) + ". No upload id returned");
+        }
+        return uploadId;
+    }
+
+    protected String uploadPart(FileDescriptor fileDescr, String uploadId, int partNumber,
+                                byte[] data, int length) throws FileStorageException {
+        Map<String, String> query = new HashMap<>();
+        query.put("partNumber", String.valueOf(partNumber));
+        query.put("uploadId", uploadId);
+
+        HttpUtils.HttpResponse httpResponse = invokeRequest(fileDescr, "PUT", query, new HashMap<>(),
+                length == data.length ? data : Arrays.copyOf(data, length));
+        if (!httpResponse.isStatusOk()) {
+            String message = String.format("Could not upload part %d of file %s. %s",
+                    partNumber, getFileName(fileDescr), getInputStreamContent(httpResponse));
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, message);
+        }
+        IOUtils.closeQuietly(httpResponse.getInputStream());
+
+        String eTag = httpResponse.getHeader("ETag");
+        if (eTag == null) {
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION,
+                    String.format("Could not upload part %d of file %s. No ETag returned", partNumber, getFileName(fileDescr)));
+        }
+        return eTag;
+    }
+
+    protected void completeMultipartUpload(FileDescriptor fileDescr, String uploadId, List<String> eTags)
+            throws FileStorageException {
+        StringBuilder sb = new StringBuilder("<CompleteMultipartUpload>");
+        for (int i = 0; i < eTags.size(); i++) {
+            sb.append("<Part><PartNumber>").append(i + 1).append("</PartNumber>")
+                    .append("<ETag>").append(StringEscapeUtils.escapeXml10(eTags.get(i))).append("</ETag></Part>");
+        }
+        sb.append("</CompleteMultipartUpload>");
+
+        HttpUtils.HttpResponse httpResponse = invokeRequest(fileDescr, "POST",
+                Collections.singletonMap("uploadId", uploadId), new HashMap<>(),
+                sb.toString().getBytes(StandardCharsets.UTF_8));
+        // the request may fail after the response status has been sent
+        readResponseDocument(fileDescr, httpResponse, "Could not complete upload of file %s. %s");
+    }
+
+    protected void abortMultipartUpload(FileDescriptor fileDescr, String uploadId) {
+        try {
+            HttpUtils.HttpResponse httpResponse = invokeRequest(fileDescr, "DELETE",
+                    Collections.singletonMap("uploadId", uploadId), new HashMap<>(), null);
+            if (!httpResponse.isStatusOk()) {
+                log.warn("Could not abort upload of file {}. {}", getFileName(fileDescr), getInputStreamContent(httpResponse));
+            } else {
+                IOUtils.closeQuietly(httpResponse.getInputStream());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not abort upload of file {}", getFileName(fileDescr), e);
+        }
+    }
+
+    protected Element readResponseDocument(FileDescriptor fileDescr, HttpUtils.HttpResponse httpResponse,
+                                           String errorMessage) throws FileStorageException {
+        String content = getInputStreamContent(httpResponse);
+        Element root = null;
+        if (httpResponse.isStatusOk() && StringUtils.isNotBlank(content)) {
+            root = Dom4j.readDocument(content).getRootElement();
+        }
+        if (root == null || "Error".equals(root.getName())) {
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION,
+                    String.format(errorMessage, getFileName(fileDescr), content));
+        }
+        return root;
+    }
+
+    /**
+     * Signs and executes a request with a payload that is fully available in memory.
+     */
+    protected HttpUtils.HttpResponse invokeRequest(FileDescriptor fileDescr, String method,
+                                                   @Nullable Map<String, String> query,
+                                                   Map<String, String> headers, @Nullable byte[] body) {
+        URL amazonUrl = getAmazonUrl(fileDescr, query);
+        byte[] data = body != null ? body : new byte[0];
+
+        String bodyHash = body != null ? BinaryUtils.toHex(AWS4SignerBase.hash(data)) : AWS4SignerBase.EMPTY_BODY_SHA256;
+        headers.put("x-amz-content-sha256", bodyHash);
+        if (body != null) {
+            headers.put("content-length", String.valueOf(data.length));
+        }
+
+        AWS4SignerForAuthorizationHeader signer = new AWS4SignerForAuthorizationHeader(
+                amazonUrl, method, "s3", amazonS3Config.getRegionName());
+        String authorization = signer.computeSignature(headers, query, bodyHash,
+                amazonS3Config.getAccessKey(), amazonS3Config.getSecretAccessKey());
+        headers.put("Authorization", authorization);
+
+        HttpURLConnection connection = HttpUtils.createHttpConnection(amazonUrl, method, headers);
+        if (body != null) {
+            connection.setFixedLengthStreamingMode(data.length);
+            try (OutputStream os = connection.getOutputStream()) {
+                os.write(data);
+            } catch (IOException e) {
+                throw new RuntimeException("Request failed. " + e.getMessage(), e);
+            }
+        }
+        return HttpUtils.executeHttpRequest(connection);
+    }
+
+    protected ExecutorService getTransferExecutor() {
+        if (transferExecutor == null) {
+            synchronized (this) {
+                if (transferExecutor == null) {
+                    transferExecutor = Executors.newFixedThreadPool(amazonS3Config.getTransferThreadsCount(),
+                            new ThreadFactoryBuilder().setNameFormat("AmazonS3Transfer-%d").setDaemon(true).build());
+                }
+            }
+        }
+        return transferExecutor;
+    }
+
+    @PreDestroy
+    protected void stopTransferExecutor() {
+        if (transferExecutor != null) {
+            transferExecutor.shutdownNow();
+        }
+    }
+
     @Override
     public void saveFile(FileDescriptor fileDescr, byte[] data) throws FileStorageException {
         checkNotNullArgument(data, "File content is null");
@@ -162,6 +386,45 @@ public class AmazonS3FileStorage implements FileStorageAPI {
 
     @Override
     public InputStream openStream(FileDescriptor fileDescr) throws FileStorageException {
+        if (isPartedTransfer(fileDescr.getSize())) {
+            return openRangedStream(fileDescr);
+        }
+        return openSingleStream(fileDescr);
+    }
+
+    /**
+     * @return true if the file of the given size is uploaded by multipart upload and downloaded by ranges
+     */
+    protected boolean isPartedTransfer(@Nullable Long size) {
+        return size != null && size > amazonS3Config.getPartSize() && amazonS3Config.getTransferThreadsCount() > 0;
+    }
+
+    /**
+     * Loads the first part of the file and takes the actual file size from its {@code Content-Range}, so the stored
+     * size of the descriptor is used only to choose the download method. Other parts are loaded concurrently.
+     */
+    protected InputStream openRangedStream(FileDescriptor fileDescr) throws FileStorageException {
+        int partSize = amazonS3Config.getPartSize();
+        HttpUtils.HttpResponse httpResponse = requestRange(fileDescr, 0, partSize - 1);
+        if (httpResponse.getStatus() != HttpURLConnection.HTTP_PARTIAL) {
+            // the range is ignored and the whole file is returned
+            return httpResponse.getInputStream();
+        }
+
+        long size = getContentRangeSize(fileDescr, httpResponse);
+        if (size != fileDescr.getSize()) {
+            log.warn("Size of file {} is {}, but the file descriptor size is {}",
+                    getFileName(fileDescr), size, fileDescr.getSize());
+        }
+
+        byte[] firstPart = readRange(fileDescr, httpResponse, 0, Math.min(partSize, size) - 1);
+        if (size <= partSize) {
+            return new ByteArrayInputStream(firstPart);
+        }
+        return new RangedInputStream(fileDescr, firstPart, size, partSize, amazonS3Config.getTransferThreadsCount());
+    }
+
+    protected InputStream openSingleStream(FileDescriptor fileDescr) throws FileStorageException {
         URL amazonUrl = getAmazonUrl(fileDescr);
 
         // for a simple GET, we have no body so supply the precomputed 'empty' hash
@@ -185,6 +448,51 @@ public class AmazonS3FileStorage implements FileStorageAPI {
         }
     }
 
+    /**
+     * Loads the given inclusive range of bytes of the file.
+     */
+    protected byte[] loadRange(FileDescriptor fileDescr, long start, long end) throws FileStorageException {
+        HttpUtils.HttpResponse httpResponse = requestRange(fileDescr, start, end);
+        return readRange(fileDescr, httpResponse, start, end);
+    }
+
+    protected HttpUtils.HttpResponse requestRange(FileDescriptor fileDescr, long start, long end)
+            throws FileStorageException {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Range", "bytes=" + start + "-" + end);
+
+        HttpUtils.HttpResponse httpResponse = invokeRequest(fileDescr, "GET", null, headers, null);
+        if (httpResponse.isStatusNotFound()) {
+            IOUtils.closeQuietly(httpResponse.getInputStream());
+            throw new FileStorageException(FileStorageException.Type.FILE_NOT_FOUND,
+                    "File not found" + getFileName(fileDescr));
+        } else if (!httpResponse.isStatusOk()) {
+            String message = String.format("Could not get file %s. %s",
+                    getFileName(fileDescr), getInputStreamContent(httpResponse));
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, message);
+        }
+        return httpResponse;
+    }
+
+    /**
+     * Reads exactly the given inclusive range of bytes from the response and closes it.
+     */
+    protected byte[] readRange(FileDescriptor fileDescr, HttpUtils.HttpResponse httpResponse, long start, long end)
+            throws FileStorageException {
+        int length = (int) (end - start + 1);
+        try (InputStream is = httpResponse.getInputStream()) {
+            byte[] data = new byte[length];
+            int read = IOUtils.read(is, data);
+            if (read < length) {
+                throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION,
+                        String.format("Could not get file %s. Unexpected end of range %d-%d", getFileName(fileDescr), start, end));
+            }
+            return data;
+        } catch (IOException e) {
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, fileDescr.getId().toString(), e);
+        }
+    }
+
     @Override
     public byte[] loadFile(FileDescriptor fileDescr) throws FileStorageException {
         InputStream inputStream = openStream(fileDescr);
@@ -199,6 +507,29 @@ public class AmazonS3FileStorage implements FileStorageAPI {
 
     @Override
     public boolean fileExists(FileDescriptor fileDescr) {
+        return requestHead(fileDescr).isStatusOk();
+    }
+
+    @Override
+    public long getFileSize(FileDescriptor fileDescr) throws FileStorageException {
+        HttpUtils.HttpResponse httpResponse = requestHead(fileDescr);
+        if (httpResponse.isStatusNotFound()) {
+            throw new FileStorageException(FileStorageException.Type.FILE_NOT_FOUND, fileDescr.getId().toString());
+        }
+        if (!httpResponse.isStatusOk()) {
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION,
+                    String.format("Could not get size of file %s. Response status: %s",
+                            getFileName(fileDescr), httpResponse.getStatus()));
+        }
+        String contentLength = httpResponse.getHeader("Content-Length");
+        try {
+            return contentLength != null ? Long.parseLong(contentLength.trim()) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    protected HttpUtils.HttpResponse requestHead(FileDescriptor fileDescr) {
         URL amazonUrl = getAmazonUrl(fileDescr);
 
         // for a simple HEAD, we have no body so supply the precomputed 'empty' hash
@@ -208,8 +539,7 @@ public class AmazonS3FileStorage implements FileStorageAPI {
         String authorization = createAuthorizationHeader(amazonUrl, "HEAD", headers);
 
         headers.put("Authorization", authorization);
-        HttpUtils.HttpResponse httpResponse = HttpUtils.invokeHttpRequest(amazonUrl, "HEAD", headers, null);
-        return httpResponse.isStatusOk();
+        return HttpUtils.invokeHttpRequest(amazonUrl, "HEAD", headers, null);
     }
 
     protected String resolveFileName(FileDescriptor fileDescr) {
@@ -231,10 +561,23 @@ public class AmazonS3FileStorage implements FileStorageAPI {
     }
 
     protected URL getAmazonUrl(FileDescriptor fileDescr) {
-        // the region-specific endpoint to the target object expressed in path style
+        return getAmazonUrl(fileDescr, null);
+    }
+
+    protected URL getAmazonUrl(FileDescriptor fileDescr, @Nullable Map<String, String> queryParameters) {
+        String endpointUrl = amazonS3Config.getEndpointUrl();
+        String query = AWS4SignerBase.getCanonicalizedQueryString(queryParameters);
         try {
-            return new URL(String.format("https://%s.s3.amazonaws.com/%s",
-                    amazonS3Config.getBucket(), resolveFileName(fileDescr)));
+            String url;
+            if (StringUtils.isNotBlank(endpointUrl)) {
+                url = String.format("%s/%s/%s", StringUtils.removeEnd(endpointUrl, "/"),
+                        amazonS3Config.getBucket(), resolveFileName(fileDescr));
+            } else {
+                // the region-specific endpoint to the target object expressed in path style
+                url = String.format("https://%s.s3.amazonaws.com/%s",
+                        amazonS3Config.getBucket(), resolveFileName(fileDescr));
+            }
+            return new URL(query.isEmpty() ? url : url + "?" + query);
         } catch (MalformedURLException e) {
             throw new RuntimeException("Unable to parse service endpoint: " + e.getMessage());
         }
@@ -265,4 +608,133 @@ public class AmazonS3FileStorage implements FileStorageAPI {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * @return complete length of the file from the {@code Content-Range} header of a partial response
+     */
+    protected long getContentRangeSize(FileDescriptor fileDescr, HttpUtils.HttpResponse httpResponse)
+            throws FileStorageException {
+        String contentRange = httpResponse.getHeader("Content-Range");
+        int slash = contentRange != null ? contentRange.lastIndexOf('/') : -1;
+        if (slash >= 0) {
+            try {
+                return Long.parseLong(contentRange.substring(slash + 1).trim());
+            } catch (NumberFormatException e) {
+                // size is unknown
+            }
+        }
+        IOUtils.closeQuietly(httpResponse.getInputStream());
+        throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION,
+                String.format("Could not get file %s. Unable to get file size from Content-Range: %s",
+                        getFileName(fileDescr), contentRange));
+    }
+
+    /**
+     * Streams a file by fetching consecutive ranges concurrently. Keeps at most {@code parallelism} ranges
+     * loaded or in flight.
+     */
+    protected class RangedInputStream extends InputStream {
+
+        protected final FileDescriptor fileDescr;
+        protected final long size;
+        protected final int partSize;
+        protected final int parallelism;
+        protected final Deque<Future<byte[]>> parts = new ArrayDeque<>();
+
+        protected long nextStart;
+        protected byte[] current;
+        protected int position;
+
+        /**
+         * @param firstPart first part of the file, already loaded
+         * @param size      actual size of the file
+         */
+        public RangedInputStream(FileDescriptor fileDescr, byte[] firstPart, long size, int partSize, int parallelism) {
+            this.fileDescr = fileDescr;
+            this.size = size;
+            this.partSize = partSize;
+            this.parallelism = parallelism;
+
+            current = firstPart;
+            nextStart = firstPart.length;
+            for (int i = 0; i < parallelism; i++) {
+                scheduleNextPart();
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!ensureData())
+                return -1;
+            return current[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            if (!ensureData())
+                return -1;
+            int count = Math.min(len, current.length - position);
+            System.arraycopy(current, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return current != null ? current.length - position : 0;
+        }
+
+        @Override
+        public void close() {
+            for (Future<byte[]> part : parts) {
+                part.cancel(true);
+            }
+            parts.clear();
+            current = null;
+        }
+
+        protected boolean ensureData() throws IOException {
+            while (current != null && position == current.length) {
+                if (parts.isEmpty()) {
+                    current = null;
+                    break;
+                }
+                try {
+                    current = take();
+                } catch (FileStorageException e) {
+                    close();
+                    throw new IOException(e);
+                }
+                position = 0;
+            }
+            return current != null;
+        }
+
+        protected byte[] take() throws FileStorageException {
+            Future<byte[]> part = parts.poll();
+            scheduleNextPart();
+            try {
+                return part.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, getFileName(fileDescr), e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof FileStorageException) {
+                    throw (FileStorageException) e.getCause();
+                }
+                throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, getFileName(fileDescr), e.getCause());
+            }
+        }
+
+        protected void scheduleNextPart() {
+            if (nextStart >= size)
+                return;
+            long start = nextStart;
+            long end = Math.min(start + partSize, size) - 1;
+            nextStart = end + 1;
+            parts.add(getTransferExecutor().submit(() -> loadRange(fileDescr, start, end)));
+        }
+    }
+}
@@ -18,12 +18,17 @@
 package com.haulmont.cuba.core.app.filestorage.amazon.util;
 
 import com.haulmont.bali.util.URLEncodeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -31,13 +36,21 @@ import java.util.Map;
  * Various Http helper routines
  */
 public class HttpUtils {
+    private static final Logger log = LoggerFactory.getLogger(HttpUtils.class);
+
     public static class HttpResponse {
         protected InputStream inputStream;
         protected int status;
+        protected Map<String, List<String>> headers;
 
         public HttpResponse(InputStream inputStream, int status) {
+            this(inputStream, status, Collections.emptyMap());
+        }
+
+        public HttpResponse(InputStream inputStream, int status, Map<String, List<String>> headers) {
             this.inputStream = inputStream;
             this.status = status;
+            this.headers = headers;
         }
 
         public InputStream getInputStream() {
@@ -55,6 +68,19 @@ public class HttpUtils {
         public boolean isStatusNotFound() {
             return status == 404;
         }
+
+        /**
+         * @return the first value of the response header with the given case-insensitive name, or null
+         */
+        @Nullable
+        public String getHeader(String name) {
+            for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+                if (name.equalsIgnoreCase(entry.getKey()) && !entry.getValue().isEmpty()) {
+                    return entry.getValue().get(0);
+                }
+            }
+            return null;
+        }
     }
 
 
@@ -92,7 +118,8 @@ public class HttpUtils {
                 is = connection.getErrorStream();
             }
 
-            return new HttpResponse(is, status);
+            Map<String, List<String>> headers = connection.getHeaderFields();
+            return new HttpResponse(is, status, headers != null ? headers : Collections.emptyMap());
         } catch (Exception e) {
             throw new RuntimeException("Request failed. " + e.getMessage(), e);
         }
@@ -106,9 +133,8 @@ public class HttpUtils {
             connection.setRequestMethod(httpMethod);
 
             if (headers != null) {
-                System.out.println("--------- Request headers ---------");
                 for (String headerKey : headers.keySet()) {
-                    System.out.println(headerKey + ": " + headers.get(headerKey));
+                    log.trace("Request header {}: {}", headerKey, headers.get(headerKey));
                     connection.setRequestProperty(headerKey, headers.get(headerKey));
                 }
             }
@@ -19,29 +19,31 @@ package com.haulmont.cuba.core.controllers;
 import com.haulmont.bali.util.URLEncodeUtils;
 import com.haulmont.cuba.core.app.DataService;
 import com.haulmont.cuba.core.app.FileStorageAPI;
+import com.haulmont.cuba.core.app.filestorage.FileStorage;
 import com.haulmont.cuba.core.entity.FileDescriptor;
 import com.haulmont.cuba.core.global.FileStorageException;
 import com.haulmont.cuba.core.global.FileTypesHelper;
 import com.haulmont.cuba.core.global.LoadContext;
 import com.haulmont.cuba.core.sys.AppContext;
 import com.haulmont.cuba.core.sys.SecurityContext;
+import com.haulmont.cuba.core.sys.servlet.RangeDownload;
 import com.haulmont.cuba.security.app.UserSessionsAPI;
 import com.haulmont.cuba.security.global.UserSession;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
-import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.UUID;
 
 /**
@@ -85,28 +87,58 @@ public class FileDownloadController {
             response.setIntHeader("Expires", -1);
             response.setHeader("Content-Type", FileTypesHelper.DEFAULT_MIME_TYPE);
 
-            InputStream is = null;
-            ServletOutputStream os = null;
             try {
-                is = fd != null ? fileStorage.openStream(fd) : FileUtils.openInputStream(file);
-                os = response.getOutputStream();
-                IOUtils.copy(is, os);
-                os.flush();
+                if (fd != null && fileStorage instanceof FileStorage) {
+                    // serve files of the local storage directly from disk
+                    file = ((FileStorage) fileStorage).findFile(fd);
+                }
+                if (file != null) {
+                    writeLocalFile(request, response, fd, file);
+                } else {
+                    writeStoredFile(request, response, fd);
+                }
             } catch (FileStorageException e) {
                 log.error("Unable to download file", e);
-                response.sendError(e.getType().getHttpStatus());
+                if (!response.isCommitted())
+                    response.sendError(e.getType().getHttpStatus());
             } catch (Exception ex) {
                 log.error("Unable to download file", ex);
-                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            } finally {
-                IOUtils.closeQuietly(is);
-                IOUtils.closeQuietly(os);
+                if (!response.isCommitted())
+                    response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             }
         } finally {
             AppContext.setSecurityContext(null);
         }
     }
 
+    protected void writeLocalFile(HttpServletRequest request, HttpServletResponse response,
+                                  @Nullable FileDescriptor fd, File file) throws IOException {
+        String eTag = fd != null ? RangeDownload.getETag(fd) : "\"" + file.length() + "-" + file.lastModified() + "\"";
+        long lastModified = fd != null && fd.getCreateDate() != null ? fd.getCreateDate().getTime() : file.lastModified();
+
+        RangeDownload download = new RangeDownload(request, response, eTag, lastModified, file.length());
+        if (download.handleConditionalRequest())
+            return;
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            download.write(channel);
+        }
+    }
+
+    protected void writeStoredFile(HttpServletRequest request, HttpServletResponse response,
+                                   FileDescriptor fd) throws IOException, FileStorageException {
+        long lastModified = fd.getCreateDate() != null ? fd.getCreateDate().getTime() : -1;
+
+        RangeDownload download = new RangeDownload(request, response, RangeDownload.getETag(fd), lastModified,
+                fileStorage.getFileSize(fd));
+        if (download.handleConditionalRequest())
+            return;
+
+        try (InputStream is = fileStorage.openStream(fd)) {
+            download.write(is);
+        }
+    }
+
     protected UserSession getSession(HttpServletRequest request, HttpServletResponse response) throws IOException {
         UUID sessionId;
         try {
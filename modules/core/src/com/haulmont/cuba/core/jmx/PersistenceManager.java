@@ -29,6 +29,7 @@ import com.haulmont.cuba.core.global.QueryParser;
 import com.haulmont.cuba.core.global.QueryTransformerFactory;
 import com.haulmont.cuba.core.sys.DbInitializationException;
 import com.haulmont.cuba.core.sys.DbUpdater;
+import com.haulmont.cuba.core.sys.listener.EntityListenerManager;
 import com.haulmont.cuba.core.sys.persistence.DbmsType;
 import com.haulmont.cuba.security.app.Authenticated;
 import org.apache.commons.lang3.StringUtils;
@@ -41,6 +42,7 @@ import org.springframework.stereotype.Component;
 import javax.inject.Inject;
 import javax.persistence.Table;
 import java.io.File;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -66,6 +68,9 @@ public class PersistenceManager implements PersistenceManagerMBean {
     @Inject
     protected PersistenceSecurity security;
 
+    @Inject
+    protected EntityListenerManager entityListenerManager;
+
     protected PersistenceConfig persistenceConfig;
 
     protected ServerConfig serverConfig;
@@ -245,6 +250,31 @@ public class PersistenceManager implements PersistenceManagerMBean {
         }
     }
 
+    @Override
+    public boolean isEntityListenerStatisticsEnabled() {
+        return entityListenerManager.isStatisticsEnabled();
+    }
+
+    @Override
+    public void setEntityListenerStatisticsEnabled(boolean value) {
+        entityListenerManager.setStatisticsEnabled(value);
+    }
+
+    @Override
+    public String printEntityListenerStatistics() {
+        StrBuilder sb = new StrBuilder();
+        entityListenerManager.getStatistics().stream()
+                .sorted(Comparator.comparingLong(EntityListenerManager.ListenerStatistics::getTotalNanos).reversed())
+                .forEach(statistics -> sb.appendln(statistics.toString()));
+        return sb.isEmpty() ? "No entity listeners executed" : sb.toString();
+    }
+
+    @Override
+    public String resetEntityListenerStatistics() {
+        entityListenerManager.resetStatistics();
+        return "Done";
+    }
+
     @Authenticated
     @Override
     public String refreshStatistics(String entityName) {
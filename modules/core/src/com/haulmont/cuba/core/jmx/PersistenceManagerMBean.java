@@ -138,4 +138,17 @@ public interface PersistenceManagerMBean {
      */
     @ManagedOperation(description = "Flush statistics cache. It will be reloaded on a next request")
     String flushStatisticsCache();
+
+    boolean isEntityListenerStatisticsEnabled();
+    void setEntityListenerStatisticsEnabled(boolean value);
+
+    /**
+     * Show execution statistics of entity listeners, the slowest ones first.
+     * @return  operation result
+     */
+    @ManagedOperation(description = "Show execution statistics of entity listeners, the slowest ones first")
+    String printEntityListenerStatistics();
+
+    @ManagedOperation(description = "Reset execution statistics of entity listeners")
+    String resetEntityListenerStatistics();
 }
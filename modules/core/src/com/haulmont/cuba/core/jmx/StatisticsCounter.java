@@ -19,6 +19,7 @@ package com.haulmont.cuba.core.jmx;
 
 import com.haulmont.cuba.core.app.MiddlewareStatisticsAccumulator;
 import com.haulmont.cuba.core.sys.AppContext;
+import com.haulmont.cuba.core.sys.persistence.EntityChangedEventDispatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +41,9 @@ public class StatisticsCounter implements StatisticsCounterMBean {
     @Inject
     protected MiddlewareStatisticsAccumulator accumulator;
 
+    @Inject
+    protected EntityChangedEventDispatcher entityChangedEventDispatcher;
+
     protected volatile ObjectName dbConnPoolObjectName;
 
     protected volatile boolean dbConnPoolNotFound;
@@ -115,6 +119,11 @@ public class StatisticsCounter implements StatisticsCounterMBean {
         return accumulator.getImplicitFlushCount();
     }
 
+    @Override
+    public int getEntityChangedEventsQueueSize() {
+        return entityChangedEventDispatcher.getQueueSize();
+    }
+
     private int getDbConnectionPoolMBeanAttr(String attrName) {
         if (dbConnPoolNotFound)
             return 0;
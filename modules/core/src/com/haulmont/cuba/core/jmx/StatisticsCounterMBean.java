@@ -47,6 +47,8 @@ public interface StatisticsCounterMBean {
 
     Long getImplicitFlushCount();
 
+    int getEntityChangedEventsQueueSize();
+
     int getDbConnectionPoolNumActive();
 
     int getDbConnectionPoolNumIdle();
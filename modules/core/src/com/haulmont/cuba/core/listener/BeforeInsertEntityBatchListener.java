@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.core.listener;
+
+import com.haulmont.cuba.core.EntityManager;
+import com.haulmont.cuba.core.entity.Entity;
+
+import java.util.Collection;
+
+/**
+ * Defines the contract for handling a batch of entities before they have been inserted into DB.
+ * <p>
+ * The listener is invoked once per entity class on each flush with all new instances of the class,
+ * before {@link BeforeInsertEntityListener}s are invoked for the individual instances.
+ */
+public interface BeforeInsertEntityBatchListener<T extends Entity> {
+
+    /**
+     * Executes before the objects have been inserted into DB.
+     *
+     * @param entities      inserted entity instances of the same class
+     * @param entityManager EntityManager that owns the entity instances
+     */
+    void onBeforeInsert(Collection<T> entities, EntityManager entityManager);
+}
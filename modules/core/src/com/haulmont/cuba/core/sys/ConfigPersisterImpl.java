@@ -18,6 +18,7 @@ package com.haulmont.cuba.core.sys;
 
 import com.haulmont.cuba.core.app.ConfigStorageAPI;
 import com.haulmont.cuba.core.config.ConfigPersister;
+import com.haulmont.cuba.core.config.ConfigVersion;
 import com.haulmont.cuba.core.config.SourceType;
 import com.haulmont.cuba.core.global.AppBeans;
 import org.apache.commons.lang3.StringUtils;
@@ -50,12 +51,18 @@ public class ConfigPersisterImpl implements ConfigPersister {
         return value;
     }
 
+    @Override
+    public boolean isVersioned(SourceType sourceType) {
+        return true;
+    }
+
     @Override
     public void setProperty(SourceType sourceType, String name, String value) {
         log.debug("Setting property '{}' to '{}', source={}", name, value, sourceType.name());
         switch (sourceType) {
             case SYSTEM:
                 System.setProperty(name, value);
+                ConfigVersion.increment();
                 break;
             case APP:
                 AppContext.setProperty(name, value);
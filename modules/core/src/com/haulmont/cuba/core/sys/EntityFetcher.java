@@ -16,14 +16,17 @@
 
 package com.haulmont.cuba.core.sys;
 
+import com.google.common.collect.Lists;
 import com.haulmont.chile.core.model.Instance;
 import com.haulmont.chile.core.model.MetaClass;
 import com.haulmont.chile.core.model.MetaProperty;
 import com.haulmont.cuba.core.EntityManager;
 import com.haulmont.cuba.core.Persistence;
 import com.haulmont.cuba.core.Transaction;
+import com.haulmont.cuba.core.app.ServerConfig;
 import com.haulmont.cuba.core.entity.EmbeddableEntity;
 import com.haulmont.cuba.core.entity.Entity;
+import com.haulmont.cuba.core.entity.IdProxy;
 import com.haulmont.cuba.core.global.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +48,11 @@ public class EntityFetcher {
 
     private static final Logger log = LoggerFactory.getLogger(EntityFetcher.class);
 
+    /**
+     * Batch size used if {@link ServerConfig#getEntityFetcherLoadingBatchSize()} is not positive.
+     */
+    protected static final int DEFAULT_LOADING_BATCH_SIZE = 500;
+
     @Inject
     protected Metadata metadata;
 
@@ -57,6 +65,9 @@ public class EntityFetcher {
     @Inject
     protected EntityStates entityStates;
 
+    @Inject
+    protected ServerConfig serverConfig;
+
     /**
      * Fetch instance by view object.
      */
@@ -103,63 +114,148 @@ public class EntityFetcher {
         fetch(instance, view, new HashMap<>(), optimizeForDetached);
     }
 
-    protected void fetch(Entity entity, View view, Map<Instance, Set<View>> visited, boolean optimizeForDetached) {
-        Set<View> views = visited.get(entity);
-        if (views == null) {
-            views = new HashSet<>();
-            visited.put(entity, views);
-        } else if (views.contains(view)) {
+    /**
+     * Fetch instances by view object.
+     * <p>
+     * Detached references found in the graph are reloaded by one query per entity class and view property
+     * instead of loading them one by one.
+     *
+     * @param optimizeForDetached if true, detached objects encountered in the graph will be first checked whether all
+     *                            required attributes are already loaded, and reloaded only when needed.
+     *                            If the argument is false, all detached objects are reloaded anyway.
+     */
+    public void fetch(Collection<? extends Entity> instances, View view, boolean optimizeForDetached) {
+        if (view == null || instances.isEmpty())
             return;
-        }
-        views.add(view);
+        fetch(instances, view, new HashMap<>(), optimizeForDetached);
+    }
+
+    protected void fetch(Entity entity, View view, Map<Instance, Set<View>> visited, boolean optimizeForDetached) {
+        fetch(Collections.singletonList(entity), view, visited, optimizeForDetached);
+    }
 
-        if (log.isTraceEnabled()) log.trace("Fetching instance " + entity);
+    protected void fetch(Collection<? extends Entity> entities, View view, Map<Instance, Set<View>> visited,
+                         boolean optimizeForDetached) {
+        List<Entity> toFetch = new ArrayList<>(entities.size());
+        for (Entity entity : entities) {
+            Set<View> views = visited.computeIfAbsent(entity, k -> new HashSet<>());
+            if (views.add(view)) {
+                if (log.isTraceEnabled()) log.trace("Fetching instance " + entity);
+                toFetch.add(entity);
+            }
+        }
+        if (toFetch.isEmpty())
+            return;
 
-        MetaClass metaClass = metadata.getClassNN(entity.getClass());
         for (ViewProperty property : view.getProperties()) {
-            MetaProperty metaProperty = metaClass.getPropertyNN(property.getName());
-            if (!metaProperty.getRange().isClass() && !isLazyFetchedLocalAttribute(metaProperty))
-                continue;
+            View propertyView = property.getView();
+            List<Entity> nested = new ArrayList<>();
+            Map<Class, List<DetachedReference>> detached = new LinkedHashMap<>();
 
-            if (log.isTraceEnabled()) log.trace("Fetching property " + property.getName());
+            for (Entity entity : toFetch) {
+                MetaProperty metaProperty = metadata.getClassNN(entity.getClass()).getPropertyNN(property.getName());
+                if (!metaProperty.getRange().isClass() && !isLazyFetchedLocalAttribute(metaProperty))
+                    continue;
 
-            Object value = entity.getValue(property.getName());
-            View propertyView = property.getView();
-            if (value != null && propertyView != null) {
-                if (value instanceof Collection) {
-                    for (Object item : ((Collection) value)) {
-                        if (item instanceof Entity)
-                            fetch((Entity) item, propertyView, visited, optimizeForDetached);
-                    }
-                } else if (value instanceof Entity) {
-                    Entity e = (Entity) value;
-                    if (!metaProperty.isReadOnly() && PersistenceHelper.isDetached(value) && !(value instanceof EmbeddableEntity)) {
-                        if (!optimizeForDetached || needReloading(e, propertyView)) {
-                            if (log.isTraceEnabled()) {
-                                log.trace("Object " + value + " is detached, loading it");
-                            }
-                            String storeName = metadata.getTools().getStoreName(e.getMetaClass());
-                            if (storeName != null) {
-                                try (Transaction tx = persistence.getTransaction(storeName)) {
-                                    EntityManager em = persistence.getEntityManager(storeName);
-                                    //noinspection unchecked
-                                    Entity managed = em.find(e.getClass(), e.getId());
-                                    if (managed != null) { // the instance here can be null if it has been deleted
-                                        entity.setValue(property.getName(), managed);
-                                        fetch(managed, propertyView, visited, optimizeForDetached);
-                                    }
-                                    tx.commit();
+                if (log.isTraceEnabled()) log.trace("Fetching property " + property.getName());
+
+                Object value = entity.getValue(property.getName());
+                if (value != null && propertyView != null) {
+                    if (value instanceof Collection) {
+                        for (Object item : ((Collection) value)) {
+                            if (item instanceof Entity)
+                                nested.add((Entity) item);
+                        }
+                    } else if (value instanceof Entity) {
+                        Entity e = (Entity) value;
+                        if (!metaProperty.isReadOnly() && PersistenceHelper.isDetached(value) && !(value instanceof EmbeddableEntity)) {
+                            if (!optimizeForDetached || needReloading(e, propertyView)) {
+                                if (log.isTraceEnabled()) {
+                                    log.trace("Object " + value + " is detached, loading it");
                                 }
+                                detached.computeIfAbsent(e.getClass(), k -> new ArrayList<>())
+                                        .add(new DetachedReference(entity, e));
                             }
+                        } else {
+                            nested.add(e);
                         }
-                    } else {
-                        fetch(e, propertyView, visited, optimizeForDetached);
                     }
                 }
             }
+
+            for (List<DetachedReference> references : detached.values()) {
+                reloadDetached(references, property.getName(), propertyView, visited, optimizeForDetached);
+            }
+            if (!nested.isEmpty()) {
+                fetch(nested, propertyView, visited, optimizeForDetached);
+            }
         }
     }
 
+    /**
+     * Replaces detached references of the same class by managed instances loaded in one transaction
+     * and fetches the loaded instances by the view.
+     */
+    protected void reloadDetached(List<DetachedReference> references, String propertyName, View view,
+                                  Map<Instance, Set<View>> visited, boolean optimizeForDetached) {
+        MetaClass metaClass = metadata.getExtendedEntities()
+                .getEffectiveMetaClass(references.get(0).getReference().getMetaClass());
+        String storeName = metadata.getTools().getStoreName(metaClass);
+        if (storeName == null)
+            return;
+
+        try (Transaction tx = persistence.getTransaction(storeName)) {
+            EntityManager em = persistence.getEntityManager(storeName);
+            Map<Object, Entity> loaded = loadByIds(em, metaClass, references);
+
+            List<Entity> managedInstances = new ArrayList<>(references.size());
+            for (DetachedReference reference : references) {
+                Entity managed = loaded.get(reference.getReference().getId());
+                if (managed != null) { // the instance here can be null if it has been deleted
+                    reference.getOwner().setValue(propertyName, managed);
+                    managedInstances.add(managed);
+                }
+            }
+            fetch(managedInstances, view, visited, optimizeForDetached);
+            tx.commit();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Map<Object, Entity> loadByIds(EntityManager em, MetaClass metaClass, List<DetachedReference> references) {
+        Set<Object> ids = new LinkedHashSet<>();
+        boolean idProxies = false;
+        for (DetachedReference reference : references) {
+            Object id = reference.getReference().getId();
+            ids.add(id);
+            idProxies |= id instanceof IdProxy;
+        }
+
+        Map<Object, Entity> result = new HashMap<>();
+        String pkName = metadata.getTools().getPrimaryKeyName(metaClass);
+        if (ids.size() == 1 || idProxies || pkName == null || metadata.getTools().hasCompositePrimaryKey(metaClass)) {
+            Class javaClass = metaClass.getJavaClass();
+            for (Object id : ids) {
+                Entity managed = em.find(javaClass, id);
+                if (managed != null) {
+                    result.put(id, managed);
+                }
+            }
+            return result;
+        }
+
+        String queryString = String.format("select e from %s e where e.%s in :ids", metaClass.getName(), pkName);
+        for (List<Object> batchIds : Lists.partition(new ArrayList<>(ids), getLoadingBatchSize())) {
+            List<Entity> list = em.createQuery(queryString)
+                    .setParameter("ids", batchIds)
+                    .getResultList();
+            for (Entity managed : list) {
+                result.put(managed.getId(), managed);
+            }
+        }
+        return result;
+    }
+
     protected boolean needReloading(Entity entity, View view) {
         for (ViewProperty viewProperty : view.getProperties()) {
             if (!entityStates.isLoaded(entity, viewProperty.getName())) {
@@ -174,4 +270,27 @@ public class EntityFetcher {
         Basic annotation = annotatedElement.getAnnotation(Basic.class);
         return annotation != null && annotation.fetch() == FetchType.LAZY;
     }
+
+    protected int getLoadingBatchSize() {
+        int batchSize = serverConfig.getEntityFetcherLoadingBatchSize();
+        return batchSize > 0 ? batchSize : DEFAULT_LOADING_BATCH_SIZE;
+    }
+
+    protected static class DetachedReference {
+        private final Entity owner;
+        private final Entity reference;
+
+        public DetachedReference(Entity owner, Entity reference) {
+            this.owner = owner;
+            this.reference = reference;
+        }
+
+        public Entity getOwner() {
+            return owner;
+        }
+
+        public Entity getReference() {
+            return reference;
+        }
+    }
 }
@@ -70,6 +70,12 @@ public class FileLoaderImpl implements FileLoader {
         return fileStorageAPI.fileExists(fd);
     }
 
+    @Override
+    public long getFileSize(FileDescriptor fd) throws FileStorageException {
+        checkNotNullArgument(fd);
+        return fileStorageAPI.getFileSize(fd);
+    }
+
     protected void checkIfFileDescriptorExists(FileDescriptor fd) throws FileStorageException {
         try (Transaction tx = persistence.getTransaction()) {
             FileDescriptor existingFile = persistence.getEntityManager().find(FileDescriptor.class, fd.getId());
@@ -42,6 +42,7 @@ import javax.inject.Inject;
 import java.io.Serializable;
 import java.util.*;
 import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 
 import static java.lang.String.format;
 
@@ -131,9 +132,13 @@ public class PersistenceSecurityImpl extends SecurityImpl implements Persistence
     @Override
     public boolean filterByConstraints(Collection<Entity> entities) {
         boolean filtered = false;
+        // constraints are prepared once for all entities of a meta class
+        Map<MetaClass, Predicate<Entity>> predicates = new HashMap<>();
         for (Iterator<Entity> iterator = entities.iterator(); iterator.hasNext(); ) {
             Entity entity = iterator.next();
-            if (!isPermittedInMemory(entity)) {
+            Predicate<Entity> permitted = predicates.computeIfAbsent(entity.getMetaClass(),
+                    metaClass -> createPermittedPredicate(metaClass, this::isInMemoryReadConstraint));
+            if (!permitted.test(entity)) {
                 //we ignore situations when the collection is immutable
                 iterator.remove();
                 filtered = true;
@@ -375,10 +380,13 @@ public class PersistenceSecurityImpl extends SecurityImpl implements Persistence
     }
 
     protected boolean isPermittedInMemory(Entity entity) {
-        return isPermitted(entity, constraint ->
-                constraint.getCheckType().memory()
-                        && (constraint.getOperationType() == ConstraintOperationType.READ
-                        || constraint.getOperationType() == ConstraintOperationType.ALL));
+        return isPermitted(entity, this::isInMemoryReadConstraint);
+    }
+
+    protected boolean isInMemoryReadConstraint(ConstraintData constraint) {
+        return constraint.getCheckType().memory()
+                && (constraint.getOperationType() == ConstraintOperationType.READ
+                || constraint.getOperationType() == ConstraintOperationType.ALL);
     }
 
     protected static class EntityId {
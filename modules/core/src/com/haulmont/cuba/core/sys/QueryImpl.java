@@ -52,6 +52,7 @@ import javax.inject.Inject;
 import javax.persistence.*;
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of {@link TypedQuery} interface based on EclipseLink.
@@ -346,11 +347,13 @@ public class QueryImpl<T> implements TypedQuery<T> {
         preExecute(query);
         @SuppressWarnings("unchecked")
         List<T> resultList = (List<T>) getResultFromCache(query, false, obj -> {
-            ((List) obj).stream().filter(item -> item instanceof Entity).forEach(item -> {
-                for (View view : views) {
-                    entityFetcher.fetch((Entity) item, view);
-                }
-            });
+            List<Entity> entities = ((List<?>) obj).stream()
+                    .filter(item -> item instanceof Entity)
+                    .map(item -> (Entity) item)
+                    .collect(Collectors.toList());
+            for (View view : views) {
+                entityFetcher.fetch(entities, view, false);
+            }
         });
         return resultList;
     }
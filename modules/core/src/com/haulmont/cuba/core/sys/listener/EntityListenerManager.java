@@ -17,6 +17,7 @@
 package com.haulmont.cuba.core.sys.listener;
 
 import com.haulmont.cuba.core.Persistence;
+import com.haulmont.cuba.core.app.ServerConfig;
 import com.haulmont.cuba.core.entity.Entity;
 import com.haulmont.cuba.core.entity.annotation.Listeners;
 import com.haulmont.cuba.core.global.AppBeans;
@@ -28,9 +29,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -39,6 +43,10 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * <p>Usually entity listeners are registered declaratively with {@code @Listeners} annotation on entity class.
  * Methods {@link #addListener(Class, Class)} and {@link #addListener(Class, String)} allow to add listeners dynamically,
  * e.g. to an entity from a base project.
+ * <p>Listeners implementing batch interfaces like {@link BeforeInsertEntityBatchListener} are invoked by
+ * {@link #fireBatchListeners(Collection, EntityListenerType, String)} once per entity class with all affected instances.
+ * <p>If statistics are enabled, execution time of each listener is accumulated in {@link ListenerStatistics},
+ * see {@link #getStatistics()}.
  *
  */
 @Component(EntityListenerManager.NAME)
@@ -105,20 +113,87 @@ public class EntityListenerManager {
         }
     }
 
+    /**
+     * Accumulated execution statistics of a listener for a certain listener type.
+     */
+    public static class ListenerStatistics {
+        private final String listener;
+        private final EntityListenerType type;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        public ListenerStatistics(String listener, EntityListenerType type) {
+            this.listener = listener;
+            this.type = type;
+        }
+
+        protected void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public String getListener() {
+            return listener;
+        }
+
+        public EntityListenerType getType() {
+            return type;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        @Override
+        public String toString() {
+            long cnt = getCount();
+            long total = getTotalNanos();
+            return String.format("%s %s: count=%d, total=%dms, avg=%.3fms, max=%.3fms", type, listener, cnt,
+                    total / 1_000_000, cnt == 0 ? 0.0 : total / 1e6 / cnt, getMaxNanos() / 1e6);
+        }
+    }
+
     private static final Logger log = LoggerFactory.getLogger(EntityListenerManager.class);
 
     @Inject
     protected Persistence persistence;
 
+    @Inject
+    protected ServerConfig serverConfig;
+
     protected Map<Key, List> cache = new ConcurrentHashMap<>();
 
+    protected Map<Key, List> batchCache = new ConcurrentHashMap<>();
+
+    /**
+     * Statistics of each listener class, indexed by {@link EntityListenerType#ordinal()}.
+     */
+    protected Map<Class<?>, ListenerStatistics[]> statistics = new ConcurrentHashMap<>();
+
     protected Map<Class<? extends Entity>, Set<String>> dynamicListeners = new ConcurrentHashMap<>();
 
     protected ReadWriteLock lock = new ReentrantReadWriteLock();
 
     protected volatile boolean enabled = true;
 
-    protected ThreadLocal<List<ListenerExecution>> threadLocalExecutions = new ThreadLocal<>();
+    protected volatile boolean statisticsEnabled;
+
+    protected ThreadLocal<Set<ListenerExecution>> threadLocalExecutions = new ThreadLocal<>();
+
+    @PostConstruct
+    protected void init() {
+        statisticsEnabled = serverConfig.getEntityListenerStatisticsEnabled();
+    }
 
     /**
      * Register an entity listener by its class. The listener instance will be instantiated as a plain object.
@@ -137,6 +212,7 @@ public class EntityListenerManager {
             set.add(listenerClass.getName());
 
             cache.clear();
+            batchCache.clear();
         } finally {
             lock.writeLock().unlock();
         }
@@ -157,6 +233,7 @@ public class EntityListenerManager {
             }
 
             cache.clear();
+            batchCache.clear();
         } finally {
             lock.writeLock().unlock();
         }
@@ -179,6 +256,7 @@ public class EntityListenerManager {
             set.add(listenerBeanName);
 
             cache.clear();
+            batchCache.clear();
         } finally {
             lock.writeLock().unlock();
         }
@@ -199,6 +277,7 @@ public class EntityListenerManager {
             }
 
             cache.clear();
+            batchCache.clear();
         } finally {
             lock.writeLock().unlock();
         }
@@ -214,20 +293,16 @@ public class EntityListenerManager {
             return;
 
         // check if a listener for this instance is already executed
-        List<ListenerExecution> executions = threadLocalExecutions.get();
-        if (executions == null) {
-            executions = new ArrayList<>();
-            threadLocalExecutions.set(executions);
-        }
+        Set<ListenerExecution> executions = getExecutions();
         ListenerExecution execution = new ListenerExecution(entity, type);
-        if (executions.contains(execution)) {
+        if (!executions.add(execution)) {
             return;
-        } else {
-            executions.add(execution);
         }
 
         try {
             for (Object listener : listeners) {
+                boolean timed = statisticsEnabled;
+                long start = timed ? System.nanoTime() : 0;
                 switch (type) {
                     case BEFORE_DETACH:
                         logExecution(type, entity);
@@ -264,6 +339,9 @@ public class EntityListenerManager {
                     default:
                         throw new UnsupportedOperationException("Unsupported EntityListenerType: " + type);
                 }
+                if (timed) {
+                    recordExecution(listener, type, System.nanoTime() - start);
+                }
             }
         } finally {
             executions.remove(execution);
@@ -272,6 +350,155 @@ public class EntityListenerManager {
         }
     }
 
+    /**
+     * Invokes batch listeners of the given type once per entity class with all instances of the class.
+     * Instances for which a listener of this type is currently being executed are skipped.
+     *
+     * @param entities  entity instances, possibly of different classes
+     * @param type      listener type, must support batches, see {@link EntityListenerType#getBatchListenerInterface()}
+     * @param storeName data store name
+     */
+    @SuppressWarnings("unchecked")
+    public void fireBatchListeners(Collection<? extends Entity> entities, EntityListenerType type, String storeName) {
+        if (!enabled || entities.isEmpty())
+            return;
+
+        if (type.getBatchListenerInterface() == null)
+            throw new UnsupportedOperationException("Batch listeners are not supported for " + type);
+
+        Map<Class<? extends Entity>, List<Entity>> byClass = new LinkedHashMap<>();
+        for (Entity entity : entities) {
+            byClass.computeIfAbsent(entity.getClass(), k -> new ArrayList<>()).add(entity);
+        }
+
+        for (Map.Entry<Class<? extends Entity>, List<Entity>> entry : byClass.entrySet()) {
+            List listeners = getBatchListener(entry.getKey(), type);
+            if (listeners.isEmpty())
+                continue;
+
+            Set<ListenerExecution> executions = getExecutions();
+            List<ListenerExecution> batchExecutions = new ArrayList<>(entry.getValue().size());
+            List<Entity> batch = new ArrayList<>(entry.getValue().size());
+            for (Entity entity : entry.getValue()) {
+                ListenerExecution execution = new ListenerExecution(entity, type);
+                if (executions.add(execution)) {
+                    batchExecutions.add(execution);
+                    batch.add(entity);
+                }
+            }
+            if (batch.isEmpty())
+                continue;
+
+            try {
+                Collection<Entity> instances = Collections.unmodifiableList(batch);
+                for (Object listener : listeners) {
+                    log.debug("Executing {} batch entity listener for {} instances of {}",
+                            type, instances.size(), entry.getKey().getName());
+                    boolean timed = statisticsEnabled;
+                    long start = timed ? System.nanoTime() : 0;
+                    switch (type) {
+                        case BEFORE_INSERT:
+                            ((BeforeInsertEntityBatchListener) listener).onBeforeInsert(instances, persistence.getEntityManager(storeName));
+                            break;
+                        case BEFORE_UPDATE:
+                            ((BeforeUpdateEntityBatchListener) listener).onBeforeUpdate(instances, persistence.getEntityManager(storeName));
+                            break;
+                        case BEFORE_DELETE:
+                            ((BeforeDeleteEntityBatchListener) listener).onBeforeDelete(instances, persistence.getEntityManager(storeName));
+                            break;
+                        default:
+                            throw new UnsupportedOperationException("Unsupported EntityListenerType: " + type);
+                    }
+                    if (timed) {
+                        recordExecution(listener, type, System.nanoTime() - start);
+                    }
+                }
+            } finally {
+                executions.removeAll(batchExecutions);
+                if (executions.isEmpty())
+                    threadLocalExecutions.remove();
+            }
+        }
+    }
+
+    /**
+     * @param entityClass entity class
+     * @param type        event type
+     * @return true if the given entity class has regular or batch listeners of the given type, and listeners are enabled
+     */
+    public boolean hasListeners(Class<? extends Entity> entityClass, EntityListenerType type) {
+        if (!enabled)
+            return false;
+        if (!getListener(entityClass, type).isEmpty())
+            return true;
+        return hasBatchListeners(entityClass, type);
+    }
+
+    /**
+     * @param entityClass entity class
+     * @param type        event type
+     * @return true if the given entity class has batch listeners of the given type, and listeners are enabled
+     */
+    public boolean hasBatchListeners(Class<? extends Entity> entityClass, EntityListenerType type) {
+        if (!enabled || type.getBatchListenerInterface() == null)
+            return false;
+        return !getBatchListener(entityClass, type).isEmpty();
+    }
+
+    /**
+     * @return execution statistics of all listeners invoked since the statistics were enabled or the last
+     * {@link #resetStatistics()}
+     */
+    public Collection<ListenerStatistics> getStatistics() {
+        List<ListenerStatistics> result = new ArrayList<>();
+        for (ListenerStatistics[] byType : statistics.values()) {
+            for (ListenerStatistics item : byType) {
+                if (item != null && item.getCount() > 0)
+                    result.add(item);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @return true if execution time of listeners is measured, see {@link ServerConfig#getEntityListenerStatisticsEnabled()}
+     */
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    public void setStatisticsEnabled(boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+    }
+
+    public void resetStatistics() {
+        statistics.clear();
+    }
+
+    protected Set<ListenerExecution> getExecutions() {
+        Set<ListenerExecution> executions = threadLocalExecutions.get();
+        if (executions == null) {
+            executions = new HashSet<>();
+            threadLocalExecutions.set(executions);
+        }
+        return executions;
+    }
+
+    protected void recordExecution(Object listener, EntityListenerType type, long nanos) {
+        Class<?> listenerClass = listener.getClass();
+        ListenerStatistics[] byType = statistics.get(listenerClass);
+        if (byType == null) {
+            byType = statistics.computeIfAbsent(listenerClass, k -> {
+                ListenerStatistics[] array = new ListenerStatistics[EntityListenerType.values().length];
+                for (EntityListenerType t : EntityListenerType.values()) {
+                    array[t.ordinal()] = new ListenerStatistics(k.getName(), t);
+                }
+                return array;
+            });
+        }
+        byType[type.ordinal()].record(nanos);
+    }
+
     public void enable(boolean enable) {
         this.enabled = enable;
     }
@@ -314,8 +541,28 @@ public class EntityListenerManager {
         }
     }
 
+    protected List<?> getBatchListener(Class<? extends Entity> entityClass, EntityListenerType type) {
+        Key key = new Key(entityClass, type);
+
+        lock.readLock().lock();
+        try {
+            List listeners = batchCache.get(key);
+            if (listeners == null) {
+                listeners = findListener(entityClass, type.getBatchListenerInterface());
+                batchCache.put(key, listeners);
+            }
+            return listeners;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     protected List<?> findListener(Class<? extends Entity> entityClass, EntityListenerType type) {
-        log.trace("get listener {} for class {}", type, entityClass.getName());
+        return findListener(entityClass, type.getListenerInterface());
+    }
+
+    protected List<?> findListener(Class<? extends Entity> entityClass, Class listenerInterface) {
+        log.trace("get listener {} for class {}", listenerInterface.getSimpleName(), entityClass.getName());
         List<String> names = getDeclaredListeners(entityClass);
         if (names.isEmpty()) {
             log.trace("no annotations, exiting");
@@ -329,8 +576,8 @@ public class EntityListenerManager {
                 log.trace("listener bean found: {}", bean);
                 List<Class<?>> interfaces = ClassUtils.getAllInterfaces(bean.getClass());
                 for (Class intf : interfaces) {
-                    if (intf.equals(type.getListenerInterface())) {
-                        log.trace("listener implements {}", type.getListenerInterface());
+                    if (intf.equals(listenerInterface)) {
+                        log.trace("listener implements {}", listenerInterface);
                         result.add(bean);
                     }
                 }
@@ -340,8 +587,8 @@ public class EntityListenerManager {
                     log.trace("listener class found: {}", aClass);
                     List<Class<?>> interfaces = ClassUtils.getAllInterfaces(aClass);
                     for (Class intf : interfaces) {
-                        if (intf.equals(type.getListenerInterface())) {
-                            log.trace("listener implements {}", type.getListenerInterface());
+                        if (intf.equals(listenerInterface)) {
+                            log.trace("listener implements {}", listenerInterface);
                             result.add(aClass.newInstance());
                         }
                     }
@@ -18,24 +18,41 @@ package com.haulmont.cuba.core.sys.listener;
 
 import com.haulmont.cuba.core.listener.*;
 
+import javax.annotation.Nullable;
+
 public enum EntityListenerType {
 
     BEFORE_DETACH(BeforeDetachEntityListener.class),
     BEFORE_ATTACH(BeforeAttachEntityListener.class),
-    BEFORE_INSERT(BeforeInsertEntityListener.class),
+    BEFORE_INSERT(BeforeInsertEntityListener.class, BeforeInsertEntityBatchListener.class),
     AFTER_INSERT(AfterInsertEntityListener.class),
-    BEFORE_UPDATE(BeforeUpdateEntityListener.class),
+    BEFORE_UPDATE(BeforeUpdateEntityListener.class, BeforeUpdateEntityBatchListener.class),
     AFTER_UPDATE(AfterUpdateEntityListener.class),
     AFTER_DELETE(AfterDeleteEntityListener.class),
-    BEFORE_DELETE(BeforeDeleteEntityListener.class);
+    BEFORE_DELETE(BeforeDeleteEntityListener.class, BeforeDeleteEntityBatchListener.class);
 
     private final Class listenerInterface;
+    private final Class batchListenerInterface;
 
     private EntityListenerType(Class listenerInterface) {
+        this(listenerInterface, null);
+    }
+
+    private EntityListenerType(Class listenerInterface, @Nullable Class batchListenerInterface) {
         this.listenerInterface = listenerInterface;
+        this.batchListenerInterface = batchListenerInterface;
     }
 
     public Class getListenerInterface() {
         return listenerInterface;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return interface of listeners receiving all instances of an entity class at once, or null if the listener
+     * type is not supported for batches
+     */
+    @Nullable
+    public Class getBatchListenerInterface() {
+        return batchListenerInterface;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.core.sys.persistence;
+
+import com.haulmont.cuba.core.app.events.AsyncAfterCommit;
+import com.haulmont.cuba.core.app.events.EntityChangedEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.ApplicationListenerMethodTransactionalAdapter;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+
+import javax.inject.Inject;
+import java.lang.reflect.Method;
+
+/**
+ * Creates listeners for {@code @TransactionalEventListener} methods annotated with {@link AsyncAfterCommit}.
+ * Such listeners hand {@link EntityChangedEvent}s over to {@link EntityChangedEventDispatcher} instead of
+ * processing them on the committing thread.
+ */
+@Component("cuba_AsyncTransactionalEventListenerFactory")
+public class AsyncTransactionalEventListenerFactory extends TransactionalEventListenerFactory {
+
+    @Inject
+    protected EntityChangedEventDispatcher dispatcher;
+
+    public AsyncTransactionalEventListenerFactory() {
+        // must be consulted before the standard factory registered by <tx:annotation-driven/>
+        setOrder(40);
+    }
+
+    @Override
+    public boolean supportsMethod(Method method) {
+        return AnnotatedElementUtils.hasAnnotation(method, AsyncAfterCommit.class) && super.supportsMethod(method);
+    }
+
+    @Override
+    public ApplicationListener<?> createApplicationListener(String beanName, Class<?> type, Method method) {
+        TransactionalEventListener annotation = AnnotatedElementUtils.findMergedAnnotation(method, TransactionalEventListener.class);
+        if (annotation == null || annotation.phase() != TransactionPhase.AFTER_COMMIT) {
+            throw new IllegalStateException("@AsyncAfterCommit can be used only with AFTER_COMMIT phase: " + method);
+        }
+        return new AsyncListenerAdapter(beanName, type, method);
+    }
+
+    protected class AsyncListenerAdapter extends ApplicationListenerMethodTransactionalAdapter {
+
+        public AsyncListenerAdapter(String beanName, Class<?> targetClass, Method method) {
+            super(beanName, targetClass, method);
+        }
+
+        @Override
+        public void processEvent(ApplicationEvent event) {
+            if (event instanceof EntityChangedEvent) {
+                dispatcher.dispatch((EntityChangedEvent) event, super::processEvent);
+            } else {
+                super.processEvent(event);
+            }
+        }
+    }
+}
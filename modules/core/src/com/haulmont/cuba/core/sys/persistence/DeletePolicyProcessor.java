@@ -23,12 +23,21 @@ import com.haulmont.chile.core.model.Range;
 import com.haulmont.cuba.core.EntityManager;
 import com.haulmont.cuba.core.Persistence;
 import com.haulmont.cuba.core.Query;
+import com.haulmont.cuba.core.app.ServerConfig;
 import com.haulmont.cuba.core.entity.Entity;
 import com.haulmont.cuba.core.entity.SoftDelete;
+import com.haulmont.cuba.core.entity.Updatable;
+import com.haulmont.cuba.core.entity.Versioned;
 import com.haulmont.cuba.core.entity.annotation.OnDelete;
 import com.haulmont.cuba.core.entity.annotation.OnDeleteInverse;
+import com.haulmont.cuba.core.entity.annotation.PublishEntityChangedEvents;
 import com.haulmont.cuba.core.global.*;
+import com.haulmont.cuba.core.sys.AuditInfoProvider;
 import com.haulmont.cuba.core.sys.PersistenceImpl;
+import com.haulmont.cuba.core.sys.entitycache.QueryCacheManager;
+import com.haulmont.cuba.core.sys.listener.EntityListenerManager;
+import com.haulmont.cuba.core.sys.listener.EntityListenerType;
+import com.haulmont.cuba.security.app.EntityLogAPI;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Scope;
@@ -58,6 +67,27 @@ public class DeletePolicyProcessor {
     @Inject
     protected Metadata metadata;
 
+    @Inject
+    protected ServerConfig serverConfig;
+
+    @Inject
+    protected EntityListenerManager entityListenerManager;
+
+    @Inject
+    protected EntityLogAPI entityLog;
+
+    @Inject
+    protected PersistenceImplSupport support;
+
+    @Inject
+    protected QueryCacheManager queryCacheManager;
+
+    @Inject
+    protected TimeSource timeSource;
+
+    @Inject
+    protected AuditInfoProvider auditInfoProvider;
+
     public Entity getEntity() {
         return entity;
     }
@@ -353,6 +383,14 @@ public class DeletePolicyProcessor {
     }
 
     protected void cascade(String entityName, MetaProperty property) {
+        MetaClass referencingClass = metadata.getClassNN(entityName);
+        if (SoftDelete.class.isAssignableFrom(referencingClass.getJavaClass())
+                && entityManager.isSoftDeletion()
+                && isBulkProcessingPossible(referencingClass, property)) {
+            bulkSoftDelete(referencingClass, property);
+            return;
+        }
+
         String template = property.getRange().getCardinality().isMany() ?
                 "select e from %s e join e.%s c where c." + primaryKeyName + " = ?1" :
                 "select e from %s e where e.%s." + primaryKeyName + " = ?1";
@@ -367,6 +405,12 @@ public class DeletePolicyProcessor {
 
     protected void unlink(String entityName, MetaProperty property) {
         if (metadata.getTools().isOwningSide(property)) {
+            MetaClass referencingClass = metadata.getClassNN(entityName);
+            if (isBulkProcessingPossible(referencingClass, property)) {
+                bulkSetReferenceNull(referencingClass, property);
+                return;
+            }
+
             String template = property.getRange().getCardinality().isMany() ?
                     "select e from %s e join e.%s c where c." + primaryKeyName + " = ?1" :
                     "select e from %s e where e.%s." + primaryKeyName + " = ?1";
@@ -391,4 +435,145 @@ public class DeletePolicyProcessor {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks whether references to the deleted entity can be processed by a single SQL update of the referencing
+     * table instead of loading and changing each referencing instance. It is possible only if nothing observes
+     * the individual changes: there are no entity listeners, entity log, entity changed events, FTS, ORM cache and
+     * nested delete policies for the referencing entity, and no its instances are in the current persistence context.
+     */
+    protected boolean isBulkProcessingPossible(MetaClass referencingClass, MetaProperty property) {
+        if (!serverConfig.getBulkDeletePolicyProcessing())
+            return false;
+
+        MetadataTools metadataTools = metadata.getTools();
+        if (property.getRange().getCardinality().isMany()
+                || metadataTools.hasCompositePrimaryKey(metaClass)
+                || metadataTools.getDatabaseTable(referencingClass) == null
+                || metadataTools.getDatabaseColumn(property) == null)
+            return false;
+
+        // the referencing rows must be in a single table
+        for (MetaClass aClass : referencingClass.getAncestors()) {
+            if (isPersistent(aClass))
+                return false;
+        }
+        for (MetaClass aClass : referencingClass.getDescendants()) {
+            if (isPersistent(aClass))
+                return false;
+        }
+
+        Class<? extends Entity> javaClass = referencingClass.getJavaClass();
+        for (EntityListenerType type : EnumSet.of(EntityListenerType.BEFORE_UPDATE, EntityListenerType.AFTER_UPDATE,
+                EntityListenerType.BEFORE_DELETE, EntityListenerType.AFTER_DELETE)) {
+            if (entityListenerManager.hasListeners(javaClass, type))
+                return false;
+        }
+
+        if (entityLog.isLogged(metadata.getExtendedEntities().getOriginalOrThisMetaClass(referencingClass).getName())
+                || FtsConfigHelper.getEnabled()
+                || metadataTools.isCacheable(referencingClass)
+                || hasCacheableMasters(referencingClass)
+                || hasAnnotation(referencingClass, PublishEntityChangedEvents.class.getName())
+                || hasAnnotation(referencingClass, OnDelete.class.getName())
+                || hasAnnotation(referencingClass, OnDeleteInverse.class.getName()))
+            return false;
+
+        for (Entity instance : support.getInstances(entityManager)) {
+            if (javaClass.isInstance(instance))
+                return false;
+        }
+        return true;
+    }
+
+    protected boolean hasAnnotation(MetaClass metaClass, String annotationName) {
+        if (metaClass.getAnnotations().get(annotationName) != null)
+            return true;
+        for (MetaClass aClass : metaClass.getAncestors()) {
+            if (aClass.getAnnotations().get(annotationName) != null)
+                return true;
+        }
+        return false;
+    }
+
+    protected boolean hasCacheableMasters(MetaClass metaClass) {
+        for (MetaProperty property : metaClass.getProperties()) {
+            if (!property.getRange().isClass() || property.getRange().getCardinality().isMany())
+                continue;
+            MetaProperty inverseProp = property.getInverse();
+            if (inverseProp != null && inverseProp.getRange().getCardinality().isMany()
+                    && metadata.getTools().isCacheable(property.getRange().asClass()))
+                return true;
+        }
+        return false;
+    }
+
+    protected void bulkSoftDelete(MetaClass referencingClass, MetaProperty property) {
+        MetadataTools metadataTools = metadata.getTools();
+        Date deleteTs = timeSource.currentTimestamp();
+        String deletedBy = auditInfoProvider.getCurrentUserLogin();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("update ").append(metadataTools.getDatabaseTable(referencingClass))
+                .append(" set ").append(getColumn(referencingClass, "deleteTs")).append(" = ?, ")
+                .append(getColumn(referencingClass, "deletedBy")).append(" = ?");
+        appendVersionIncrement(sb, referencingClass);
+        sb.append(" where ").append(metadataTools.getDatabaseColumn(property)).append(" = ?")
+                .append(" and ").append(getColumn(referencingClass, "deleteTs")).append(" is null");
+
+        DbTypeConverter converter = persistence.getDbTypeConverter();
+        executeBulkUpdate(referencingClass, sb.toString(),
+                converter.getSqlObject(deleteTs), deletedBy, converter.getSqlObject(entity.getId()));
+    }
+
+    protected void bulkSetReferenceNull(MetaClass referencingClass, MetaProperty property) {
+        MetadataTools metadataTools = metadata.getTools();
+        DbTypeConverter converter = persistence.getDbTypeConverter();
+        List<Object> params = new ArrayList<>();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("update ").append(metadataTools.getDatabaseTable(referencingClass))
+                .append(" set ").append(metadataTools.getDatabaseColumn(property)).append(" = null");
+        if (Updatable.class.isAssignableFrom(referencingClass.getJavaClass())) {
+            sb.append(", ").append(getColumn(referencingClass, "updateTs")).append(" = ?, ")
+                    .append(getColumn(referencingClass, "updatedBy")).append(" = ?");
+            params.add(converter.getSqlObject(timeSource.currentTimestamp()));
+            params.add(auditInfoProvider.getCurrentUserLogin());
+        }
+        appendVersionIncrement(sb, referencingClass);
+        sb.append(" where ").append(metadataTools.getDatabaseColumn(property)).append(" = ?");
+        params.add(converter.getSqlObject(entity.getId()));
+        if (SoftDelete.class.isAssignableFrom(referencingClass.getJavaClass()) && entityManager.isSoftDeletion()) {
+            sb.append(" and ").append(getColumn(referencingClass, "deleteTs")).append(" is null");
+        }
+
+        executeBulkUpdate(referencingClass, sb.toString(), params.toArray());
+    }
+
+    protected void appendVersionIncrement(StringBuilder sb, MetaClass metaClass) {
+        if (Versioned.class.isAssignableFrom(metaClass.getJavaClass())) {
+            String versionColumn = getColumn(metaClass, "version");
+            sb.append(", ").append(versionColumn).append(" = ").append(versionColumn).append(" + 1");
+        }
+    }
+
+    protected String getColumn(MetaClass metaClass, String propertyName) {
+        String column = metadata.getTools().getDatabaseColumn(metaClass.getPropertyNN(propertyName));
+        if (column == null)
+            throw new IllegalStateException("Cannot determine a database column for " + metaClass.getName() + "." + propertyName);
+        return column;
+    }
+
+    protected void executeBulkUpdate(MetaClass referencingClass, String sql, Object... params) {
+        ((PersistenceImpl) persistence).addBeforeCommitAction(() -> {
+            try {
+                log.debug("Process delete policy in bulk: {}, bind: {}", sql, Arrays.asList(params));
+                QueryRunner queryRunner = new QueryRunner();
+                queryRunner.update(entityManager.getConnection(), sql, params);
+            } catch (SQLException e) {
+                throw new RuntimeException("Error processing deletion of " + entity, e);
+            }
+            queryCacheManager.invalidate(referencingClass.getJavaClass(), true);
+        });
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.core.sys.persistence;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.haulmont.cuba.core.app.ServerConfig;
+import com.haulmont.cuba.core.app.events.EntityChangedEvent;
+import com.haulmont.cuba.core.global.Configuration;
+import com.haulmont.cuba.core.sys.AppContext;
+import com.haulmont.cuba.core.sys.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Processes {@link EntityChangedEvent}s by {@code @AsyncAfterCommit} listeners in background threads.
+ * <p>
+ * Events are distributed between single-threaded partitions by the entity id, so the events of an entity instance
+ * are processed in the order of dispatching. Each partition limits the number of waiting events; when the limit is
+ * reached, the dispatching thread is blocked until the partition catches up. Events dispatched by a handler running
+ * in a partition thread, e.g. when the handler commits changes, are queued over the limit instead, because blocking
+ * a partition thread could never be released. Such events still wait for all previously dispatched events of the
+ * partition.
+ */
+@Component(EntityChangedEventDispatcher.NAME)
+public class EntityChangedEventDispatcher {
+
+    public static final String NAME = "cuba_EntityChangedEventDispatcher";
+
+    private static final Logger log = LoggerFactory.getLogger(EntityChangedEventDispatcher.class);
+
+    @Inject
+    protected Configuration configuration;
+
+    protected volatile Partition[] partitions;
+
+    protected final ThreadLocal<Boolean> partitionThread = new ThreadLocal<>();
+
+    /**
+     * Schedules processing of the event by the given handler in a partition thread. The handler is invoked with
+     * the security context of the calling thread.
+     */
+    public void dispatch(EntityChangedEvent event, Consumer<EntityChangedEvent> handler) {
+        Partition[] partitions = getPartitions();
+        Partition partition = partitions[Math.floorMod(event.getEntityId().hashCode(), partitions.length)];
+
+        boolean permitted = acquirePermit(partition);
+        SecurityContext securityContext = AppContext.getSecurityContext();
+        try {
+            partition.executor.execute(() -> {
+                if (permitted)
+                    partition.permits.release();
+
+                AppContext.setSecurityContext(securityContext);
+                partitionThread.set(Boolean.TRUE);
+                try {
+                    handler.accept(event);
+                } catch (Throwable e) {
+                    log.error("Error processing {} asynchronously", event, e);
+                } finally {
+                    AppContext.setSecurityContext(null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (permitted)
+                partition.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a free place in the partition queue, blocking the caller until there is one. A partition thread does
+     * not wait to avoid a deadlock, and its event is queued over the limit.
+     *
+     * @return true if the place is taken and must be released when the event is taken from the queue
+     */
+    protected boolean acquirePermit(Partition partition) {
+        if (partition.permits.tryAcquire())
+            return true;
+        if (Boolean.TRUE.equals(partitionThread.get())) {
+            log.debug("Queue is full, queueing the event over the limit");
+            return false;
+        }
+        try {
+            log.debug("Queue is full, waiting");
+            partition.permits.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for the queue", e);
+        }
+    }
+
+    /**
+     * @return total number of events waiting for processing
+     */
+    public int getQueueSize() {
+        Partition[] partitions = this.partitions;
+        if (partitions == null)
+            return 0;
+
+        int size = 0;
+        for (Partition partition : partitions) {
+            size += partition.executor.getQueue().size();
+        }
+        return size;
+    }
+
+    protected Partition[] getPartitions() {
+        Partition[] result = partitions;
+        if (result == null) {
+            synchronized (this) {
+                result = partitions;
+                if (result == null) {
+                    result = createPartitions();
+                    partitions = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    protected Partition[] createPartitions() {
+        ServerConfig serverConfig = configuration.getConfig(ServerConfig.class);
+        int threads = Math.max(1, serverConfig.getEntityChangedEventsAsyncThreads());
+        int capacity = Math.max(1, serverConfig.getEntityChangedEventsAsyncQueueCapacity());
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                .setNameFormat("EntityChangedEventDispatcher-%d")
+                .setDaemon(true)
+                .build();
+
+        Partition[] result = new Partition[threads];
+        for (int i = 0; i < threads; i++) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), threadFactory, (task, e) -> {
+                        throw new RejectedExecutionException("EntityChangedEventDispatcher is stopped");
+                    });
+            result[i] = new Partition(executor, new Semaphore(capacity));
+        }
+        log.debug("Started {} threads with queue capacity {}", threads, capacity);
+        return result;
+    }
+
+    @PreDestroy
+    protected void stop() {
+        Partition[] partitions = this.partitions;
+        if (partitions == null)
+            return;
+
+        for (Partition partition : partitions) {
+            partition.executor.shutdown();
+        }
+        try {
+            for (Partition partition : partitions) {
+                if (!partition.executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    log.warn("{} events were not processed before shutdown", partition.executor.shutdownNow().size());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Single-threaded executor with an unbounded FIFO queue, and the permits limiting the number of events queued
+     * by threads other than partition threads.
+     */
+    protected static class Partition {
+
+        protected final ThreadPoolExecutor executor;
+        protected final Semaphore permits;
+
+        protected Partition(ThreadPoolExecutor executor, Semaphore permits) {
+            this.executor = executor;
+            this.permits = permits;
+        }
+    }
+}
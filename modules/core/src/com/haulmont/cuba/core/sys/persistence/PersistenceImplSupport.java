@@ -55,6 +55,7 @@ import org.springframework.transaction.support.ResourceHolderSynchronization;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -223,6 +224,8 @@ public class PersistenceImplSupport implements ApplicationContextAware {
 
     protected void beforeStore(ContainerResourceHolder container, EntityVisitor visitor,
                                Collection<Entity> instances, Set<Entity> processed, boolean warnAboutImplicitFlush) {
+        fireBatchEntityListeners(container.getStoreName(), instances);
+
         boolean possiblyChanged = false;
         Set<Entity> withoutPossibleChanges = createEntitySet();
         for (Entity instance : instances) {
@@ -273,6 +276,65 @@ public class PersistenceImplSupport implements ApplicationContextAware {
         }
     }
 
+    /**
+     * Invokes batch entity listeners for the instances classified the same way as by the entity visitors,
+     * so that per-entity listeners, entity log and FTS see the changes made by batch listeners.
+     */
+    protected void fireBatchEntityListeners(String storeName, Collection<Entity> instances) {
+        List<Entity> inserted = null;
+        List<Entity> updated = null;
+        List<Entity> deleted = null;
+        Collection<Entity> savedInstances = null;
+        for (Entity instance : instances) {
+            if (!(instance instanceof ChangeTracker && instance instanceof BaseGenericIdEntity))
+                continue;
+
+            BaseGenericIdEntity entity = (BaseGenericIdEntity) instance;
+            Class<? extends Entity> entityClass = entity.getClass();
+            if (BaseEntityInternalAccess.isNew(entity)) {
+                if (savedInstances == null)
+                    savedInstances = getSavedInstances(storeName);
+                if (!savedInstances.contains(entity)) {
+                    if (entityListenerManager.hasBatchListeners(entityClass, EntityListenerType.BEFORE_INSERT))
+                        inserted = addToBatch(inserted, entity);
+                    continue;
+                }
+            }
+
+            boolean hasUpdateListeners =
+                    entityListenerManager.hasBatchListeners(entityClass, EntityListenerType.BEFORE_UPDATE);
+            boolean hasDeleteListeners =
+                    entityListenerManager.hasBatchListeners(entityClass, EntityListenerType.BEFORE_DELETE);
+            if (!hasUpdateListeners && !hasDeleteListeners)
+                continue;
+
+            AttributeChangeListener changeListener =
+                    (AttributeChangeListener) ((ChangeTracker) entity)._persistence_getPropertyChangeListener();
+            if (changeListener == null)
+                continue;
+
+            if (isDeleted(entity, changeListener)) {
+                if (hasDeleteListeners)
+                    deleted = addToBatch(deleted, entity);
+            } else if (hasUpdateListeners && changeListener.hasChanges()) {
+                updated = addToBatch(updated, entity);
+            }
+        }
+        if (inserted != null)
+            entityListenerManager.fireBatchListeners(inserted, EntityListenerType.BEFORE_INSERT, storeName);
+        if (updated != null)
+            entityListenerManager.fireBatchListeners(updated, EntityListenerType.BEFORE_UPDATE, storeName);
+        if (deleted != null)
+            entityListenerManager.fireBatchListeners(deleted, EntityListenerType.BEFORE_DELETE, storeName);
+    }
+
+    protected static List<Entity> addToBatch(@Nullable List<Entity> batch, Entity entity) {
+        if (batch == null)
+            batch = new ArrayList<>();
+        batch.add(entity);
+        return batch;
+    }
+
     public void detach(EntityManager entityManager, Entity entity) {
         UnitOfWork unitOfWork = entityManager.getDelegate().unwrap(UnitOfWork.class);
         String storeName = getStorageName(unitOfWork);
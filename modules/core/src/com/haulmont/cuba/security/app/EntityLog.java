@@ -236,6 +236,12 @@ public class EntityLog implements EntityLogAPI {
         }
     }
 
+    @Override
+    public boolean isLogged(String entityName) {
+        return isEnabled()
+                && (getLoggedAttributes(entityName, true) != null || getLoggedAttributes(entityName, false) != null);
+    }
+
     @Override
     public void invalidateCache() {
         lock.writeLock().lock();
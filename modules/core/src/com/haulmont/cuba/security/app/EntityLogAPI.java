@@ -76,6 +76,12 @@ public interface EntityLogAPI {
      */
     void registerDelete(Entity entity, boolean auto);
 
+    /**
+     * @param entityName name of the original entity (not an extension)
+     * @return true if logging is enabled and changes of the given entity are logged automatically or manually
+     */
+    boolean isLogged(String entityName);
+
     /**
      * Invalidates configuration cache.
      * The configuration will be recreated from the database on next lifecycle event.
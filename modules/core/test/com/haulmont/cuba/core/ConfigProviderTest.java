@@ -16,6 +16,8 @@
  */
 package com.haulmont.cuba.core;
 
+import com.haulmont.bali.db.QueryRunner;
+import com.haulmont.cuba.core.app.ConfigStorageAPI;
 import com.haulmont.cuba.core.config.TestBeanToInjectConfig;
 import com.haulmont.cuba.core.config.TestConfig;
 import com.haulmont.cuba.core.entity.Config;
@@ -177,6 +179,78 @@ public class ConfigProviderTest {
         assertEquals("test_value_1", dbProp);
     }
 
+    @Test
+    public void testCachedValues() throws Exception {
+        TestConfig config = AppBeans.get(Configuration.class).getConfig(TestConfig.class);
+
+        config.setIntegerProp(10);
+        Integer integerProp = config.getIntegerProp();
+        assertEquals(Integer.valueOf(10), integerProp);
+        assertSame(integerProp, config.getIntegerProp());
+
+        AppContext.setProperty("cuba.test.integerProp", "20");
+        assertEquals(Integer.valueOf(20), config.getIntegerProp());
+
+        String dbProp = config.getDatabaseProp();
+        assertNull(dbProp);
+
+        AppBeans.get(ConfigStorageAPI.class).setDbProperty("cuba.test.databaseProp", "db_value");
+        dbProp = config.getDatabaseProp();
+        assertEquals("db_value", dbProp);
+
+        // mutable values are built on each invocation
+        List<String> stringList = config.getStringListProp();
+        assertNotSame(stringList, config.getStringListProp());
+
+        AppContext.setProperty("cuba.test.integerProp", null);
+    }
+
+    @Test
+    public void testDatabasePropertiesCache() throws Exception {
+        ConfigStorageAPI configStorage = AppBeans.get(ConfigStorageAPI.class);
+        assertNull(configStorage.getDbProperty("cuba.test.databaseProp"));
+
+        // the row inserted bypassing ConfigStorage is not visible until the cache is reloaded
+        QueryRunner runner = new QueryRunner(cont.persistence().getDataSource());
+        runner.update("insert into SYS_CONFIG (ID, CREATE_TS, VERSION, NAME, VALUE_) values (?, current_timestamp, 1, ?, ?)",
+                new Object[]{UUID.randomUUID().toString(), "cuba.test.unknownProp", "value"});
+
+        configStorage.setDbProperty("cuba.test.databaseProp", "db_value");
+        assertEquals("db_value", configStorage.getDbProperty("cuba.test.databaseProp"));
+        assertNull(configStorage.getDbProperty("cuba.test.unknownProp"));
+
+        configStorage.setDbProperty("cuba.test.databaseProp", null);
+        assertNull(configStorage.getDbProperty("cuba.test.databaseProp"));
+        assertFalse(configStorage.getDbProperties().containsKey("cuba.test.databaseProp"));
+
+        configStorage.clearCache();
+        assertEquals("value", configStorage.getDbProperty("cuba.test.unknownProp"));
+    }
+
+    @Test
+    public void testDatabasePropertyChangedInTransaction() throws Exception {
+        ConfigStorageAPI configStorage = AppBeans.get(ConfigStorageAPI.class);
+        configStorage.setDbProperty("cuba.test.databaseProp", "db_value");
+
+        // rolled back change is not applied
+        try (Transaction tx = cont.persistence().createTransaction()) {
+            configStorage.setDbProperty("cuba.test.databaseProp", "rolled_back");
+            assertEquals("db_value", configStorage.getDbProperty("cuba.test.databaseProp"));
+        }
+        assertEquals("db_value", configStorage.getDbProperty("cuba.test.databaseProp"));
+
+        configStorage.clearCache();
+        assertEquals("db_value", configStorage.getDbProperty("cuba.test.databaseProp"));
+
+        // committed change is applied after commit
+        try (Transaction tx = cont.persistence().createTransaction()) {
+            configStorage.setDbProperty("cuba.test.databaseProp", "committed");
+            assertEquals("db_value", configStorage.getDbProperty("cuba.test.databaseProp"));
+            tx.commit();
+        }
+        assertEquals("committed", configStorage.getDbProperty("cuba.test.databaseProp"));
+    }
+
     @Test
     public void testBooleanType() throws Exception {
         Method booleanMethod = TestConfig.class.getMethod("getBooleanProp");
@@ -241,5 +315,6 @@ public class ConfigProviderTest {
         } finally {
             tx.end();
         }
+        AppBeans.get(ConfigStorageAPI.class).clearCache();
     }
 }
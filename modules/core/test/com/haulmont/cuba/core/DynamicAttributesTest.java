@@ -20,9 +20,11 @@ import com.google.common.collect.Lists;
 import com.haulmont.bali.db.QueryRunner;
 import com.haulmont.cuba.core.app.dynamicattributes.DynamicAttributesManagerAPI;
 import com.haulmont.cuba.core.app.dynamicattributes.PropertyType;
+import com.haulmont.cuba.core.entity.BaseGenericIdEntity;
 import com.haulmont.cuba.core.entity.Category;
 import com.haulmont.cuba.core.entity.CategoryAttribute;
 import com.haulmont.cuba.core.global.*;
+import com.haulmont.cuba.core.sys.AppContext;
 import com.haulmont.cuba.security.entity.Group;
 import com.haulmont.cuba.security.entity.Role;
 import com.haulmont.cuba.security.entity.User;
@@ -32,6 +34,8 @@ import com.haulmont.cuba.testmodel.primary_keys.EntityKey;
 import com.haulmont.cuba.testsupport.TestContainer;
 import org.junit.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -225,6 +229,37 @@ public class DynamicAttributesTest {
         assertEquals(group, user2.getValue("+userGroupAttribute"));
     }
 
+    @Test
+    public void testLoadInBatches() {
+        AppContext.setProperty("cuba.dynamicAttributesLoadingBatchSize", "1");
+        try {
+            LoadContext<User> ctx = LoadContext.create(User.class).setLoadDynamicAttributes(true);
+            ctx.setQueryString("select u from sec$User u where u.login like 'user%' order by u.login");
+            List<User> users = dataManager.loadList(ctx);
+            assertEquals(2, users.size());
+            assertEquals("userName", users.get(0).getValue("+userAttribute"));
+            assertEquals(group, users.get(0).getValue("+userGroupAttribute"));
+            assertEquals(2, users.get(0).<List>getValue("+userGroupCollectionAttribute").size());
+            assertEquals(2, users.get(0).<List>getValue("+userIntCollectionAttribute").size());
+            assertEquals("userName", users.get(1).getValue("+userAttribute"));
+            assertEquals(group, users.get(1).getValue("+userGroupAttribute"));
+
+            // entities of different meta classes in one call
+            List<BaseGenericIdEntity> entities = new ArrayList<>();
+            entities.add(dataManager.load(LoadContext.create(User.class).setId(user.getId())));
+            entities.add(dataManager.load(LoadContext.create(User.class).setId(user2.getId())));
+            entities.add(dataManager.load(LoadContext.create(UserRole.class).setId(userRole.getId())));
+            dynamicAttributesManagerAPI.fetchDynamicAttributes(entities, Collections.emptySet());
+
+            assertEquals("userName", entities.get(0).getValue("+userAttribute"));
+            assertEquals(2, entities.get(0).<List>getValue("+userGroupCollectionAttribute").size());
+            assertEquals(group, entities.get(1).getValue("+userGroupAttribute"));
+            assertEquals("userRole", entities.get(2).getValue("+userRoleAttribute"));
+        } finally {
+            AppContext.setProperty("cuba.dynamicAttributesLoadingBatchSize", null);
+        }
+    }
+
     @Test
     public void testCollectionOfEntitiesAttribute() {
         LoadContext<User> loadContext = LoadContext.create(User.class).setId(user.getId()).setLoadDynamicAttributes(true);
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.core;
+
+import com.haulmont.cuba.core.entity.Server;
+import com.haulmont.cuba.core.global.AppBeans;
+import com.haulmont.cuba.core.listener.TestBatchListener;
+import com.haulmont.cuba.core.sys.listener.EntityListenerManager;
+import com.haulmont.cuba.core.sys.listener.EntityListenerType;
+import com.haulmont.cuba.testsupport.TestContainer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class EntityBatchListenerTest {
+
+    @ClassRule
+    public static TestContainer cont = TestContainer.Common.INSTANCE;
+
+    private EntityListenerManager entityListenerManager;
+
+    private List<UUID> ids = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        TestBatchListener.events.clear();
+
+        entityListenerManager = AppBeans.get(EntityListenerManager.class);
+        entityListenerManager.addListener(Server.class, TestBatchListener.class);
+        entityListenerManager.resetStatistics();
+        entityListenerManager.setStatisticsEnabled(true);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        entityListenerManager.setStatisticsEnabled(false);
+        entityListenerManager.removeListener(Server.class, TestBatchListener.class);
+        cont.deleteRecord("SYS_SERVER", ids.toArray());
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        try (Transaction tx = cont.persistence().createTransaction()) {
+            EntityManager em = cont.persistence().getEntityManager();
+            for (int i = 0; i < 3; i++) {
+                Server server = new Server();
+                server.setName("batch-" + i);
+                em.persist(server);
+                ids.add(server.getId());
+            }
+            tx.commit();
+        }
+
+        assertEquals(Arrays.asList(
+                "batch onBeforeInsert: 3", "onBeforeInsert: batch", "onBeforeInsert: batch", "onBeforeInsert: batch"),
+                TestBatchListener.events);
+
+        try (Transaction tx = cont.persistence().createTransaction()) {
+            EntityManager em = cont.persistence().getEntityManager();
+            for (UUID id : ids) {
+                Server server = em.find(Server.class, id);
+                assertNotNull(server);
+                assertEquals("batch", server.getData());
+            }
+            tx.commit();
+        }
+
+        TestBatchListener.events.clear();
+
+        try (Transaction tx = cont.persistence().createTransaction()) {
+            EntityManager em = cont.persistence().getEntityManager();
+            Server server = em.find(Server.class, ids.get(0));
+            server.setName("changed");
+            em.remove(em.find(Server.class, ids.get(1)));
+            em.remove(em.find(Server.class, ids.get(2)));
+            tx.commit();
+        }
+
+        assertEquals(Arrays.asList("batch onBeforeUpdate: 1", "batch onBeforeDelete: 2"), TestBatchListener.events);
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        try (Transaction tx = cont.persistence().createTransaction()) {
+            EntityManager em = cont.persistence().getEntityManager();
+            Server server = new Server();
+            server.setName("statistics");
+            em.persist(server);
+            ids.add(server.getId());
+            tx.commit();
+        }
+
+        EntityListenerManager.ListenerStatistics statistics = entityListenerManager.getStatistics().stream()
+                .filter(s -> s.getListener().equals(TestBatchListener.class.getName())
+                        && s.getType() == EntityListenerType.BEFORE_INSERT)
+                .findFirst()
+                .orElse(null);
+        assertNotNull(statistics);
+        // one batch and one per-entity invocation
+        assertEquals(2, statistics.getCount());
+        assertTrue(statistics.getMaxNanos() <= statistics.getTotalNanos());
+    }
+}
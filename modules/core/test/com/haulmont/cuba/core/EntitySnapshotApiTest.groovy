@@ -21,6 +21,7 @@ import com.haulmont.cuba.core.app.EntitySnapshotAPI
 import com.haulmont.cuba.core.entity.EntitySnapshot
 import com.haulmont.cuba.core.global.AppBeans
 import com.haulmont.cuba.core.global.View
+import com.haulmont.cuba.core.sys.CubaXStream
 import com.haulmont.cuba.security.entity.Group
 import com.haulmont.cuba.security.entity.Role
 import com.haulmont.cuba.security.entity.User
@@ -138,6 +139,26 @@ class EntitySnapshotApiTest extends Specification {
             snapshot3.getAuthor() == user
     }
 
+    def "Extract entity and view from legacy XML snapshots"() {
+        View viewRole = cont.metadata().getViewRepository().getView(Role.class, View.LOCAL)
+
+        when:
+            EntitySnapshot snapshot = snapshotApi.createTempSnapshot(role, viewRole)
+            snapshot.setSnapshotXml(new CubaXStream().toXML(role))
+            snapshot.setViewXml(new CubaXStream().toXML(viewRole))
+
+            def entity1 = snapshotApi.extractEntity(snapshot)
+            def entity2 = snapshotApi.extractEntity(snapshot)
+            def view = snapshotApi.extractView(snapshot)
+        then:
+            entity1 == role
+            entity1.name == 'testRole'
+            entity2 == role
+            !entity2.is(entity1)
+            view.entityClass == Role.class
+            view.containsProperty('name')
+    }
+
     private List<EntitySnapshot> getSnapshotsList() {
         def tx = cont.persistence().createTransaction()
         try {
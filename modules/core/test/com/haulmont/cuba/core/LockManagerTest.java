@@ -28,6 +28,10 @@ import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
@@ -73,5 +77,24 @@ public class LockManagerTest {
         lockInfo = lockManager.getLockInfo("sys$Server", entity.getId().toString());
         assertNull(lockInfo);
     }
-}
 
+    @Test
+    public void testBulkLock() throws Exception {
+        Server entity1 = new Server();
+        Server entity2 = new Server();
+
+        assertNull(lockManager.lock(entity1));
+
+        List<LockInfo> lockInfos = lockManager.lock(Arrays.asList(entity1, entity2));
+        assertEquals(2, lockInfos.size());
+        assertNotNull(lockInfos.get(0));
+        assertNull(lockInfos.get(1));
+
+        assertNotNull(lockManager.getLockInfo("sys$Server", entity2.getId().toString()));
+
+        lockManager.unlock(Arrays.asList(entity1, entity2));
+
+        assertNull(lockManager.getLockInfo("sys$Server", entity1.getId().toString()));
+        assertNull(lockManager.getLockInfo("sys$Server", entity2.getId().toString()));
+    }
+}
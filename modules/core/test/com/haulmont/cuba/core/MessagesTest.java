@@ -25,6 +25,7 @@ import com.haulmont.cuba.core.global.*;
 import com.haulmont.cuba.core.mp_test.MpTestObj;
 import com.haulmont.cuba.core.mp_test.nested.MpTestNestedEnum;
 import com.haulmont.cuba.core.mp_test.nested.MpTestNestedObj;
+import com.haulmont.cuba.core.sys.AppContext;
 import com.haulmont.cuba.testsupport.TestAppender;
 import com.haulmont.cuba.testsupport.TestContainer;
 import org.junit.ClassRule;
@@ -282,6 +283,49 @@ public class MessagesTest {
         assertEquals("Country Message fr CA", msg);
     }
 
+    @Test
+    public void testGetMessages() throws Exception {
+        Messages messages = prepareCachingTest();
+
+        Map<String, String> packMessages = messages.getMessages("com.haulmont.cuba.core.mp_test.nested", Locale.forLanguageTag("fr"));
+        assertEquals("Message0 in French", packMessages.get("key0"));
+        assertEquals("Message1", packMessages.get("key1"));
+        assertEquals("Message inclus", packMessages.get("includedMsg"));
+        assertEquals("Message inclus remplacé", packMessages.get("includedMsgToOverride"));
+        assertFalse(packMessages.containsKey("@include"));
+
+        for (Map.Entry<String, String> entry : packMessages.entrySet()) {
+            assertEquals(entry.getValue(),
+                    messages.getMessage("com.haulmont.cuba.core.mp_test.nested", entry.getKey(), Locale.forLanguageTag("fr")));
+        }
+    }
+
+    @Test
+    public void testCacheSizeIsBounded() throws Exception {
+        Messages messages = prepareCachingTest();
+        assertEquals(0, messages.getCacheSize());
+
+        messages.getMessage("com.haulmont.cuba.core.mp_test.nested", "key0", Locale.forLanguageTag("fr"));
+        assertTrue(messages.getCacheSize() > 0);
+
+        AppContext.setProperty("cuba.messagesCacheMaxSize", "10");
+        try {
+            for (int i = 0; i < 100; i++) {
+                messages.getMessage("com.haulmont.cuba.core.mp_test.nested", "unknownKey" + i, Locale.forLanguageTag("fr"));
+                assertTrue(messages.getCacheSize() <= 20);
+            }
+            assertEquals("Message0 in French",
+                    messages.getMessage("com.haulmont.cuba.core.mp_test.nested", "key0", Locale.forLanguageTag("fr")));
+
+            // resolved messages are cached as well
+            messages.getMessages("com.haulmont.cuba.security.entity", Locale.ENGLISH);
+            assertTrue(messages.getCacheSize() <= 30);
+        } finally {
+            AppContext.setProperty("cuba.messagesCacheMaxSize", null);
+            messages.clearCache();
+        }
+    }
+
     private int getSearchMessagesCount() {
         return Iterables.size(Iterables.filter(appender.getMessages(), new Predicate<String>() {
             @Override
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.core.app;
+
+import com.haulmont.cuba.core.entity.LockDescriptor;
+import com.haulmont.cuba.core.entity.Server;
+import com.haulmont.cuba.core.global.AppBeans;
+import com.haulmont.cuba.core.global.LockInfo;
+import com.haulmont.cuba.security.entity.User;
+import com.haulmont.cuba.testsupport.TestContainer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class LockManagerExpirationTest {
+
+    @ClassRule
+    public static TestContainer cont = TestContainer.Common.INSTANCE;
+
+    private LockManager lockManager;
+
+    @Before
+    public void setUp() throws Exception {
+        cont.persistence().runInTransaction(em -> {
+            LockDescriptor lockDescriptor = cont.metadata().create(LockDescriptor.class);
+            lockDescriptor.setName("sys$Server");
+            lockDescriptor.setTimeoutSec(1);
+            em.persist(lockDescriptor);
+        });
+
+        lockManager = (LockManager) AppBeans.get(LockManagerAPI.NAME);
+        lockManager.reloadConfiguration();
+        lockManager.expireLocks();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        cont.persistence().runInTransaction(em -> {
+            em.createQuery("delete from sys$LockDescriptor d").executeUpdate();
+        });
+        lockManager.reloadConfiguration();
+    }
+
+    @Test
+    public void testUnlockRemovesExpiration() throws Exception {
+        int scheduled = lockManager.getScheduledExpirationsCount();
+
+        Server entity1 = new Server();
+        Server entity2 = new Server();
+        lockManager.lock(Arrays.asList(entity1, entity2));
+        assertEquals(scheduled + 2, lockManager.getScheduledExpirationsCount());
+
+        lockManager.unlock(entity1);
+        assertEquals(scheduled + 1, lockManager.getScheduledExpirationsCount());
+
+        lockManager.unlock(Arrays.asList(entity1, entity2));
+        assertEquals(scheduled, lockManager.getScheduledExpirationsCount());
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        Server entity1 = new Server();
+        Server entity2 = new Server();
+
+        assertNull(lockManager.lock(entity1));
+        lockManager.expireLocks();
+        assertNotNull(lockManager.getLockInfo("sys$Server", entity1.getId().toString()));
+
+        Thread.sleep(1100);
+        assertNull(lockManager.lock(entity2));
+        lockManager.expireLocks();
+
+        assertNull(lockManager.getLockInfo("sys$Server", entity1.getId().toString()));
+        assertNotNull(lockManager.getLockInfo("sys$Server", entity2.getId().toString()));
+
+        // the expired lock can be acquired again
+        assertNull(lockManager.lock(entity1));
+
+        lockManager.unlock(Arrays.asList(entity1, entity2));
+    }
+
+    @Test
+    public void testReceivedNotConfiguredLockExpires() throws Exception {
+        LockInfo lockInfo = new LockInfo(new User(), "sys$Folder", UUID.randomUUID().toString());
+        lockManager.receive(lockInfo);
+        assertTrue(lockManager.getCurrentLocks().contains(lockInfo));
+
+        lockManager.expireLocks();
+        assertFalse(lockManager.getCurrentLocks().contains(lockInfo));
+    }
+}
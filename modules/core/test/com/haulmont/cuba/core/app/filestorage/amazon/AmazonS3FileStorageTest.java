@@ -66,6 +66,8 @@ public class AmazonS3FileStorageTest {
         boolean fileExists = fileStorageAPI.fileExists(fileDescr);
         Assert.assertTrue(fileExists);
 
+        Assert.assertEquals(FILE_CONTENT.getBytes().length, fileStorageAPI.getFileSize(fileDescr));
+
         fileStorageAPI.removeFile(fileDescr);
     }
 
@@ -79,6 +81,8 @@ public class AmazonS3FileStorageTest {
         boolean fileExists = fileStorageAPI.fileExists(fileDescr2);
         Assert.assertTrue(fileExists);
 
+        Assert.assertEquals(FILE_CONTENT.getBytes().length, fileStorageAPI.getFileSize(fileDescr2));
+
         fileStorageAPI.removeFile(fileDescr2);
     }
 }
\ No newline at end of file
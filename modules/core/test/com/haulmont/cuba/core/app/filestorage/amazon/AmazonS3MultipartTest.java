@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.core.app.filestorage.amazon;
+
+import com.haulmont.cuba.core.entity.FileDescriptor;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests multipart upload and ranged download against a minimal in-process S3 stub.
+ */
+public class AmazonS3MultipartTest {
+
+    private static final int PART_SIZE = 1024;
+
+    private HttpServer server;
+    private AmazonS3FileStorage fileStorage;
+
+    private Map<Integer, byte[]> uploadedParts = new ConcurrentHashMap<>();
+    private volatile byte[] object;
+    private AtomicInteger rangeRequests = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        String endpointUrl = "http://localhost:" + server.getAddress().getPort();
+        fileStorage = new AmazonS3FileStorage();
+        fileStorage.amazonS3Config = new TestAmazonS3Config(endpointUrl);
+    }
+
+    @After
+    public void tearDown() {
+        fileStorage.stopTransferExecutor();
+        server.stop(0);
+    }
+
+    @Test
+    public void testMultipartUploadAndRangedDownload() throws Exception {
+        byte[] content = new byte[PART_SIZE * 5 / 2];
+        new Random(1).nextBytes(content);
+
+        FileDescriptor fd = createFileDescriptor(content.length);
+
+        fileStorage.saveFile(fd, content);
+        assertEquals(3, uploadedParts.size());
+        assertArrayEquals(content, object);
+
+        try (InputStream is = fileStorage.openStream(fd)) {
+            assertArrayEquals(content, IOUtils.toByteArray(is));
+        }
+        assertEquals(3, rangeRequests.get());
+    }
+
+    @Test
+    public void testRangedDownloadWithStaleDescriptorSize() throws Exception {
+        byte[] content = new byte[PART_SIZE * 5 / 2];
+        new Random(2).nextBytes(content);
+
+        fileStorage.saveFile(createFileDescriptor(content.length), content);
+
+        // the stored size is larger than the object, the object size is taken from Content-Range
+        FileDescriptor larger = createFileDescriptor(PART_SIZE * 10);
+        try (InputStream is = fileStorage.openStream(larger)) {
+            assertArrayEquals(content, IOUtils.toByteArray(is));
+        }
+        assertEquals(3, rangeRequests.get());
+
+        // the stored size is smaller than the object, the rest of the object is still downloaded
+        rangeRequests.set(0);
+        FileDescriptor smaller = createFileDescriptor(PART_SIZE * 3 / 2);
+        try (InputStream is = fileStorage.openStream(smaller)) {
+            assertArrayEquals(content, IOUtils.toByteArray(is));
+        }
+        assertEquals(3, rangeRequests.get());
+    }
+
+    private FileDescriptor createFileDescriptor(long size) {
+        FileDescriptor fd = new FileDescriptor();
+        fd.setCreateDate(new Date());
+        fd.setSize(size);
+        fd.setName("test.bin");
+        fd.setExtension("bin");
+        return fd;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String query = exchange.getRequestURI().getRawQuery();
+        byte[] body = IOUtils.toByteArray(exchange.getRequestBody());
+
+        if ("POST".equals(method) && "uploads=".equals(query)) {
+            respond(exchange, 200, "<InitiateMultipartUploadResult><UploadId>upload1</UploadId>"
+                    + "</InitiateMultipartUploadResult>");
+        } else if ("PUT".equals(method) && query != null && query.contains("partNumber=")) {
+            int partNumber = Integer.parseInt(query.replaceAll(".*partNumber=(\\d+).*", "$1"));
+            uploadedParts.put(partNumber, body);
+            exchange.getResponseHeaders().add("ETag", "\"etag" + partNumber + "\"");
+            respond(exchange, 200, "");
+        } else if ("POST".equals(method) && "uploadId=upload1".equals(query)) {
+            String request = new String(body, StandardCharsets.UTF_8);
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            for (int i = 1; i <= uploadedParts.size(); i++) {
+                if (!request.contains("<PartNumber>" + i + "</PartNumber><ETag>&quot;etag" + i + "&quot;</ETag>")) {
+                    respond(exchange, 200, "<Error><Code>InvalidPart</Code></Error>");
+                    return;
+                }
+                os.write(uploadedParts.get(i));
+            }
+            object = os.toByteArray();
+            respond(exchange, 200, "<CompleteMultipartUploadResult><ETag>\"etag\"</ETag></CompleteMultipartUploadResult>");
+        } else if ("GET".equals(method) && exchange.getRequestHeaders().getFirst("Range") != null) {
+            rangeRequests.incrementAndGet();
+            String[] range = exchange.getRequestHeaders().getFirst("Range").substring("bytes=".length()).split("-");
+            int start = Integer.parseInt(range[0]);
+            int end = Math.min(Integer.parseInt(range[1]), object.length - 1);
+            byte[] data = Arrays.copyOfRange(object, start, end + 1);
+            exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + object.length);
+            exchange.sendResponseHeaders(206, data.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(data);
+            }
+        } else {
+            respond(exchange, 400, "<Error><Code>InvalidRequest</Code></Error>");
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] data = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, data.length == 0 ? -1 : data.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(data);
+        }
+    }
+
+    private static class TestAmazonS3Config implements AmazonS3Config {
+        private final String endpointUrl;
+
+        TestAmazonS3Config(String endpointUrl) {
+            this.endpointUrl = endpointUrl;
+        }
+
+        @Override
+        public String getAccessKey() {
+            return "accessKey";
+        }
+
+        @Override
+        public String getSecretAccessKey() {
+            return "secretAccessKey";
+        }
+
+        @Override
+        public String getRegionName() {
+            return "us-east-1";
+        }
+
+        @Override
+        public String getBucket() {
+            return "bucket";
+        }
+
+        @Override
+        public int getChunkSize() {
+            return 8192;
+        }
+
+        @Override
+        public String getEndpointUrl() {
+            return endpointUrl;
+        }
+
+        @Override
+        public int getPartSize() {
+            return PART_SIZE;
+        }
+
+        @Override
+        public int getTransferThreadsCount() {
+            return 2;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.core.listener;
+
+import com.haulmont.cuba.core.EntityManager;
+import com.haulmont.cuba.core.entity.Server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class TestBatchListener implements
+        BeforeInsertEntityBatchListener<Server>,
+        BeforeUpdateEntityBatchListener<Server>,
+        BeforeDeleteEntityBatchListener<Server>,
+        BeforeInsertEntityListener<Server> {
+
+    public static final List<String> events = new ArrayList<>();
+
+    @Override
+    public void onBeforeInsert(Collection<Server> entities, EntityManager entityManager) {
+        events.add("batch onBeforeInsert: " + entities.size());
+        for (Server server : entities) {
+            server.setData("batch");
+        }
+    }
+
+    @Override
+    public void onBeforeUpdate(Collection<Server> entities, EntityManager entityManager) {
+        events.add("batch onBeforeUpdate: " + entities.size());
+    }
+
+    @Override
+    public void onBeforeDelete(Collection<Server> entities, EntityManager entityManager) {
+        events.add("batch onBeforeDelete: " + entities.size());
+    }
+
+    @Override
+    public void onBeforeInsert(Server entity, EntityManager entityManager) {
+        events.add("onBeforeInsert: " + entity.getData());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.core.sys;
+
+import com.haulmont.cuba.core.EntityManager;
+import com.haulmont.cuba.core.Transaction;
+import com.haulmont.cuba.core.global.AppBeans;
+import com.haulmont.cuba.core.global.PersistenceHelper;
+import com.haulmont.cuba.core.global.View;
+import com.haulmont.cuba.security.entity.Permission;
+import com.haulmont.cuba.security.entity.PermissionType;
+import com.haulmont.cuba.security.entity.Role;
+import com.haulmont.cuba.testsupport.TestContainer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.haulmont.cuba.testsupport.TestSupport.reserialize;
+import static org.junit.Assert.*;
+
+public class EntityFetcherTest {
+
+    @ClassRule
+    public static TestContainer cont = TestContainer.Common.INSTANCE;
+
+    private UUID role1Id, role2Id;
+    private List<UUID> permissionIds = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        try (Transaction tx = cont.persistence().createTransaction()) {
+            EntityManager em = cont.persistence().getEntityManager();
+
+            Role role1 = new Role();
+            role1Id = role1.getId();
+            role1.setName("testRole1");
+            role1.setDescription("description1");
+            em.persist(role1);
+
+            Role role2 = new Role();
+            role2Id = role2.getId();
+            role2.setName("testRole2");
+            role2.setDescription("description2");
+            em.persist(role2);
+
+            for (Role role : new Role[]{role1, role1, role2}) {
+                Permission permission = new Permission();
+                permissionIds.add(permission.getId());
+                permission.setRole(role);
+                permission.setType(PermissionType.SCREEN);
+                permission.setTarget("testTarget" + permissionIds.size());
+                em.persist(permission);
+            }
+
+            tx.commit();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        cont.deleteRecord("SEC_PERMISSION", permissionIds.toArray());
+        cont.deleteRecord("SEC_ROLE", role1Id, role2Id);
+    }
+
+    @Test
+    public void testFetchDetachedReferences() throws Exception {
+        View minimalView = new View(Permission.class)
+                .addProperty("target")
+                .addProperty("role", new View(Role.class).addProperty("name"));
+
+        ArrayList<Permission> permissions = new ArrayList<>();
+        try (Transaction tx = cont.persistence().createTransaction()) {
+            EntityManager em = cont.persistence().getEntityManager();
+            for (UUID id : permissionIds) {
+                permissions.add(em.find(Permission.class, id, minimalView));
+            }
+            tx.commit();
+        }
+        permissions = reserialize(permissions);
+        Role detachedRole = permissions.get(0).getRole();
+        assertFalse(PersistenceHelper.isLoaded(detachedRole, "description"));
+
+        View view = new View(Permission.class)
+                .addProperty("target")
+                .addProperty("role", new View(Role.class).addProperty("name").addProperty("description"));
+
+        EntityFetcher entityFetcher = AppBeans.get(EntityFetcher.class);
+        try (Transaction tx = cont.persistence().createTransaction()) {
+            entityFetcher.fetch(permissions, view, true);
+            tx.commit();
+        }
+
+        assertNotSame(detachedRole, permissions.get(0).getRole());
+        assertSame(permissions.get(0).getRole(), permissions.get(1).getRole());
+        assertEquals("description1", permissions.get(0).getRole().getDescription());
+        assertEquals("description2", permissions.get(2).getRole().getDescription());
+    }
+}
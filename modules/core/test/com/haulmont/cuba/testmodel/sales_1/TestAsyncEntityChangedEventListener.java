@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.testmodel.sales_1;
+
+import com.haulmont.cuba.core.app.events.AsyncAfterCommit;
+import com.haulmont.cuba.core.app.events.EntityChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Component("test_AsyncEntityChangedEventListener")
+public class TestAsyncEntityChangedEventListener {
+
+    public static class Info {
+        public final EntityChangedEvent event;
+        public final String threadName;
+
+        public Info(EntityChangedEvent event, String threadName) {
+            this.event = event;
+            this.threadName = threadName;
+        }
+    }
+
+    public final List<Info> events = new CopyOnWriteArrayList<>();
+
+    @TransactionalEventListener
+    @AsyncAfterCommit
+    void afterCommit(EntityChangedEvent<Order, UUID> event) {
+        events.add(new Info(event, Thread.currentThread().getName()));
+    }
+}
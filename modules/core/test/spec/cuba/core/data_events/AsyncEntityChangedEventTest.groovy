@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package spec.cuba.core.data_events
+
+import com.haulmont.cuba.core.app.events.EntityChangedEvent
+import com.haulmont.cuba.core.global.AppBeans
+import com.haulmont.cuba.core.global.DataManager
+import com.haulmont.cuba.core.global.Metadata
+import com.haulmont.cuba.testmodel.sales_1.Order
+import com.haulmont.cuba.testmodel.sales_1.TestAsyncEntityChangedEventListener
+import com.haulmont.cuba.testsupport.TestContainer
+import org.junit.ClassRule
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+class AsyncEntityChangedEventTest extends Specification {
+
+    @Shared @ClassRule
+    public TestContainer cont = TestContainer.Common.INSTANCE
+
+    private TestAsyncEntityChangedEventListener listener
+    private DataManager dataManager
+    private Metadata metadata
+
+    void setup() {
+        listener = AppBeans.get(TestAsyncEntityChangedEventListener)
+        listener.events.clear()
+
+        metadata = cont.metadata()
+        dataManager = AppBeans.get(DataManager)
+    }
+
+    void cleanup() {
+        listener.events.clear()
+    }
+
+    def "after commit listener is invoked asynchronously in the order of commits"() {
+
+        Order order = metadata.create(Order)
+        order.setNumber('111')
+
+        when:
+
+        Order order1 = dataManager.commit(order)
+        order1.setNumber('112')
+        Order order2 = dataManager.commit(order1)
+        dataManager.remove(order2)
+
+        then:
+
+        new PollingConditions(timeout: 10).eventually {
+            assert listener.events.size() == 3
+        }
+        listener.events.every { it.threadName.startsWith('EntityChangedEventDispatcher-') }
+        listener.events.every { it.event.entityId.value == order.id }
+        listener.events.collect { it.event.type } ==
+                [EntityChangedEvent.Type.CREATED, EntityChangedEvent.Type.UPDATED, EntityChangedEvent.Type.DELETED]
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package spec.cuba.core.data_events
+
+import com.haulmont.cuba.core.app.ServerConfig
+import com.haulmont.cuba.core.app.events.EntityChangedEvent
+import com.haulmont.cuba.core.entity.contracts.Id
+import com.haulmont.cuba.core.global.Configuration
+import com.haulmont.cuba.core.sys.persistence.EntityChangedEventDispatcher
+import com.haulmont.cuba.security.entity.User
+import com.haulmont.cuba.testsupport.TestContainer
+import org.junit.ClassRule
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class EntityChangedEventDispatcherTest extends Specification {
+
+    @Shared @ClassRule
+    public TestContainer cont = TestContainer.Common.INSTANCE
+
+    private EntityChangedEventDispatcher dispatcher
+
+    void setup() {
+        def serverConfig = Stub(ServerConfig) {
+            getEntityChangedEventsAsyncThreads() >> 1
+            getEntityChangedEventsAsyncQueueCapacity() >> 1
+        }
+        dispatcher = new EntityChangedEventDispatcher()
+        dispatcher.configuration = Stub(Configuration) {
+            getConfig(ServerConfig) >> serverConfig
+        }
+    }
+
+    void cleanup() {
+        dispatcher.stop()
+    }
+
+    def "events dispatched by a handler do not block the saturated partition"() {
+
+        def processed = new ConcurrentLinkedQueue<EntityChangedEvent>()
+        def nestedHandler = { EntityChangedEvent e -> processed.add(e) }
+
+        when:
+
+        dispatcher.dispatch(createEvent(), { EntityChangedEvent e ->
+            10.times { dispatcher.dispatch(createEvent(), nestedHandler) }
+            processed.add(e)
+        })
+
+        then:
+
+        new PollingConditions(timeout: 10).eventually {
+            assert processed.size() == 11
+        }
+    }
+
+    def "events dispatched by a handler keep the order of dispatching"() {
+
+        def id = Id.of(UUID.randomUUID(), User)
+        def release = new CountDownLatch(1)
+        def processed = new ConcurrentLinkedQueue<Integer>()
+
+        when:
+
+        dispatcher.dispatch(createEvent(id), { EntityChangedEvent e ->
+            release.await(10, TimeUnit.SECONDS)
+            processed.add(0)
+        })
+        dispatcher.dispatch(createEvent(id), { EntityChangedEvent e ->
+            (2..5).each { int i ->
+                dispatcher.dispatch(createEvent(id), { EntityChangedEvent nested -> processed.add(i) })
+            }
+            processed.add(1)
+        })
+        release.countDown()
+
+        then:
+
+        new PollingConditions(timeout: 10).eventually {
+            assert processed as List == [0, 1, 2, 3, 4, 5]
+        }
+    }
+
+    def "dispatching thread waits while the partition queue is full"() {
+
+        def release = new CountDownLatch(1)
+        def processed = new ConcurrentLinkedQueue<EntityChangedEvent>()
+        def handler = { EntityChangedEvent e -> processed.add(e) }
+
+        dispatcher.dispatch(createEvent(), { EntityChangedEvent e ->
+            release.await(10, TimeUnit.SECONDS)
+            processed.add(e)
+        })
+        dispatcher.dispatch(createEvent(), handler)
+
+        when:
+
+        def thread = Thread.start { dispatcher.dispatch(createEvent(), handler) }
+        thread.join(500)
+
+        then:
+
+        thread.alive
+        processed.isEmpty()
+
+        when:
+
+        release.countDown()
+        thread.join(10000)
+
+        then:
+
+        !thread.alive
+        new PollingConditions(timeout: 10).eventually {
+            assert processed.size() == 3
+        }
+    }
+
+    private static EntityChangedEvent createEvent() {
+        createEvent(Id.of(UUID.randomUUID(), User))
+    }
+
+    private static EntityChangedEvent createEvent(Id<User, UUID> id) {
+        new EntityChangedEvent(this, id, EntityChangedEvent.Type.UPDATED, null)
+    }
+}
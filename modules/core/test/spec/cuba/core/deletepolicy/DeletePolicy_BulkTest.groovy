@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package spec.cuba.core.deletepolicy
+
+import com.haulmont.bali.db.QueryRunner
+import com.haulmont.bali.db.ResultSetHandler
+import com.haulmont.cuba.core.Persistence
+import com.haulmont.cuba.core.sys.AppContext
+import com.haulmont.cuba.security.entity.Group
+import com.haulmont.cuba.security.entity.Role
+import com.haulmont.cuba.security.entity.User
+import com.haulmont.cuba.security.entity.UserRole
+import com.haulmont.cuba.testsupport.TestContainer
+import org.junit.ClassRule
+import spock.lang.Shared
+import spock.lang.Specification
+
+class DeletePolicy_BulkTest extends Specification {
+
+    @Shared
+    @ClassRule
+    public TestContainer cont = TestContainer.Common.INSTANCE
+
+    private Persistence persistence = cont.persistence()
+
+    private Group group
+    private User user
+    private Role role
+    private UserRole userRole1, userRole2
+
+    void setup() {
+        AppContext.setProperty('cuba.bulkDeletePolicyProcessing', 'true')
+
+        persistence.runInTransaction({ em ->
+            group = new Group(name: 'bulkDeletePolicyGroup')
+            em.persist(group)
+
+            user = new User(login: 'bulkDeletePolicyUser', group: group)
+            em.persist(user)
+
+            role = new Role(name: 'bulkDeletePolicyRole')
+            em.persist(role)
+
+            userRole1 = new UserRole(user: user, role: role)
+            em.persist(userRole1)
+
+            def user2 = new User(login: 'bulkDeletePolicyUser2', group: group)
+            em.persist(user2)
+
+            userRole2 = new UserRole(user: user2, role: role)
+            em.persist(userRole2)
+        })
+    }
+
+    void cleanup() {
+        AppContext.setProperty('cuba.bulkDeletePolicyProcessing', null)
+
+        def runner = new QueryRunner(persistence.dataSource)
+        runner.update("delete from SEC_USER_ROLE where ROLE_ID = ?", role.id.toString())
+        runner.update("delete from SEC_USER_ROLE where USER_ID in (select ID from SEC_USER where GROUP_ID = ?)",
+                group.id.toString())
+        runner.update("delete from SEC_USER where GROUP_ID = ?", group.id.toString())
+        cont.deleteRecord(role, group)
+    }
+
+    def "cascade soft deletion of not loaded references is performed by a single update"() {
+        when:
+
+        persistence.runInTransaction({ em ->
+            em.remove(em.find(Role, role.id))
+        })
+
+        then:
+
+        deletedUserRoles() == 2
+    }
+
+    def "cascade soft deletion falls back to per-entity processing if references are loaded"() {
+        when:
+
+        persistence.runInTransaction({ em ->
+            def loadedUserRole = em.find(UserRole, userRole1.id)
+            assert loadedUserRole.role == role
+
+            em.remove(em.find(Role, role.id))
+        })
+
+        then:
+
+        deletedUserRoles() == 2
+    }
+
+    private int deletedUserRoles() {
+        def runner = new QueryRunner(persistence.dataSource)
+        return runner.query("select count(*) from SEC_USER_ROLE where ROLE_ID = ? and DELETE_TS is not null",
+                role.id.toString(), { rs -> rs.next() ? rs.getInt(1) : 0 } as ResultSetHandler<Integer>)
+    }
+}
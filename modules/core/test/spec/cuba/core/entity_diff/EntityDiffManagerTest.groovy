@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package spec.cuba.core.entity_diff
+
+import com.haulmont.cuba.core.app.EntityDiffManager
+import com.haulmont.cuba.core.app.EntitySnapshotAPI
+import com.haulmont.cuba.core.entity.diff.EntityCollectionPropertyDiff
+import com.haulmont.cuba.core.global.AppBeans
+import com.haulmont.cuba.core.global.Metadata
+import com.haulmont.cuba.core.global.View
+import com.haulmont.cuba.security.entity.Role
+import com.haulmont.cuba.security.entity.User
+import com.haulmont.cuba.security.entity.UserRole
+import com.haulmont.cuba.security.entity.UserSubstitution
+import com.haulmont.cuba.testsupport.TestContainer
+import org.junit.ClassRule
+import spock.lang.Shared
+import spock.lang.Specification
+
+class EntityDiffManagerTest extends Specification {
+
+    @Shared
+    @ClassRule
+    public TestContainer cont = TestContainer.Common.INSTANCE
+
+    private Metadata metadata = cont.metadata()
+    private EntitySnapshotAPI snapshotApi
+    private EntityDiffManager diffManager
+    private User author
+
+    void setup() {
+        snapshotApi = AppBeans.get(EntitySnapshotAPI)
+        diffManager = AppBeans.get(EntityDiffManager)
+        author = metadata.create(User)
+    }
+
+    def "collection diff matches items by id"() {
+        def roles = (1..4).collect { metadata.create(Role).with { name = "role$it"; it } }
+        def user = metadata.create(User)
+        user.login = 'diffUser'
+
+        View view = new View(User)
+                .addProperty('login')
+                .addProperty('userRoles', new View(UserRole)
+                        .addProperty('role', new View(Role).addProperty('name')))
+
+        when:
+
+        def userRoles = roles.collect { role ->
+            metadata.create(UserRole).with { it.user = user; it.role = role; it }
+        }
+
+        user.userRoles = userRoles[0..2]
+        def first = snapshotApi.createTempSnapshot(user, view, new Date(1000), author)
+
+        roles[1].name = 'role2 renamed'
+        user.userRoles = [userRoles[3], userRoles[2], userRoles[1]]
+        def second = snapshotApi.createTempSnapshot(user, view, new Date(2000), author)
+
+        def diff = diffManager.getDifference(first, second)
+        def rolesDiff = diff.propertyDiffs.find { it.propertyName == 'userRoles' } as EntityCollectionPropertyDiff
+
+        then:
+
+        rolesDiff != null
+        rolesDiff.addedEntities.size() == 1
+        rolesDiff.removedEntities.size() == 1
+        rolesDiff.modifiedEntities.size() == 1
+    }
+
+    def "items with the same version and update timestamp are considered unchanged"() {
+        def user = metadata.create(User)
+        user.login = 'diffUser'
+
+        View view = new View(User)
+                .addProperty('login')
+                .addProperty('substitutions', new View(UserSubstitution)
+                        .addProperty('startDate'))
+
+        def substitution = metadata.create(UserSubstitution)
+        substitution.user = user
+        substitution.version = 1
+        substitution.updateTs = new Date(500)
+        user.substitutions = [substitution]
+
+        when:
+
+        substitution.startDate = new Date(100)
+        def first = snapshotApi.createTempSnapshot(user, view, new Date(1000), author)
+        substitution.startDate = new Date(200)
+        def second = snapshotApi.createTempSnapshot(user, view, new Date(2000), author)
+
+        then:
+
+        diffManager.getDifference(first, second).propertyDiffs.find { it.propertyName == 'substitutions' } == null
+
+        when:
+
+        substitution.version = 2
+        def third = snapshotApi.createTempSnapshot(user, view, new Date(3000), author)
+
+        then:
+
+        diffManager.getDifference(first, third).propertyDiffs.find { it.propertyName == 'substitutions' } != null
+    }
+}
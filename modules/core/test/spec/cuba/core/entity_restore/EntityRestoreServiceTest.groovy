@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package spec.cuba.core.entity_restore
+
+import com.haulmont.cuba.core.Persistence
+import com.haulmont.cuba.core.app.EntityRestoreService
+import com.haulmont.cuba.core.global.AppBeans
+import com.haulmont.cuba.core.sys.AppContext
+import com.haulmont.cuba.security.entity.Permission
+import com.haulmont.cuba.security.entity.PermissionType
+import com.haulmont.cuba.security.entity.Role
+import com.haulmont.cuba.testsupport.TestContainer
+import org.junit.ClassRule
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class EntityRestoreServiceTest extends Specification {
+
+    @Shared
+    @ClassRule
+    public TestContainer cont = TestContainer.Common.INSTANCE
+
+    private Persistence persistence = cont.persistence()
+    private EntityRestoreService entityRestoreService = AppBeans.get(EntityRestoreService)
+
+    private Role role1, role2
+    private Permission permission1, permission2, permission3
+
+    void setup() {
+        persistence.runInTransaction({ em ->
+            role1 = new Role(name: 'entityRestoreRole1')
+            em.persist(role1)
+            role2 = new Role(name: 'entityRestoreRole2')
+            em.persist(role2)
+
+            permission1 = new Permission(role: role1, type: PermissionType.SCREEN, target: 'screen1', value: 1)
+            em.persist(permission1)
+            permission2 = new Permission(role: role1, type: PermissionType.SCREEN, target: 'screen2', value: 1)
+            em.persist(permission2)
+            permission3 = new Permission(role: role2, type: PermissionType.SCREEN, target: 'screen1', value: 1)
+            em.persist(permission3)
+        })
+
+        persistence.runInTransaction({ em ->
+            em.remove(em.find(Role, role1.id))
+            em.remove(em.find(Role, role2.id))
+        })
+    }
+
+    void cleanup() {
+        AppContext.setProperty('cuba.bulkEntityRestore', null)
+
+        cont.deleteRecord(permission1, permission2, permission3, role1, role2)
+    }
+
+    @Unroll
+    def "restore soft-deleted entities with cascade-deleted details (bulk: #bulk)"() {
+        AppContext.setProperty('cuba.bulkEntityRestore', String.valueOf(bulk))
+
+        when:
+
+        entityRestoreService.restoreEntities([role1])
+
+        then:
+
+        !isDeleted(Role, role1.id)
+        !isDeleted(Permission, permission1.id)
+        !isDeleted(Permission, permission2.id)
+
+        isDeleted(Role, role2.id)
+        isDeleted(Permission, permission3.id)
+
+        where:
+
+        bulk << [false, true]
+    }
+
+    private boolean isDeleted(Class entityClass, UUID id) {
+        persistence.callInTransaction({ em ->
+            em.setSoftDeletion(false)
+            em.find(entityClass, id).deleted
+        })
+    }
+}
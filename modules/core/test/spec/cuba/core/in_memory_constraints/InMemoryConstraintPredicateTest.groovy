@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package spec.cuba.core.in_memory_constraints
+
+import com.haulmont.cuba.core.PersistenceSecurity
+import com.haulmont.cuba.core.entity.Entity
+import com.haulmont.cuba.core.global.AppBeans
+import com.haulmont.cuba.core.global.Metadata
+import com.haulmont.cuba.core.global.Scripting
+import com.haulmont.cuba.core.global.UserSessionSource
+import com.haulmont.cuba.core.sys.SecurityImpl
+import com.haulmont.cuba.security.entity.Constraint
+import com.haulmont.cuba.security.entity.ConstraintCheckType
+import com.haulmont.cuba.security.entity.ConstraintOperationType
+import com.haulmont.cuba.security.entity.User
+import com.haulmont.cuba.security.global.UserSession
+import com.haulmont.cuba.testsupport.TestContainer
+import com.haulmont.cuba.testsupport.TestUserSessionSource
+import org.junit.ClassRule
+import spock.lang.Shared
+import spock.lang.Specification
+
+class InMemoryConstraintPredicateTest extends Specification {
+
+    @Shared @ClassRule
+    public TestContainer cont = TestContainer.Common.INSTANCE
+
+    private PersistenceSecurity security
+    private Metadata metadata
+    private TestUserSessionSource userSessionSource
+    private UserSession savedUserSession
+    private UserSession userSession
+
+    void setup() {
+        security = AppBeans.get(PersistenceSecurity)
+        metadata = cont.metadata()
+
+        userSessionSource = AppBeans.get(UserSessionSource) as TestUserSessionSource
+        savedUserSession = userSessionSource.getUserSession()
+        userSession = new UserSession(UUID.randomUUID(), savedUserSession.getUser(), [], Locale.ENGLISH, false)
+        userSessionSource.setUserSession(userSession)
+    }
+
+    void cleanup() {
+        userSessionSource.setUserSession(savedUserSession)
+    }
+
+    def "collection is filtered by the constraints of its meta class"() {
+
+        userSession.addConstraint(createConstraint("{E}.login.startsWith('a')"))
+
+        def users = [createUser('a1'), createUser('b1'), createUser('a2')]
+        List<Entity> entities = new ArrayList<>(users)
+
+        when:
+
+        def filtered = security.filterByConstraints(entities)
+
+        then:
+
+        filtered
+        entities == [users[0], users[2]]
+    }
+
+    def "predicate checks entities with the constraints prepared once"() {
+
+        userSession.addConstraint(createConstraint("{E}.login.startsWith('a')"))
+        userSession.addConstraint(createConstraint("{E}.login.length() == 2"))
+
+        when:
+
+        def predicate = security.createPermittedPredicate(metadata.getClassNN(User), ConstraintOperationType.READ)
+
+        then:
+
+        predicate.test(createUser('a1'))
+        !predicate.test(createUser('b1'))
+        !predicate.test(createUser('a10'))
+    }
+
+    def "entity is filtered out if the constraint script fails"() {
+
+        userSession.addConstraint(createConstraint("{E}.login.noSuchMethod()"))
+
+        List<Entity> entities = [createUser('a1'), createUser('b1')]
+
+        when:
+
+        def filtered = security.filterByConstraints(entities)
+
+        then:
+
+        filtered
+        entities.isEmpty()
+    }
+
+    def "changed constraint script is compiled again"() {
+
+        def scriptA = "{E}.login.startsWith('a')"
+        def scriptB = "{E}.login.startsWith('b')"
+        def constraint = createConstraint(scriptA)
+        userSession.addConstraint(constraint)
+
+        def userA = createUser('a1')
+        def userB = createUser('b1')
+
+        when:
+
+        def permittedBefore = [security.isPermitted(userA, ConstraintOperationType.READ),
+                               security.isPermitted(userB, ConstraintOperationType.READ)]
+
+        userSession.removeConstraint(constraint)
+        userSession.addConstraint(createConstraint(scriptB))
+
+        def permittedAfter = [security.isPermitted(userA, ConstraintOperationType.READ),
+                              security.isPermitted(userB, ConstraintOperationType.READ)]
+
+        then:
+
+        permittedBefore == [true, false]
+        permittedAfter == [false, true]
+
+        def scriptClasses = (security as SecurityImpl).constraintScriptClasses
+        scriptClasses.getIfPresent(scriptA) != null
+        scriptClasses.getIfPresent(scriptB) != null
+        scriptClasses.getIfPresent(scriptA) != scriptClasses.getIfPresent(scriptB)
+    }
+
+    def "compiled constraint scripts are dropped when scripting caches are cleared"() {
+
+        def script = "{E}.login.startsWith('a')"
+        userSession.addConstraint(createConstraint(script))
+        security.isPermitted(createUser('a1'), ConstraintOperationType.READ)
+
+        def scriptClasses = (security as SecurityImpl).constraintScriptClasses
+        assert scriptClasses.getIfPresent(script) != null
+
+        when:
+
+        AppBeans.get(Scripting).clearCache()
+
+        then:
+
+        scriptClasses.getIfPresent(script) == null
+        security.isPermitted(createUser('a1'), ConstraintOperationType.READ)
+    }
+
+    private Constraint createConstraint(String groovyScript) {
+        Constraint constraint = metadata.create(Constraint)
+        constraint.setEntityName('sec$User')
+        constraint.setCheckType(ConstraintCheckType.MEMORY)
+        constraint.setOperationType(ConstraintOperationType.READ)
+        constraint.setGroovyScript(groovyScript)
+        return constraint
+    }
+
+    private User createUser(String login) {
+        User user = metadata.create(User)
+        user.setLogin(login)
+        return user
+    }
+}
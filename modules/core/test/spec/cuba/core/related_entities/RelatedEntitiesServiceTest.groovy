@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package spec.cuba.core.related_entities
+
+import com.haulmont.cuba.core.Persistence
+import com.haulmont.cuba.core.app.RelatedEntitiesService
+import com.haulmont.cuba.core.global.AppBeans
+import com.haulmont.cuba.core.sys.AppContext
+import com.haulmont.cuba.security.entity.Group
+import com.haulmont.cuba.security.entity.Role
+import com.haulmont.cuba.security.entity.User
+import com.haulmont.cuba.security.entity.UserRole
+import com.haulmont.cuba.testsupport.TestContainer
+import org.junit.ClassRule
+import spock.lang.Shared
+import spock.lang.Specification
+
+class RelatedEntitiesServiceTest extends Specification {
+
+    @Shared
+    @ClassRule
+    public TestContainer cont = TestContainer.Common.INSTANCE
+
+    private Persistence persistence = cont.persistence()
+    private RelatedEntitiesService relatedEntitiesService = AppBeans.get(RelatedEntitiesService)
+
+    private Group group
+    private User user1, user2, user3
+    private Role role1, role2
+
+    void setup() {
+        persistence.runInTransaction({ em ->
+            group = new Group(name: 'relatedEntitiesGroup')
+            em.persist(group)
+
+            user1 = new User(login: 'relatedEntitiesUser1', group: group)
+            em.persist(user1)
+            user2 = new User(login: 'relatedEntitiesUser2', group: group)
+            em.persist(user2)
+            user3 = new User(login: 'relatedEntitiesUser3', group: group)
+            em.persist(user3)
+
+            role1 = new Role(name: 'relatedEntitiesRole1')
+            em.persist(role1)
+            role2 = new Role(name: 'relatedEntitiesRole2')
+            em.persist(role2)
+
+            em.persist(new UserRole(user: user1, role: role1))
+            em.persist(new UserRole(user: user2, role: role1))
+            em.persist(new UserRole(user: user2, role: role2))
+        })
+    }
+
+    void cleanup() {
+        AppContext.setProperty('cuba.relatedEntitiesLoadingBatchSize', null)
+
+        cont.deleteRecord('SEC_USER_ROLE', 'USER_ID', user1.id, user2.id)
+        cont.deleteRecord(user1, user2, user3, role1, role2, group)
+    }
+
+    def "ids of to-one references are loaded once for all parents"() {
+        when:
+
+        def ids = relatedEntitiesService.getRelatedIds([user1.id, user2.id, user3.id], 'sec$User', 'group')
+
+        then:
+
+        ids == [group.id]
+    }
+
+    def "ids of collection items are loaded in batches"() {
+        AppContext.setProperty('cuba.relatedEntitiesLoadingBatchSize', '1')
+
+        when:
+
+        def userRoleIds = relatedEntitiesService.getRelatedIds([user1.id, user2.id, user3.id], 'sec$User', 'userRoles')
+
+        then:
+
+        userRoleIds.size() == 3
+
+        when:
+
+        def roleIds = relatedEntitiesService.getRelatedIds(userRoleIds, 'sec$UserRole', 'role')
+
+        then:
+
+        roleIds as Set == [role1.id, role2.id] as Set
+        roleIds.size() == 2
+    }
+}
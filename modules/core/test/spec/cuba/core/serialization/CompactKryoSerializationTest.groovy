@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package spec.cuba.core.serialization
+
+import com.esotericsoftware.kryo.KryoException
+import com.haulmont.cuba.core.Persistence
+import com.haulmont.cuba.core.global.AppBeans
+import com.haulmont.cuba.core.global.DataManager
+import com.haulmont.cuba.core.global.Metadata
+import com.haulmont.cuba.core.global.View
+import com.haulmont.cuba.core.sys.serialization.CompactKryoSerialization
+import com.haulmont.cuba.core.sys.serialization.KryoSerialization
+import com.haulmont.cuba.testmodel.sales.Order
+import com.haulmont.cuba.testmodel.sales.OrderLine
+import com.haulmont.cuba.testsupport.TestContainer
+import org.junit.ClassRule
+import spock.lang.Shared
+import spock.lang.Specification
+
+class CompactKryoSerializationTest extends Specification {
+
+    @Shared
+    @ClassRule
+    public TestContainer cont = TestContainer.Common.INSTANCE
+
+    private Persistence persistence = cont.persistence()
+    private Metadata metadata = cont.metadata()
+    private DataManager dataManager = AppBeans.get(DataManager)
+
+    private CompactKryoSerialization serialization = new CompactKryoSerialization()
+
+    private UUID orderId
+
+    void setup() {
+        persistence.runInTransaction({ em ->
+            Order order = metadata.create(Order)
+            order.number = 'compactKryo#1'
+            orderId = order.id
+            em.persist(order)
+
+            for (int i = 0; i < 3; i++) {
+                OrderLine orderLine = metadata.create(OrderLine)
+                orderLine.product = 'product' + i
+                orderLine.order = order
+                em.persist(orderLine)
+            }
+        })
+    }
+
+    void cleanup() {
+        cont.deleteRecord('TEST_ORDER_LINE', 'ORDER_ID', orderId)
+        cont.deleteRecord('TEST_ORDER', orderId)
+    }
+
+    def "loaded entities are serialized more compactly"() {
+        def view = new View(Order)
+                .addProperty('number')
+                .addProperty('lineSet', new View(OrderLine).addProperty('product'))
+        Order order = dataManager.load(Order).id(orderId).view(view).one()
+
+        when:
+
+        byte[] compactBytes = serialization.serialize(order)
+        byte[] bytes = new KryoSerialization().serialize(order)
+        Order result = (Order) serialization.deserialize(compactBytes)
+
+        then:
+
+        compactBytes.length < bytes.length
+        result == order
+        result.number == 'compactKryo#1'
+        result.lineSet.collect { it.product } as Set == ['product0', 'product1', 'product2'] as Set
+    }
+
+    def "metadata objects are serialized by name"() {
+        def metaClass = metadata.getClassNN(Order)
+        def metaProperty = metaClass.getPropertyNN('number')
+
+        expect:
+
+        serialization.deserialize(serialization.serialize(metaClass)).is(metaClass)
+        serialization.deserialize(serialization.serialize(metaProperty)).is(metaProperty)
+    }
+
+    def "streams written without the profile are read"() {
+        def list = [UUID.randomUUID(), 'value', new Date()]
+
+        expect:
+
+        serialization.deserialize(new KryoSerialization().serialize(list)) == list
+    }
+
+    def "streams with a different fingerprint are rejected"() {
+        byte[] bytes = serialization.serialize('value')
+        // the fingerprint follows the header and the format version
+        bytes[4] = (byte) (bytes[4] + 1)
+
+        when:
+
+        serialization.deserialize(bytes)
+
+        then:
+
+        thrown(KryoException)
+    }
+}
@@ -25,7 +25,7 @@ import org.springframework.stereotype.Component;
 public class DesktopTasksWatchDog extends TasksWatchDog {
 
     @Override
-    protected synchronized ExecutionStatus getExecutionStatus(long actualTimeMs, TaskHandlerImpl taskHandler) {
+    protected ExecutionStatus getExecutionStatus(long actualTimeMs, TaskHandlerImpl taskHandler) {
         long timeout = taskHandler.getTimeoutMs();
 
         if (timeout > 0 && (actualTimeMs - taskHandler.getStartTimeStamp()) > timeout) {
@@ -32,7 +32,7 @@ public abstract class AbstractTemporalDatatype<T extends Temporal> implements Da
         } else {
             DateTimeFormatter formatter;
             if (formatPattern != null) {
-                formatter = DateTimeFormatter.ofPattern(formatPattern);
+                formatter = FormatCache.getDateTimeFormatter(formatPattern, null);
             } else {
                 formatter = getDateTimeFormatter();
             }
@@ -66,7 +66,7 @@ public abstract class AbstractTemporalDatatype<T extends Temporal> implements Da
 
         DateTimeFormatter formatter;
         if (formatPattern != null) {
-            formatter = DateTimeFormatter.ofPattern(formatPattern);
+            formatter = FormatCache.getDateTimeFormatter(formatPattern, null);
         } else {
             formatter = getDateTimeFormatter();
         }
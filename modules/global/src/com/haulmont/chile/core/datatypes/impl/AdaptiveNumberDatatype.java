@@ -55,7 +55,8 @@ public class AdaptiveNumberDatatype extends NumberDatatype implements Datatype<N
             return createFormat();
         }
 
-        DecimalFormatSymbols formatSymbols = formatStrings.getFormatSymbols();
+        // copy the symbols to not affect other formats of the locale
+        DecimalFormatSymbols formatSymbols = (DecimalFormatSymbols) formatStrings.getFormatSymbols().clone();
         if (!decimalSeparator.equals("")) {
             formatSymbols.setDecimalSeparator(decimalSeparator.charAt(0));
         }
@@ -63,7 +64,7 @@ public class AdaptiveNumberDatatype extends NumberDatatype implements Datatype<N
             formatSymbols.setGroupingSeparator(groupingSeparator.charAt(0));
         }
 
-        DecimalFormat format = new DecimalFormat(formatPattern, formatSymbols);
+        DecimalFormat format = FormatCache.getDecimalFormat(formatPattern, formatSymbols);
         setupFormat(format);
         return format;
     }
@@ -65,7 +65,7 @@ public class BigDecimalDatatype extends NumberDatatype implements Datatype<BigDe
         }
 
         DecimalFormatSymbols formatSymbols = formatStrings.getFormatSymbols();
-        NumberFormat format = new DecimalFormat(formatStrings.getDecimalFormat(), formatSymbols);
+        NumberFormat format = FormatCache.getDecimalFormat(formatStrings.getDecimalFormat(), formatSymbols);
         return format.format(value);
     }
 
@@ -90,7 +90,7 @@ public class BigDecimalDatatype extends NumberDatatype implements Datatype<BigDe
         }
 
         DecimalFormatSymbols formatSymbols = formatStrings.getFormatSymbols();
-        DecimalFormat format = new DecimalFormat(formatStrings.getDecimalFormat(), formatSymbols);
+        DecimalFormat format = FormatCache.getDecimalFormat(formatStrings.getDecimalFormat(), formatSymbols);
         format.setParseBigDecimal(true);
         return (BigDecimal) parse(value, format);
     }
@@ -29,7 +29,6 @@ import org.dom4j.Element;
 
 import java.text.DateFormat;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
@@ -56,7 +55,7 @@ public class DateDatatype implements Datatype<Date>, ParameterizedDatatype {
 
         DateFormat format;
         if (formatPattern != null) {
-            format = new SimpleDateFormat(formatPattern);
+            format = FormatCache.getSimpleDateFormat(formatPattern);
         } else {
             format = DateFormat.getDateInstance();
         }
@@ -74,7 +73,7 @@ public class DateDatatype implements Datatype<Date>, ParameterizedDatatype {
             return format(value);
         }
 
-        DateFormat format = new SimpleDateFormat(formatStrings.getDateFormat());
+        DateFormat format = FormatCache.getSimpleDateFormat(formatStrings.getDateFormat());
         return format.format(value);
     }
 
@@ -96,7 +95,7 @@ public class DateDatatype implements Datatype<Date>, ParameterizedDatatype {
 
         DateFormat format;
         if (formatPattern != null) {
-            format = new SimpleDateFormat(formatPattern);
+            format = FormatCache.getSimpleDateFormat(formatPattern);
             format.setLenient(false);
         } else {
             format = DateFormat.getDateInstance();
@@ -115,7 +114,7 @@ public class DateDatatype implements Datatype<Date>, ParameterizedDatatype {
             return parse(value);
         }
 
-        DateFormat format = new SimpleDateFormat(formatStrings.getDateFormat());
+        DateFormat format = FormatCache.getSimpleDateFormat(formatStrings.getDateFormat());
         format.setLenient(false);
 
         return normalize(format.parse(value.trim()));
@@ -27,7 +27,6 @@ import org.dom4j.Element;
 import javax.annotation.Nullable;
 import java.text.DateFormat;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
 import java.util.Map;
@@ -49,7 +48,7 @@ public class DateTimeDatatype implements Datatype<Date>, ParameterizedDatatype,
         } else {
             DateFormat format;
             if (formatPattern != null) {
-                format = new SimpleDateFormat(formatPattern);
+                format = FormatCache.getSimpleDateFormat(formatPattern);
             } else {
                 format = DateFormat.getDateInstance();
             }
@@ -73,7 +72,7 @@ public class DateTimeDatatype implements Datatype<Date>, ParameterizedDatatype,
             return format(value);
         }
 
-        DateFormat format = new SimpleDateFormat(formatStrings.getDateTimeFormat());
+        DateFormat format = FormatCache.getSimpleDateFormat(formatStrings.getDateTimeFormat());
         if (timeZone != null) {
             format.setTimeZone(timeZone);
         }
@@ -89,7 +88,7 @@ public class DateTimeDatatype implements Datatype<Date>, ParameterizedDatatype,
 
         DateFormat format;
         if (formatPattern != null) {
-            format = new SimpleDateFormat(formatPattern);
+            format = FormatCache.getSimpleDateFormat(formatPattern);
         } else {
             format = DateFormat.getDateInstance();
         }
@@ -113,7 +112,7 @@ public class DateTimeDatatype implements Datatype<Date>, ParameterizedDatatype,
             return parse(value);
         }
 
-        DateFormat format = new SimpleDateFormat(formatStrings.getDateTimeFormat());
+        DateFormat format = FormatCache.getSimpleDateFormat(formatStrings.getDateTimeFormat());
 
         if (timeZone != null) {
             format.setTimeZone(timeZone);
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.chile.core.datatypes.impl;
+
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nullable;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches format objects of the built-in datatypes by pattern and locale.
+ * <p>
+ * {@link DateTimeFormatter} is immutable, so a cached instance is shared. {@link DecimalFormat} and
+ * {@link SimpleDateFormat} are mutable and not thread-safe, so a prototype is cached and each caller receives
+ * its own clone, which is much cheaper than parsing the pattern again.
+ */
+final class FormatCache {
+
+    private static final ConcurrentMap<List<Object>, Object> formats = new ConcurrentHashMap<>();
+
+    private FormatCache() {
+    }
+
+    static DecimalFormat getDecimalFormat(String pattern, DecimalFormatSymbols symbols) {
+        DecimalFormat prototype = (DecimalFormat) formats.get(Arrays.asList(DecimalFormat.class, pattern, symbols));
+        if (prototype == null) {
+            prototype = new DecimalFormat(pattern, symbols);
+            // the symbols are mutable, so the cache keeps its own copy as a key
+            formats.putIfAbsent(Arrays.asList(DecimalFormat.class, pattern, symbols.clone()), prototype);
+        }
+        return (DecimalFormat) prototype.clone();
+    }
+
+    static DecimalFormat getDecimalFormat(String pattern,
+                                          @Nullable String decimalSeparator, @Nullable String groupingSeparator) {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        List<Object> key = Arrays.asList(DecimalFormat.class, pattern, locale, decimalSeparator, groupingSeparator);
+        DecimalFormat prototype = (DecimalFormat) formats.computeIfAbsent(key, k -> {
+            DecimalFormatSymbols formatSymbols = new DecimalFormatSymbols(locale);
+
+            if (!StringUtils.isBlank(decimalSeparator))
+                formatSymbols.setDecimalSeparator(decimalSeparator.charAt(0));
+
+            if (!StringUtils.isBlank(groupingSeparator))
+                formatSymbols.setGroupingSeparator(groupingSeparator.charAt(0));
+
+            return new DecimalFormat(pattern, formatSymbols);
+        });
+        return (DecimalFormat) prototype.clone();
+    }
+
+    static SimpleDateFormat getSimpleDateFormat(String pattern) {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        SimpleDateFormat prototype = (SimpleDateFormat) formats.computeIfAbsent(
+                Arrays.asList(SimpleDateFormat.class, pattern, locale), k -> new SimpleDateFormat(pattern, locale));
+
+        SimpleDateFormat format = (SimpleDateFormat) prototype.clone();
+        // the prototype keeps the time zone that was the default one when it was created
+        format.setTimeZone(TimeZone.getDefault());
+        return format;
+    }
+
+    static DateTimeFormatter getDateTimeFormatter(String pattern, @Nullable Locale locale) {
+        Locale formatLocale = locale != null ? locale : Locale.getDefault(Locale.Category.FORMAT);
+        return (DateTimeFormatter) formats.computeIfAbsent(
+                Arrays.asList(DateTimeFormatter.class, pattern, formatLocale),
+                k -> DateTimeFormatter.ofPattern(pattern, formatLocale));
+    }
+}
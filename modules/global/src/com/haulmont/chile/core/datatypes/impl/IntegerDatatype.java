@@ -25,7 +25,6 @@ import com.haulmont.cuba.core.global.AppBeans;
 import org.apache.commons.lang3.StringUtils;
 import org.dom4j.Element;
 
-import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.text.ParseException;
@@ -53,7 +52,7 @@ public class IntegerDatatype extends NumberDatatype implements Datatype<Integer>
             return format(value);
 
         DecimalFormatSymbols formatSymbols = formatStrings.getFormatSymbols();
-        NumberFormat format = new DecimalFormat(formatStrings.getIntegerFormat(), formatSymbols);
+        NumberFormat format = FormatCache.getDecimalFormat(formatStrings.getIntegerFormat(), formatSymbols);
         return format.format(value);
     }
 
@@ -75,7 +74,7 @@ public class IntegerDatatype extends NumberDatatype implements Datatype<Integer>
             return parse(value);
 
         DecimalFormatSymbols formatSymbols = formatStrings.getFormatSymbols();
-        NumberFormat format = new DecimalFormat(formatStrings.getIntegerFormat(), formatSymbols);
+        NumberFormat format = FormatCache.getDecimalFormat(formatStrings.getIntegerFormat(), formatSymbols);
         return parse(value, format).intValue();
     }
 
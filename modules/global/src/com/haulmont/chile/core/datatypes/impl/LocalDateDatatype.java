@@ -48,7 +48,7 @@ public class LocalDateDatatype extends AbstractTemporalDatatype<LocalDate> {
             return parse(value);
         }
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(formatPattern);
+        DateTimeFormatter formatter = FormatCache.getDateTimeFormatter(formatPattern, null);
         return LocalDate.parse(value.trim(), formatter);
     }
 
@@ -59,7 +59,7 @@ public class LocalDateDatatype extends AbstractTemporalDatatype<LocalDate> {
 
     @Override
     protected DateTimeFormatter getDateTimeFormatter(FormatStrings formatStrings, Locale locale) {
-        return DateTimeFormatter.ofPattern(formatStrings.getDateFormat(), locale);
+        return FormatCache.getDateTimeFormatter(formatStrings.getDateFormat(), locale);
     }
 
     @Override
@@ -40,7 +40,7 @@ public class LocalDateTimeDatatype extends AbstractTemporalDatatype<LocalDateTim
 
     @Override
     protected DateTimeFormatter getDateTimeFormatter(FormatStrings formatStrings, Locale locale) {
-        return DateTimeFormatter.ofPattern(formatStrings.getDateTimeFormat(), locale);
+        return FormatCache.getDateTimeFormatter(formatStrings.getDateTimeFormat(), locale);
     }
 
     @Override
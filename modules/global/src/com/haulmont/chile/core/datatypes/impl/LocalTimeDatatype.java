@@ -40,7 +40,7 @@ public class LocalTimeDatatype extends AbstractTemporalDatatype<LocalTime> {
 
     @Override
     protected DateTimeFormatter getDateTimeFormatter(FormatStrings formatStrings, Locale locale) {
-        return DateTimeFormatter.ofPattern(formatStrings.getTimeFormat(), locale);
+        return FormatCache.getDateTimeFormatter(formatStrings.getTimeFormat(), locale);
     }
 
     @Override
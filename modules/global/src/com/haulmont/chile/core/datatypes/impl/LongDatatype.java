@@ -25,7 +25,6 @@ import com.haulmont.cuba.core.global.AppBeans;
 import org.apache.commons.lang3.StringUtils;
 import org.dom4j.Element;
 
-import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.text.ParseException;
@@ -55,7 +54,7 @@ public class LongDatatype extends NumberDatatype implements Datatype<Long> {
         }
 
         DecimalFormatSymbols formatSymbols = formatStrings.getFormatSymbols();
-        NumberFormat format = new DecimalFormat(formatStrings.getIntegerFormat(), formatSymbols);
+        NumberFormat format = FormatCache.getDecimalFormat(formatStrings.getIntegerFormat(), formatSymbols);
         return format.format(value);
     }
 
@@ -80,7 +79,7 @@ public class LongDatatype extends NumberDatatype implements Datatype<Long> {
         }
 
         DecimalFormatSymbols formatSymbols = formatStrings.getFormatSymbols();
-        NumberFormat format = new DecimalFormat(formatStrings.getIntegerFormat(), formatSymbols);
+        NumberFormat format = FormatCache.getDecimalFormat(formatStrings.getIntegerFormat(), formatSymbols);
 
         return parse(value, format).longValue();
     }
@@ -19,7 +19,6 @@ package com.haulmont.chile.core.datatypes.impl;
 
 import com.haulmont.bali.util.ParamsMap;
 import com.haulmont.chile.core.datatypes.ParameterizedDatatype;
-import org.apache.commons.lang3.StringUtils;
 import org.dom4j.Element;
 
 import java.text.*;
@@ -56,15 +55,7 @@ public abstract class NumberDatatype implements ParameterizedDatatype {
      */
     protected NumberFormat createFormat() {
         if (formatPattern != null) {
-            DecimalFormatSymbols formatSymbols = new DecimalFormatSymbols();
-
-            if (!StringUtils.isBlank(decimalSeparator))
-                formatSymbols.setDecimalSeparator(decimalSeparator.charAt(0));
-
-            if (!StringUtils.isBlank(groupingSeparator))
-                formatSymbols.setGroupingSeparator(groupingSeparator.charAt(0));
-
-            return new DecimalFormat(formatPattern, formatSymbols);
+            return FormatCache.getDecimalFormat(formatPattern, decimalSeparator, groupingSeparator);
         } else {
             return NumberFormat.getNumberInstance();
         }
@@ -40,7 +40,7 @@ public class OffsetTimeDatatype extends AbstractTemporalDatatype<OffsetTime> {
 
     @Override
     protected DateTimeFormatter getDateTimeFormatter(FormatStrings formatStrings, Locale locale) {
-        return DateTimeFormatter.ofPattern(formatStrings.getTimeFormat(), locale);
+        return FormatCache.getDateTimeFormatter(formatStrings.getTimeFormat(), locale);
     }
 
     @Override
@@ -30,7 +30,6 @@ import org.dom4j.Element;
 import java.sql.Time;
 import java.text.DateFormat;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
 import java.util.Map;
@@ -55,7 +54,7 @@ public class TimeDatatype implements Datatype<Date>, ParameterizedDatatype {
         } else {
             DateFormat format;
             if (formatPattern != null) {
-                format = new SimpleDateFormat(formatPattern);
+                format = FormatCache.getSimpleDateFormat(formatPattern);
             } else {
                 format = DateFormat.getTimeInstance();
             }
@@ -75,7 +74,7 @@ public class TimeDatatype implements Datatype<Date>, ParameterizedDatatype {
             return format(value);
         }
 
-        DateFormat format = new SimpleDateFormat(formatStrings.getTimeFormat());
+        DateFormat format = FormatCache.getSimpleDateFormat(formatStrings.getTimeFormat());
         format.setLenient(false);
 
         return format.format(value);
@@ -88,7 +87,7 @@ public class TimeDatatype implements Datatype<Date>, ParameterizedDatatype {
         }
         DateFormat format;
         if (formatPattern != null) {
-            format = new SimpleDateFormat(formatPattern);
+            format = FormatCache.getSimpleDateFormat(formatPattern);
         } else {
             format = DateFormat.getTimeInstance();
         }
@@ -107,7 +106,7 @@ public class TimeDatatype implements Datatype<Date>, ParameterizedDatatype {
             return parse(value);
         }
 
-        DateFormat format = new SimpleDateFormat(formatStrings.getTimeFormat());
+        DateFormat format = FormatCache.getSimpleDateFormat(formatStrings.getTimeFormat());
         return format.parse(value.trim());
     }
 
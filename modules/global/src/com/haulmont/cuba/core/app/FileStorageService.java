@@ -36,4 +36,9 @@ public interface FileStorageService {
     byte[] loadFile(FileDescriptor fileDescr) throws FileStorageException;
 
     boolean fileExists(FileDescriptor fileDescr) throws FileStorageException;
-}
\ No newline at end of file
+
+    /**
+     * @return actual size of the file contents in bytes, or -1 if the storage cannot determine it
+     */
+    long getFileSize(FileDescriptor fileDescr) throws FileStorageException;
+}
@@ -18,6 +18,7 @@
 package com.haulmont.cuba.core.app;
 
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * Service allowing clients to retrieve localized messages from the middleware.
@@ -28,4 +29,11 @@ public interface LocalizedMessageService {
     String NAME = "cuba_LocalizedMessageService";
 
     String getMessage(String pack, String key, Locale locale);
+
+    /**
+     * Returns all messages of the pack at once, to let clients avoid remote calls for each missing key.
+     *
+     * @see com.haulmont.cuba.core.global.Messages#getMessages(String, Locale)
+     */
+    Map<String, String> getMessages(String pack, Locale locale);
 }
\ No newline at end of file
@@ -20,6 +20,7 @@ import com.haulmont.cuba.core.entity.Entity;
 import com.haulmont.cuba.core.global.LockInfo;
 
 import javax.annotation.Nullable;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -50,6 +51,14 @@ public interface LockService {
     @Nullable
     LockInfo lock(Entity entity);
 
+    /**
+     * Try to lock a collection of entities. Other cluster nodes are notified about all acquired locks at once.
+     * @param entities entity instances
+     * @return list of the same size as the collection, each element is the result of locking the corresponding entity
+     * as returned by {@link #lock(Entity)}
+     */
+    List<LockInfo> lock(Collection<? extends Entity> entities);
+
     /**
      * Unlock an arbitrary object.
      * @param name locking object name
@@ -63,6 +72,12 @@ public interface LockService {
      */
     void unlock(Entity entity);
 
+    /**
+     * Unlock a collection of entities. Other cluster nodes are notified about all released locks at once.
+     * @param entities entity instances
+     */
+    void unlock(Collection<? extends Entity> entities);
+
     /**
      * Get locking status for particular object
      * @param name locking object name
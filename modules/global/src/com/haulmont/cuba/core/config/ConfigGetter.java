@@ -22,7 +22,11 @@ package com.haulmont.cuba.core.config;
 import com.haulmont.cuba.core.config.type.TypeFactory;
 
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.UUID;
 
 /**
  * Implementation of configuration getter methods.
@@ -38,6 +42,13 @@ public class ConfigGetter extends ConfigAccessorMethod {
 
     private TypeFactory factory;
 
+    private final Method method;
+
+    /**
+     * Whether the typed value can be shared between invocations, i.e. the return type is immutable.
+     */
+    private final boolean cacheable;
+
     /**
      * Create a new ConfigGetter instance.
      *
@@ -51,6 +62,26 @@ public class ConfigGetter extends ConfigAccessorMethod {
         sourceType = ConfigUtil.getSourceType(configInterface, method);
 //        if (!String.class.equals(method.getReturnType()))
         factory = TypeFactory.getInstance(configInterface, method);
+        this.method = method;
+        cacheable = isImmutableType(method.getReturnType());
+    }
+
+    protected boolean isImmutableType(Class<?> type) {
+        return type.isPrimitive()
+                || type.isEnum()
+                || String.class == type
+                || Boolean.class == type
+                || Character.class == type
+                || Byte.class == type
+                || Short.class == type
+                || Integer.class == type
+                || Long.class == type
+                || Float.class == type
+                || Double.class == type
+                || BigDecimal.class == type
+                || BigInteger.class == type
+                || UUID.class == type
+                || Class.class == type;
     }
 
     /**
@@ -58,12 +89,19 @@ public class ConfigGetter extends ConfigAccessorMethod {
      * This implementation invokes either {@link #getProperty(ConfigPersister)} or
      * {@link #getProperty(ConfigPersister, String)} depending on whether a
      * run-time default value was specified.
+     * <p>
+     * Values of immutable types obtained without a run-time default are cached in the handler and reused
+     * while the {@link ConfigVersion} and the overriding system property stay the same. If the persister
+     * does not support versioning, the string value is read each time but is converted only when changed.
      */
     @Override
     public Object invoke(ConfigHandler handler, Object[] args, Object proxy) {
         ConfigPersister configuration = handler.getPersister();
         String str;
         if ((args == null) || (args.length == 0)) {
+            if (cacheable) {
+                return getCachedProperty(handler);
+            }
             str = getProperty(configuration);
         }
         else {
@@ -85,6 +123,30 @@ public class ConfigGetter extends ConfigAccessorMethod {
             return factory.build(str);
     }
 
+    protected Object getCachedProperty(ConfigHandler handler) {
+        ConfigPersister configuration = handler.getPersister();
+        // read the version before the value, so a concurrent change invalidates the value being cached
+        long version = ConfigVersion.get();
+        String systemValue = System.getProperty(getPropertyName());
+
+        CachedValue cached = handler.getCachedValue(method);
+        boolean versioned = configuration.isVersioned(sourceType);
+        if (cached != null && versioned && cached.version == version
+                && Objects.equals(cached.systemValue, systemValue)) {
+            return cached.value;
+        }
+
+        String str = getProperty(configuration);
+        Object value;
+        if (cached != null && Objects.equals(cached.str, str)) {
+            value = cached.value;
+        } else {
+            value = factory == null ? str : factory.build(str);
+        }
+        handler.setCachedValue(method, new CachedValue(versioned ? version : -1, systemValue, str, value));
+        return value;
+    }
+
     /**
      * Get a configuration field value.
      *
@@ -118,6 +180,23 @@ public class ConfigGetter extends ConfigAccessorMethod {
         }
     }
 
+    /**
+     * Typed value of a property along with the state of its sources at the moment of conversion.
+     */
+    static class CachedValue {
+        final long version;
+        final String systemValue;
+        final String str;
+        final Object value;
+
+        CachedValue(long version, String systemValue, String str, Object value) {
+            this.version = version;
+            this.systemValue = systemValue;
+            this.str = str;
+            this.value = value;
+        }
+    }
+
     /**
      * The ConfigGetter factory.
      */
@@ -21,6 +21,8 @@ package com.haulmont.cuba.core.config;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Configuration interface method handler.
@@ -35,6 +37,14 @@ public class ConfigHandler implements InvocationHandler {
      * The configuration interface.
      */
     private final Class<?> configInterface;
+    /**
+     * Method implementations resolved for this interface.
+     */
+    private final Map<Method, ConfigMethod> methods = new ConcurrentHashMap<>();
+    /**
+     * Typed values returned by the getters of this interface.
+     */
+    private final Map<Method, ConfigGetter.CachedValue> values = new ConcurrentHashMap<>();
 
     /**
      * Create a new ConfigHandler instance.
@@ -75,7 +85,18 @@ public class ConfigHandler implements InvocationHandler {
      */
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        ConfigMethod configMethod = ConfigMethods.getInstance(configInterface, method);
+        ConfigMethod configMethod = methods.get(method);
+        if (configMethod == null) {
+            configMethod = methods.computeIfAbsent(method, m -> ConfigMethods.getInstance(configInterface, m));
+        }
         return configMethod.invoke(this, args, proxy);
-  }
+    }
+
+    ConfigGetter.CachedValue getCachedValue(Method method) {
+        return values.get(method);
+    }
+
+    void setCachedValue(Method method, ConfigGetter.CachedValue value) {
+        values.put(method, value);
+    }
 }
\ No newline at end of file
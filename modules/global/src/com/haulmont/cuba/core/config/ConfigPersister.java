@@ -20,4 +20,15 @@ public interface ConfigPersister {
     String getProperty(SourceType sourceType, String name);
 
     void setProperty(SourceType sourceType, String name, String value);
+
+    /**
+     * Whether each change of the values of the given source increments the {@link ConfigVersion}. If true,
+     * config interface proxies may reuse typed values converted on previous invocations until the version is changed.
+     *
+     * @param sourceType configuration source type
+     * @return true if the values of the source are tracked by {@link ConfigVersion}
+     */
+    default boolean isVersioned(SourceType sourceType) {
+        return false;
+    }
 }
\ No newline at end of file
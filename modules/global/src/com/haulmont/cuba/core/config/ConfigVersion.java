@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.core.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global version of configuration property values.
+ * <p>
+ * The version is incremented each time a source of configuration values is changed: an application property is set,
+ * a DB-stored property is saved or the DB-stored properties cache is invalidated by the cluster. Config interface
+ * proxies use it to detect that typed values converted on previous invocations are still actual.
+ * <p>
+ * System properties changed directly by {@link System#setProperty(String, String)} are not tracked by the version.
+ */
+public final class ConfigVersion {
+
+    private static final AtomicLong version = new AtomicLong();
+
+    private ConfigVersion() {
+    }
+
+    /**
+     * @return current version of configuration property values
+     */
+    public static long get() {
+        return version.get();
+    }
+
+    /**
+     * Invalidates all typed configuration values cached by config interface proxies.
+     */
+    public static void increment() {
+        version.incrementAndGet();
+    }
+}
@@ -142,4 +142,16 @@ public interface FileLoader {
             super(message, cause);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Return the actual size of the file contents, which can differ from {@link FileDescriptor#getSize()}.
+     *
+     * @param fd file descriptor
+     * @return size in bytes, or -1 if the file storage cannot determine it without reading the contents
+     * @throws IllegalArgumentException if arguments are incorrect
+     * @throws FileStorageException     if something goes wrong
+     */
+    default long getFileSize(FileDescriptor fd) throws FileStorageException {
+        return -1;
+    }
+}
@@ -190,6 +190,14 @@ public interface GlobalConfig extends Config {
     @DefaultInt(8)
     int getGroovyEvaluationPoolMaxIdle();
 
+    /**
+     * @return the maximum number of resolved messages kept in {@link Messages} caches, the caches are cleared when
+     * the number is exceeded
+     */
+    @Property("cuba.messagesCacheMaxSize")
+    @DefaultInt(100000)
+    int getMessagesCacheMaxSize();
+
     @Property("cuba.numberIdCacheSize")
     @DefaultInt(100)
     int getNumberIdCacheSize();
@@ -258,4 +266,13 @@ public interface GlobalConfig extends Config {
     @Factory(factory = CommaSeparatedStringListTypeFactory.class)
     @Stringify(stringify = CommaSeparatedStringListStringify.class)
     List<String> getDisableEscapingLikeForDataStores();
+
+    /**
+     * Whether {@link UuidSource} should generate time-ordered identifiers (UUID version 7 layout) instead of
+     * random ones. Time-ordered identifiers keep primary key indexes compact on insert-heavy tables.
+     * Applied on application start.
+     */
+    @Property("cuba.timeOrderedUuids")
+    @DefaultBoolean(false)
+    boolean getTimeOrderedUuids();
 }
\ No newline at end of file
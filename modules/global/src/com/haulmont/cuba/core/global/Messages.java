@@ -19,6 +19,7 @@ package com.haulmont.cuba.core.global;
 
 import javax.annotation.Nullable;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * Central infrastructure interface to work with localized messages.
@@ -194,6 +195,16 @@ public interface Messages {
      */
     String formatMessage(String pack, String key, Locale locale, Object... params);
 
+    /**
+     * Returns all messages available in the pack, including messages inherited from parent packages and includes.
+     * Each message is resolved the same way as by {@link #getMessage(String, String, Locale)}.
+     *
+     * @param pack   package name
+     * @param locale message locale
+     * @return map of message keys to localized messages
+     */
+    Map<String, String> getMessages(String pack, Locale locale);
+
     int getCacheSize();
 
     void clearCache();
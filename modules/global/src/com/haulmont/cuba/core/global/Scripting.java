@@ -18,6 +18,7 @@
 package com.haulmont.cuba.core.global;
 
 import groovy.lang.Binding;
+import groovy.lang.Script;
 
 import javax.annotation.Nullable;
 import java.util.Map;
@@ -61,6 +62,18 @@ public interface Scripting {
      */
     <T> T evaluateGroovy(String text, Map<String, Object> context);
 
+    /**
+     * Compiles Groovy expression the same way as {@link #evaluateGroovy(String, Binding)} does, without evaluating it.
+     * The returned class can be instantiated for each evaluation with its own binding, see
+     * {@link org.codehaus.groovy.runtime.InvokerHelper#createScript(Class, Binding)}.
+     * @param text      expression text
+     * @return          compiled script class, not cached by this bean
+     */
+    default Class<? extends Script> compileGroovy(String text) {
+        throw new UnsupportedOperationException(
+                "Compiling Groovy expressions is not supported by " + getClass().getName());
+    }
+
     /**
      * Runs Groovy script.
      * The script must be located as file under <em>conf</em> directory, or as a classpath resource.
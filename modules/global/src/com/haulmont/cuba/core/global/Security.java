@@ -23,6 +23,8 @@ import com.haulmont.cuba.security.entity.ConstraintOperationType;
 import com.haulmont.cuba.security.entity.EntityAttrAccess;
 import com.haulmont.cuba.security.entity.EntityOp;
 
+import java.util.function.Predicate;
+
 /**
  * Infrastructure interface providing methods to check permissions of the current user.
  */
@@ -127,6 +129,15 @@ public interface Security {
      */
     boolean isPermitted(Entity entity, ConstraintOperationType operationType);
 
+    /**
+     * Creates a predicate checking if the operation type is permitted for entities of the meta class, the same way
+     * as {@link #isPermitted(Entity, ConstraintOperationType)} does. Constraints of the current user are prepared once,
+     * so the predicate is cheap to apply to many entities. The predicate must not be shared between threads.
+     */
+    default Predicate<Entity> createPermittedPredicate(MetaClass metaClass, ConstraintOperationType operationType) {
+        return entity -> isPermitted(entity, operationType);
+    }
+
     /**
      * Check the special constraint permission for the entity
      */
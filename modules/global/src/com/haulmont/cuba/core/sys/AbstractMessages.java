@@ -43,6 +43,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -74,14 +75,24 @@ public abstract class AbstractMessages implements Messages {
 
     protected Map<String, String> strCache = new ConcurrentHashMap<>();
 
-    // Using ConcurrentHashMap instead of synchronized Set for better parallelism
-    protected Map<String, String> notFoundCache = new ConcurrentHashMap<>();
+    // Results of getMessage(packs, key, locale)
+    protected MessageIndex messageIndex = new MessageIndex();
+
+    // Results of internalGetMessage(), including not found ones
+    protected MessageIndex internalIndex = new MessageIndex();
+
+    // Space-separated pack lists split into packs in the search order. Pack lists come from screen and entity
+    // declarations, the cache is cleared on overflow only to protect from lists built dynamically.
+    protected Map<String, List<String>> packListCache = new ConcurrentHashMap<>();
 
     protected Cache<String, Properties> filePropertiesCache = CacheBuilder.newBuilder().build();
     protected Cache<String, Properties> resourcePropertiesCache = CacheBuilder.newBuilder().build();
 
     protected final static Properties PROPERTIES_NOT_FOUND = new Properties();
 
+    @SuppressWarnings("RedundantStringConstructorCall")
+    protected final static String MESSAGE_NOT_FOUND = new String("<not found>");
+
     protected abstract Locale getUserLocale();
 
     protected abstract String searchRemotely(String pack, String key, Locale locale);
@@ -249,12 +260,18 @@ public abstract class AbstractMessages implements Messages {
         checkNotNullArgument(packs, "Messages pack name is null");
         checkNotNullArgument(key, "Message key is null");
 
-        String compositeKey = packs + "/" + key;
-        String msg = internalGetMessage(mainMessagePack, compositeKey, locale, null, false);
+        Locale trimmedLocale = messageTools.trimLocale(locale);
+        String msg = messageIndex.get(trimmedLocale, packs, key);
         if (msg != null)
             return msg;
 
-        return internalGetMessage(packs, key, locale, key, true);
+        String compositeKey = packs + "/" + key;
+        msg = internalGetMessage(mainMessagePack, compositeKey, locale, null, false);
+        if (msg == null)
+            msg = internalGetMessage(packs, key, locale, key, true);
+
+        messageIndex.put(trimmedLocale, packs, key, msg, globalConfig.getMessagesCacheMaxSize());
+        return msg;
     }
 
     @Nullable
@@ -287,7 +304,33 @@ public abstract class AbstractMessages implements Messages {
 
     @Override
     public int getCacheSize() {
-        return strCache.size();
+        return messageIndex.size() + internalIndex.size() + strCache.size();
+    }
+
+    @Override
+    public Map<String, String> getMessages(String pack, Locale locale) {
+        checkNotNullArgument(pack, "Messages pack name is null");
+        checkNotNullArgument(locale, "Locale is null");
+
+        locale = messageTools.trimLocale(locale);
+
+        Set<String> keys = collectKeys(pack, locale);
+        // messages of the pack overridden in the main message pack by "pack/key" names
+        String overridePrefix = pack + "/";
+        for (String mainKey : collectKeys(mainMessagePack, locale)) {
+            if (mainKey.startsWith(overridePrefix) && mainKey.length() > overridePrefix.length()) {
+                keys.add(mainKey.substring(overridePrefix.length()));
+            }
+        }
+
+        Map<String, String> messages = new HashMap<>(keys.size() * 2);
+        for (String key : keys) {
+            String msg = getMessage(pack, key, locale);
+            if (!key.equals(msg)) {
+                messages.put(key, msg);
+            }
+        }
+        return messages;
     }
 
     @Override
@@ -295,26 +338,22 @@ public abstract class AbstractMessages implements Messages {
         filePropertiesCache.invalidateAll();
         resourcePropertiesCache.invalidateAll();
         strCache.clear();
-        notFoundCache.clear();
+        messageIndex.clear();
+        internalIndex.clear();
     }
 
     protected String internalGetMessage(String packs, String key, Locale locale, String defaultValue,
                                         boolean searchMainIfNotFound) {
         locale = messageTools.trimLocale(locale);
 
-        String cacheKey = makeCacheKey(packs, key, locale, locale);
-
-        String msg = strCache.get(cacheKey);
+        String msg = internalIndex.get(locale, packs, key);
         if (msg != null)
-            return msg;
-
-        String notFound = notFoundCache.get(cacheKey);
-        if (notFound != null)
-            return defaultValue;
+            //noinspection StringEquality
+            return msg == MESSAGE_NOT_FOUND ? defaultValue : msg;
 
         msg = searchMessage(packs, key, locale, locale, new HashSet<>());
         if (msg != null) {
-            cache(cacheKey, msg);
+            internalIndex.put(locale, packs, key, msg, globalConfig.getMessagesCacheMaxSize());
             return msg;
         }
 
@@ -322,21 +361,97 @@ public abstract class AbstractMessages implements Messages {
             String tmpCacheKey = makeCacheKey(mainMessagePack, key, locale, locale);
             msg = searchMessage(tmpCacheKey, key, locale, locale, new HashSet<>());
             if (msg != null) {
-                cache(cacheKey, msg);
+                internalIndex.put(locale, packs, key, msg, globalConfig.getMessagesCacheMaxSize());
                 return msg;
             }
         }
 
-        notFoundCache.put(cacheKey, key);
+        internalIndex.put(locale, packs, key, MESSAGE_NOT_FOUND, globalConfig.getMessagesCacheMaxSize());
         return defaultValue;
     }
 
+    /**
+     * Collects names of the messages defined for the given locale and its less specific locales.
+     */
+    protected Set<String> collectKeys(String packs, Locale locale) {
+        Set<String> keys = new LinkedHashSet<>();
+        Set<String> passedPacks = new HashSet<>();
+        collectKeys(packs, locale, passedPacks, keys);
+        Locale tmpLocale = locale;
+        while (tmpLocale != null) {
+            tmpLocale = truncateLocale(tmpLocale);
+            collectKeys(packs, tmpLocale, passedPacks, keys);
+        }
+        return keys;
+    }
+
+    /**
+     * Collects names of the messages defined in files and classpath resources of the pack, its parent packs
+     * and includes for the given locale, without going into other locales.
+     */
+    protected void collectKeys(String packs, @Nullable Locale locale, Set<String> passedPacks, Set<String> keys) {
+        for (String pack : getPackList(packs)) {
+            String passedKey = pack + "/" + (locale == null ? "default" : locale);
+            if (!passedPacks.add(passedKey))
+                continue;
+
+            List<Properties> propertiesList = new ArrayList<>();
+            String packPath = confDir + "/" + pack.replaceAll("\\.", "/");
+            while (packPath != null && !packPath.equals(confDir)) {
+                propertiesList.add(loadPropertiesFromFile(packPath, locale, locale));
+                int pos = packPath.lastIndexOf("/");
+                packPath = pos < 0 ? null : packPath.substring(0, pos);
+            }
+            packPath = "/" + pack.replaceAll("\\.", "/");
+            while (packPath != null) {
+                propertiesList.add(loadPropertiesFromResource(packPath, locale, locale));
+                int pos = packPath.lastIndexOf("/");
+                packPath = pos < 0 ? null : packPath.substring(0, pos);
+            }
+
+            for (Properties properties : propertiesList) {
+                if (properties == PROPERTIES_NOT_FOUND)
+                    continue;
+                for (String name : properties.stringPropertyNames()) {
+                    if (!"@include".equals(name))
+                        keys.add(name);
+                }
+                String includesProperty = properties.getProperty("@include");
+                if (includesProperty != null) {
+                    String[] includes = StringUtils.split(includesProperty, " ,");
+                    if (includes != null) {
+                        for (String includePath : includes) {
+                            includePath = StringUtils.trimToNull(includePath);
+                            if (includePath != null)
+                                collectKeys(includePath, locale, passedPacks, keys);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return packs of the space-separated list in the search order, i.e. the last pack first
+     */
+    protected List<String> getPackList(String packs) {
+        List<String> list = packListCache.get(packs);
+        if (list == null) {
+            StringTokenizer tokenizer = new StringTokenizer(packs);
+            list = new ArrayList<>(tokenizer.getTokenList());
+            Collections.reverse(list);
+            list = Collections.unmodifiableList(list);
+            if (packListCache.size() >= globalConfig.getMessagesCacheMaxSize()) {
+                packListCache.clear();
+            }
+            packListCache.put(packs, list);
+        }
+        return list;
+    }
+
     @Nullable
     protected String searchMessage(String packs, String key, Locale locale, Locale truncatedLocale, Set<String> passedPacks) {
-        StringTokenizer tokenizer = new StringTokenizer(packs);
-        //noinspection unchecked
-        List<String> list = tokenizer.getTokenList();
-        Collections.reverse(list);
+        List<String> list = getPackList(packs);
         for (String pack : list) {
             if (!enterPack(pack, locale, truncatedLocale, passedPacks))
                 continue;
@@ -394,8 +509,12 @@ public abstract class AbstractMessages implements Messages {
     }
 
     protected void cache(String key, String msg) {
-        if (!strCache.containsKey(key))
+        if (!strCache.containsKey(key)) {
+            if (strCache.size() >= globalConfig.getMessagesCacheMaxSize()) {
+                strCache.clear();
+            }
             strCache.put(key, msg);
+        }
     }
 
     protected String searchFiles(String pack, String key, Locale locale, Locale truncatedLocale, Set<String> passedPacks) {
@@ -563,4 +682,46 @@ public abstract class AbstractMessages implements Messages {
         else
             return "";
     }
-}
\ No newline at end of file
+
+    /**
+     * Thread-safe index of resolved messages by locale, pack and key. Lookups do not allocate intermediate keys.
+     * <p>
+     * The index is cleared when the number of messages exceeds the given maximum, since keys passed to
+     * {@code getMessage()} are not necessarily declared in message packs.
+     */
+    protected static class MessageIndex {
+
+        protected final Map<Locale, Map<String, Map<String, String>>> messages = new ConcurrentHashMap<>();
+
+        protected final AtomicInteger size = new AtomicInteger();
+
+        @Nullable
+        public String get(Locale locale, String pack, String key) {
+            Map<String, Map<String, String>> packs = messages.get(locale);
+            if (packs == null)
+                return null;
+            Map<String, String> keys = packs.get(pack);
+            if (keys == null)
+                return null;
+            return keys.get(key);
+        }
+
+        public void put(Locale locale, String pack, String key, String message, int maxSize) {
+            String previous = messages.computeIfAbsent(locale, l -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(pack, p -> new ConcurrentHashMap<>())
+                    .putIfAbsent(key, message);
+            if (previous == null && size.incrementAndGet() > maxSize) {
+                clear();
+            }
+        }
+
+        public int size() {
+            return size.get();
+        }
+
+        public void clear() {
+            messages.clear();
+            size.set(0);
+        }
+    }
+}
@@ -18,9 +18,11 @@
 package com.haulmont.cuba.core.sys;
 
 import com.haulmont.cuba.core.global.Configuration;
+import com.haulmont.cuba.core.global.Events;
 import com.haulmont.cuba.core.global.GlobalConfig;
 import com.haulmont.cuba.core.global.ScriptExecutionPolicy;
 import com.haulmont.cuba.core.global.Scripting;
+import com.haulmont.cuba.core.sys.events.ScriptingCacheClearedEvent;
 import com.haulmont.cuba.core.sys.javacl.JavaClassLoader;
 import groovy.lang.Binding;
 import groovy.lang.GroovyClassLoader;
@@ -40,6 +42,7 @@ import org.codehaus.groovy.control.CompilationFailedException;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
 
 import java.io.File;
 import java.io.IOException;
@@ -177,6 +180,11 @@ public abstract class AbstractScripting implements Scripting {
         return script;
     }
 
+    @Override
+    public Class<? extends Script> compileGroovy(String text) {
+        return createScript(text).getClass();
+    }
+
     protected Binding createBinding(Map<String, Object> map) {
         Binding binding = new Binding();
         for (Map.Entry<String, Object> entry : map.entrySet()) {
@@ -316,6 +324,12 @@ public abstract class AbstractScripting implements Scripting {
         } catch (NoSuchFieldException | IllegalAccessException e) {
             //ignore the exception
         }
+
+        ApplicationContext applicationContext = AppContext.getApplicationContext();
+        if (applicationContext != null) {
+            Events events = (Events) applicationContext.getBean(Events.NAME);
+            events.publish(new ScriptingCacheClearedEvent(this));
+        }
     }
 
     protected class CubaResourceConnector implements ResourceConnector {
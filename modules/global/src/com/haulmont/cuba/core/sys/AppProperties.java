@@ -19,6 +19,7 @@ package com.haulmont.cuba.core.sys;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import com.haulmont.bali.datastruct.Pair;
+import com.haulmont.cuba.core.config.ConfigVersion;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.text.StringSubstitutor;
 
@@ -217,5 +218,6 @@ public class AppProperties {
             properties.remove(key);
         else
             properties.put(key, value);
+        ConfigVersion.increment();
     }
 }
\ No newline at end of file
@@ -17,6 +17,9 @@
 
 package com.haulmont.cuba.core.sys;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.haulmont.chile.core.datatypes.Datatype;
 import com.haulmont.chile.core.datatypes.Datatypes;
 import com.haulmont.chile.core.datatypes.impl.EnumClass;
@@ -24,21 +27,27 @@ import com.haulmont.chile.core.model.MetaClass;
 import com.haulmont.chile.core.model.MetaPropertyPath;
 import com.haulmont.cuba.core.entity.*;
 import com.haulmont.cuba.core.global.*;
+import com.haulmont.cuba.core.sys.events.ScriptingCacheClearedEvent;
 import com.haulmont.cuba.security.entity.ConstraintOperationType;
 import com.haulmont.cuba.security.entity.EntityAttrAccess;
 import com.haulmont.cuba.security.entity.EntityOp;
 import com.haulmont.cuba.security.entity.PermissionType;
 import com.haulmont.cuba.security.global.ConstraintData;
 import com.haulmont.cuba.security.global.UserSession;
+import groovy.lang.Binding;
+import groovy.lang.Script;
 import org.apache.commons.lang3.StringUtils;
+import org.codehaus.groovy.runtime.InvokerHelper;
 import org.codehaus.groovy.runtime.MethodClosure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
 import java.text.ParseException;
 import java.util.*;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -66,6 +75,19 @@ public class SecurityImpl implements Security {
     @Inject
     protected Scripting scripting;
 
+    /**
+     * Compiled constraint scripts by the script text. A changed constraint has a different text, so it is compiled
+     * again, and the outdated class is evicted eventually. The cache is cleared together with the scripting caches.
+     */
+    protected LoadingCache<String, Class<? extends Script>> constraintScriptClasses = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .build(CacheLoader.from(this::compileConstraintScript));
+
+    @EventListener(ScriptingCacheClearedEvent.class)
+    protected void clearConstraintScriptClasses() {
+        constraintScriptClasses.invalidateAll();
+    }
+
     @Override
     public boolean isScreenPermitted(String windowAlias) {
         return userSessionSource.getUserSession().isScreenPermitted(windowAlias);
@@ -153,16 +175,24 @@ public class SecurityImpl implements Security {
 
     @Override
     public boolean isPermitted(Entity entity, ConstraintOperationType targetOperationType) {
-        return isPermitted(entity,
-                constraint -> {
-                    ConstraintOperationType operationType = constraint.getOperationType();
-                    return constraint.getCheckType().memory()
-                            && (
-                            (targetOperationType == ALL && operationType != CUSTOM)
-                                    || operationType == targetOperationType
-                                    || operationType == ALL
-                    );
-                });
+        return isPermitted(entity, createOperationTypeFilter(targetOperationType));
+    }
+
+    @Override
+    public Predicate<Entity> createPermittedPredicate(MetaClass metaClass, ConstraintOperationType operationType) {
+        return createPermittedPredicate(metaClass, createOperationTypeFilter(operationType));
+    }
+
+    protected Predicate<ConstraintData> createOperationTypeFilter(ConstraintOperationType targetOperationType) {
+        return constraint -> {
+            ConstraintOperationType operationType = constraint.getOperationType();
+            return constraint.getCheckType().memory()
+                    && (
+                    (targetOperationType == ALL && operationType != CUSTOM)
+                            || operationType == targetOperationType
+                            || operationType == ALL
+            );
+        };
     }
 
     @Override
@@ -205,47 +235,100 @@ public class SecurityImpl implements Security {
     }
 
     protected boolean isPermitted(Entity entity, Predicate<ConstraintData> predicate) {
-        List<ConstraintData> constraints = getConstraints(entity.getMetaClass(), predicate);
-        for (ConstraintData constraint : constraints) {
-            if (!isPermitted(entity, constraint)) {
-                return false;
+        return createPermittedPredicate(entity.getMetaClass(), predicate).test(entity);
+    }
+
+    protected boolean isPermitted(Entity entity, ConstraintData constraint) {
+        return createConstraintPredicate(constraint).test(entity);
+    }
+
+    /**
+     * Creates a predicate checking the in-memory constraints of the meta class selected by the filter. The constraint
+     * scripts are prepared once, so the predicate is cheap to apply to many entities of the meta class.
+     * The predicate must not be shared between threads.
+     */
+    protected Predicate<Entity> createPermittedPredicate(MetaClass metaClass, Predicate<ConstraintData> filter) {
+        List<Predicate<Entity>> predicates = new ArrayList<>();
+        for (ConstraintData constraint : getConstraints(metaClass, filter)) {
+            if (constraint.getCheckType().memory() && StringUtils.isNotBlank(constraint.getGroovyScript())) {
+                predicates.add(createConstraintPredicate(constraint));
             }
         }
-        return true;
+        if (predicates.isEmpty()) {
+            return entity -> true;
+        }
+        return entity -> {
+            for (Predicate<Entity> predicate : predicates) {
+                if (!predicate.test(entity)) {
+                    return false;
+                }
+            }
+            return true;
+        };
     }
 
-    protected boolean isPermitted(Entity entity, ConstraintData constraint) {
-        String metaClassName = entity.getMetaClass().getName();
+    protected Predicate<Entity> createConstraintPredicate(ConstraintData constraint) {
         String groovyScript = constraint.getGroovyScript();
-        if (constraint.getCheckType().memory() && StringUtils.isNotBlank(groovyScript)) {
-            try {
-                Object o = evaluateConstraintScript(entity, groovyScript);
-                if (Boolean.FALSE.equals(o)) {
-                    log.trace("Entity does not match security constraint. Entity class [{}]. Entity [{}]. Constraint [{}].",
-                            metaClassName, entity.getId(), constraint.getCheckType());
+        if (!constraint.getCheckType().memory() || StringUtils.isBlank(groovyScript)) {
+            return entity -> true;
+        }
+        return new Predicate<Entity>() {
+            private Function<Entity, Object> script;
+
+            @Override
+            public boolean test(Entity entity) {
+                String metaClassName = entity.getMetaClass().getName();
+                try {
+                    if (script == null) {
+                        script = createConstraintScript(groovyScript);
+                    }
+                    Object o = script.apply(entity);
+                    if (Boolean.FALSE.equals(o)) {
+                        log.trace("Entity does not match security constraint. Entity class [{}]. Entity [{}]. Constraint [{}].",
+                                metaClassName, entity.getId(), constraint.getCheckType());
+                        return false;
+                    }
+                } catch (Exception e) {
+                    log.error("An error occurred while applying constraint's Groovy script. The entity has been filtered out." +
+                            "Entity class [{}]. Entity [{}].", metaClassName, entity.getId(), e);
                     return false;
                 }
-            } catch (Exception e) {
-                log.error("An error occurred while applying constraint's Groovy script. The entity has been filtered out." +
-                        "Entity class [{}]. Entity [{}].", metaClassName, entity.getId(), e);
-                return false;
+                return true;
             }
-        }
-        return true;
+        };
     }
 
     @Override
     public Object evaluateConstraintScript(Entity entity, String groovyScript) {
+        return createConstraintScript(groovyScript).apply(entity);
+    }
+
+    /**
+     * Returns a function evaluating the constraint script for an entity. The script is compiled once for all
+     * users and reused with a single binding by the function, so the function must not be shared between threads.
+     */
+    protected Function<Entity, Object> createConstraintScript(String groovyScript) {
         Map<String, Object> context = new HashMap<>();
-        context.put("__entity__", entity);
+        context.put("__entity__", null);
         context.put("parse", new MethodClosure(this, "parseValue"));
         context.put("userSession", userSessionSource.getUserSession());
         fillGroovyConstraintsContext(context);
-        return scripting.evaluateGroovy(groovyScript.replace("{E}", "__entity__"), context);
+
+        Binding binding = new Binding(context);
+        Script script = InvokerHelper.createScript(constraintScriptClasses.getUnchecked(groovyScript), binding);
+        return entity -> {
+            binding.setVariable("__entity__", entity);
+            return script.run();
+        };
+    }
+
+    protected Class<? extends Script> compileConstraintScript(String groovyScript) {
+        return scripting.compileGroovy(groovyScript.replace("{E}", "__entity__"));
     }
 
     /**
      * Override if you need specific context variables in Groovy constraints.
+     * The context is filled once for evaluation of a constraint over a collection of entities.
      *
      * @param context passed to Groovy evaluator
      */
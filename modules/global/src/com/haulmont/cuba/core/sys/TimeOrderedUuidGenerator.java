@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.core.sys;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates time-ordered UUIDs with the version 7 layout: 48 bits of Unix epoch milliseconds, the version,
+ * a 12-bit counter and 62 random bits.
+ * <p>
+ * The counter is kept per thread and starts from a random value in each millisecond, so identifiers created by
+ * the same thread are strictly increasing, and identifiers created by different threads within the same
+ * millisecond are still distinguished by their random bits. If the counter overflows or the system clock goes
+ * back, the timestamp of the thread is advanced by one millisecond.
+ * <p>
+ * The identifiers are ordered by their string and binary representation, which makes inserts into a primary key
+ * index sequential on databases comparing UUID columns that way (PostgreSQL, HSQLDB, and databases storing UUIDs
+ * as strings).
+ */
+public class TimeOrderedUuidGenerator {
+
+    protected static final int COUNTER_BITS = 12;
+    protected static final int MAX_COUNTER = (1 << COUNTER_BITS) - 1;
+
+    protected static final long VERSION = 0x7000L;
+    protected static final long VARIANT = 0x8000000000000000L;
+    protected static final long VARIANT_MASK = 0x3fffffffffffffffL;
+
+    protected final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    public UUID createUuid() {
+        State state = this.state.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long millis = currentTimeMillis();
+        if (millis > state.millis) {
+            state.millis = millis;
+            // leave room for increments within the same millisecond
+            state.counter = random.nextInt(MAX_COUNTER / 2 + 1);
+        } else if (state.counter < MAX_COUNTER) {
+            state.counter++;
+        } else {
+            state.millis++;
+            state.counter = 0;
+        }
+
+        long mostSigBits = (state.millis << 16) | VERSION | state.counter;
+        long leastSigBits = (random.nextLong() & VARIANT_MASK) | VARIANT;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    protected static class State {
+        protected long millis;
+        protected int counter;
+    }
+}
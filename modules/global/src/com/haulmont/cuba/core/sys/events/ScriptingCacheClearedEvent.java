@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.core.sys.events;
+
+import com.haulmont.cuba.core.global.Scripting;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published after {@link Scripting#clearCache()}. Beans keeping classes compiled by {@link Scripting} should
+ * drop them, so that changed scripts and classes are compiled again.
+ */
+public class ScriptingCacheClearedEvent extends ApplicationEvent {
+
+    public ScriptingCacheClearedEvent(Scripting source) {
+        super(source);
+    }
+
+    @Override
+    public Scripting getSource() {
+        return (Scripting) super.getSource();
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.core.sys.serialization;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.haulmont.chile.core.model.MetaClass;
+import com.haulmont.chile.core.model.MetaProperty;
+import com.haulmont.chile.core.model.impl.MetaClassImpl;
+import com.haulmont.chile.core.model.impl.MetaPropertyImpl;
+import com.haulmont.cuba.core.entity.BaseEntityInternalAccess;
+import com.haulmont.cuba.core.entity.BaseGenericIdEntity;
+import com.haulmont.cuba.core.entity.IdProxy;
+import com.haulmont.cuba.core.entity.SecurityState;
+import com.haulmont.cuba.core.global.*;
+import com.haulmont.cuba.core.sys.AppContext;
+import com.haulmont.cuba.core.sys.remoting.CubaRemoteInvocation;
+import org.apache.commons.io.IOUtils;
+import org.springframework.remoting.support.RemoteInvocation;
+import org.springframework.remoting.support.RemoteInvocationResult;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Kryo serialization profile producing compact streams for remoting and cluster messages.
+ * <p>
+ * In addition to {@link KryoSerialization}, it registers common JDK and platform types, all metadata classes and
+ * enums used by entity attributes with stable identifiers, so class references are written as small integers instead
+ * of fully qualified names. Identifiers of metadata classes are assigned in the order of class names.
+ * {@code MetaClass} and {@code MetaProperty} instances are written by name instead of Java serialization.
+ * <p>
+ * Each stream starts with a header containing the format version and a fingerprint of the registered classes.
+ * The fingerprint is checked on reading, so nodes with different metadata fail with a clear error instead of
+ * reading wrong classes. Streams without the header are read as written by {@link KryoSerialization}.
+ * All application blocks exchanging serialized objects should use the same implementation, see the
+ * {@code cuba.serialization.impl} application property.
+ */
+public class CompactKryoSerialization extends KryoSerialization {
+
+    protected static final byte[] HEADER = {(byte) 0xCB, 'C', 'K'};
+    protected static final byte FORMAT_VERSION = 1;
+
+    /**
+     * Registration identifiers below this value are left to the types registered by {@link KryoSerialization}.
+     */
+    protected static final int FIRST_REGISTRATION_ID = 200;
+
+    protected static final Class[] COMMON_CLASSES = {
+            Object[].class, byte[].class, String[].class,
+            ArrayList.class, LinkedList.class, HashMap.class, LinkedHashMap.class, TreeMap.class,
+            HashSet.class, LinkedHashSet.class, TreeSet.class,
+            Date.class, java.sql.Date.class, java.sql.Time.class, java.sql.Timestamp.class,
+            UUID.class, BigDecimal.class, BigInteger.class, Locale.class, Class.class,
+            RemoteInvocation.class, CubaRemoteInvocation.class, RemoteInvocationResult.class,
+            LoadContext.class, LoadContext.Query.class, ValueLoadContext.class, ValueLoadContext.Query.class,
+            CommitContext.class, View.class, ViewProperty.class, IdProxy.class, SecurityState.class
+    };
+
+    protected volatile Registrations registrations;
+
+    protected final ThreadLocal<Kryo> compactKryos = new ThreadLocal<>();
+    protected final ThreadLocal<Kryo> legacyKryos = ThreadLocal.withInitial(this::newLegacyKryoInstance);
+
+    public CompactKryoSerialization() {
+    }
+
+    public CompactKryoSerialization(boolean onlySerializable) {
+        super(onlySerializable);
+    }
+
+    @Override
+    protected Kryo newKryoInstance() {
+        Kryo kryo = super.newKryoInstance();
+
+        kryo.register(MetaClassImpl.class, new MetaClassSerializer());
+        kryo.register(MetaPropertyImpl.class, new MetaPropertySerializer());
+
+        int id = FIRST_REGISTRATION_ID;
+        for (Class aClass : getRegistrations().classes) {
+            kryo.register(aClass, id++);
+        }
+        return kryo;
+    }
+
+    protected Kryo newLegacyKryoInstance() {
+        return super.newKryoInstance();
+    }
+
+    /**
+     * @return Kryo instance of the current thread. An instance created before metadata is available is not reused.
+     */
+    protected Kryo getKryo() {
+        Kryo kryo = compactKryos.get();
+        if (kryo == null) {
+            kryo = newKryoInstance();
+            if (getRegistrations().complete) {
+                compactKryos.set(kryo);
+            }
+        }
+        return kryo;
+    }
+
+    protected Registrations getRegistrations() {
+        Registrations current = registrations;
+        if (current == null) {
+            current = createRegistrations();
+            if (current.complete) {
+                registrations = current;
+            }
+        }
+        return current;
+    }
+
+    protected Registrations createRegistrations() {
+        List<Class> classes = new ArrayList<>(Arrays.asList(COMMON_CLASSES));
+        boolean complete = AppContext.getApplicationContext() != null;
+        if (complete) {
+            Map<String, Class> entityClasses = new TreeMap<>();
+            Map<String, Class> enumClasses = new TreeMap<>();
+
+            Metadata metadata = AppBeans.get(Metadata.NAME);
+            for (MetaClass metaClass : metadata.getSession().getClasses()) {
+                entityClasses.put(metaClass.getJavaClass().getName(), metaClass.getJavaClass());
+                for (MetaProperty property : metaClass.getOwnProperties()) {
+                    if (property.getRange().isEnum() && property.getJavaType().isEnum()) {
+                        enumClasses.put(property.getJavaType().getName(), property.getJavaType());
+                    }
+                }
+            }
+            classes.addAll(entityClasses.values());
+            classes.addAll(enumClasses.values());
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (Class aClass : classes) {
+            sb.append(aClass.getName()).append(';');
+        }
+        return new Registrations(classes, sb.toString().hashCode(), complete);
+    }
+
+    @Override
+    public void serialize(Object object, OutputStream os) {
+        try (Output output = new CubaOutput(os)) {
+            if (object instanceof BaseGenericIdEntity
+                    && BaseEntityInternalAccess.isManaged((BaseGenericIdEntity) object)) {
+                BaseEntityInternalAccess.setDetached((BaseGenericIdEntity) object, true);
+            }
+            Kryo kryo = getKryo();
+            output.writeBytes(HEADER);
+            output.writeByte(FORMAT_VERSION);
+            output.writeInt(getRegistrations().fingerprint);
+            kryo.writeClassAndObject(output, object);
+        }
+    }
+
+    @Override
+    public Object deserialize(InputStream is) {
+        InputStream stream = is.markSupported() ? is : new BufferedInputStream(is);
+        byte[] header = new byte[HEADER.length];
+        try {
+            stream.mark(HEADER.length);
+            int read = IOUtils.read(stream, header);
+            if (read < HEADER.length || !Arrays.equals(header, HEADER)) {
+                stream.reset();
+                try (Input input = new Input(stream)) {
+                    return legacyKryos.get().readClassAndObject(input);
+                }
+            }
+        } catch (IOException e) {
+            throw new KryoException("Error reading serialization header", e);
+        }
+
+        try (Input input = new Input(stream)) {
+            byte version = input.readByte();
+            int fingerprint = input.readInt();
+            Kryo kryo = getKryo();
+            if (version != FORMAT_VERSION || fingerprint != getRegistrations().fingerprint) {
+                throw new KryoException(String.format("Incompatible serialization format: version %d, fingerprint %d. " +
+                                "Expected version %d, fingerprint %d. Make sure all application blocks have the same metadata.",
+                        version, fingerprint, FORMAT_VERSION, getRegistrations().fingerprint));
+            }
+            return kryo.readClassAndObject(input);
+        }
+    }
+
+    @Override
+    public Object copy(Object object) {
+        if (object == null) {
+            return null;
+        }
+        return getKryo().copy(object);
+    }
+
+    protected static class Registrations {
+        protected final List<Class> classes;
+        protected final int fingerprint;
+        protected final boolean complete;
+
+        protected Registrations(List<Class> classes, int fingerprint, boolean complete) {
+            this.classes = classes;
+            this.fingerprint = fingerprint;
+            this.complete = complete;
+        }
+    }
+
+    public static class MetaClassSerializer extends Serializer<MetaClass> {
+
+        public MetaClassSerializer() {
+            super(false, true);
+        }
+
+        @Override
+        public void write(Kryo kryo, Output output, MetaClass metaClass) {
+            output.writeString(metaClass.getName());
+        }
+
+        @Override
+        public MetaClass read(Kryo kryo, Input input, Class<MetaClass> type) {
+            Metadata metadata = AppBeans.get(Metadata.NAME);
+            return metadata.getSession().getClassNN(input.readString());
+        }
+    }
+
+    public static class MetaPropertySerializer extends Serializer<MetaProperty> {
+
+        public MetaPropertySerializer() {
+            super(false, true);
+        }
+
+        @Override
+        public void write(Kryo kryo, Output output, MetaProperty metaProperty) {
+            output.writeString(metaProperty.getDomain().getName());
+            output.writeString(metaProperty.getName());
+        }
+
+        @Override
+        public MetaProperty read(Kryo kryo, Input input, Class<MetaProperty> type) {
+            Metadata metadata = AppBeans.get(Metadata.NAME);
+            MetaClass metaClass = metadata.getSession().getClassNN(input.readString());
+            return metaClass.getPropertyNN(input.readString());
+        }
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.core.sys.servlet;
+
+import com.haulmont.cuba.core.entity.FileDescriptor;
+import com.haulmont.cuba.core.global.FileTypesHelper;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes file content to an HTTP response honoring conditional ({@code If-None-Match}, {@code If-Modified-Since},
+ * {@code If-Range}) and partial ({@code Range}) requests.
+ * <p>
+ * Usage:
+ * <pre>
+ * RangeDownload download = new RangeDownload(request, response, eTag, lastModified, length);
+ * if (download.handleConditionalRequest())
+ *     return;
+ * download.write(inputStream);
+ * </pre>
+ * Byte ranges requested by a client are sorted and coalesced, so the content source is always read forward only.
+ */
+public class RangeDownload {
+
+    public static final String BYTES_UNIT = "bytes";
+
+    protected static final String CRLF = "\r\n";
+
+    protected final HttpServletRequest request;
+    protected final HttpServletResponse response;
+    protected final String eTag;
+    protected final long lastModified;
+    protected final long length;
+
+    protected List<ByteRange> ranges;
+
+    /**
+     * @param request      HTTP request
+     * @param response     HTTP response
+     * @param eTag         strong entity tag of the content, including quotes, or null if unknown
+     * @param lastModified last modification time of the content in milliseconds, or -1 if unknown
+     * @param length       actual length of the content in bytes, or -1 if unknown. Range requests are ignored if
+     *                     the length is unknown. Pass a length only if it is taken from the content itself, since
+     *                     it is sent as {@code Content-Length}.
+     */
+    public RangeDownload(HttpServletRequest request, HttpServletResponse response,
+                         @Nullable String eTag, long lastModified, long length) {
+        this.request = request;
+        this.response = response;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+        this.length = length;
+    }
+
+    /**
+     * Builds a strong entity tag from the file descriptor identifier, size and creation date.
+     */
+    public static String getETag(FileDescriptor fd) {
+        Long size = fd.getSize();
+        long createTs = fd.getCreateDate() != null ? fd.getCreateDate().getTime() : 0;
+        return "\"" + fd.getId() + "-" + (size != null ? size : -1) + "-" + createTs + "\"";
+    }
+
+    /**
+     * Sets the validator headers and sends a response if no content should be transferred.
+     *
+     * @return true if the response has been completed ({@code 304 Not Modified} or
+     * {@code 416 Range Not Satisfiable}) and the content must not be written
+     */
+    public boolean handleConditionalRequest() {
+        if (eTag != null)
+            response.setHeader("ETag", eTag);
+        if (lastModified >= 0)
+            response.setDateHeader("Last-Modified", lastModified);
+        response.setHeader("Accept-Ranges", length >= 0 ? BYTES_UNIT : "none");
+
+        if (isNotModified()) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+
+        if (length >= 0 && isRangeApplicable()) {
+            ranges = parseRanges(request.getHeader("Range"), length);
+            if (ranges != null && ranges.isEmpty()) {
+                response.setHeader("Content-Range", BYTES_UNIT + " */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the requested content from the stream. The stream is positioned at the beginning of the content and
+     * is not closed by this method.
+     */
+    public void write(InputStream is) throws IOException {
+        OutputStream os = response.getOutputStream();
+        if (ranges == null) {
+            if (length >= 0)
+                setContentLength(length);
+            IOUtils.copyLarge(is, os);
+        } else {
+            long position = 0;
+            byte[][] partHeaders = prepareRanges();
+            for (int i = 0; i < ranges.size(); i++) {
+                ByteRange range = ranges.get(i);
+                if (partHeaders != null)
+                    os.write(partHeaders[i]);
+                long copied = IOUtils.copyLarge(is, os, range.getStart() - position, range.getLength());
+                if (copied < range.getLength())
+                    throw new EOFException("Unexpected end of content at " + (range.getStart() + copied));
+                position = range.getEnd() + 1;
+            }
+            if (partHeaders != null)
+                os.write(partHeaders[ranges.size()]);
+        }
+        os.flush();
+    }
+
+    /**
+     * Writes the requested content from the file channel using {@link FileChannel#transferTo}, which lets the
+     * operating system copy file data without passing it through intermediate buffers where possible.
+     * The channel is not closed by this method.
+     */
+    public void write(FileChannel channel) throws IOException {
+        OutputStream os = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(os);
+        if (ranges == null) {
+            long size = channel.size();
+            setContentLength(size);
+            transfer(channel, 0, size, target);
+        } else {
+            byte[][] partHeaders = prepareRanges();
+            for (int i = 0; i < ranges.size(); i++) {
+                ByteRange range = ranges.get(i);
+                if (partHeaders != null)
+                    os.write(partHeaders[i]);
+                transfer(channel, range.getStart(), range.getLength(), target);
+            }
+            if (partHeaders != null)
+                os.write(partHeaders[ranges.size()]);
+        }
+        os.flush();
+    }
+
+    /**
+     * Parses the value of the {@code Range} header.
+     *
+     * @param header value of the header
+     * @param length length of the content
+     * @return null if the header is absent or malformed and the whole content should be sent,
+     * empty list if no range can be satisfied, otherwise sorted and coalesced list of ranges
+     */
+    @Nullable
+    public static List<ByteRange> parseRanges(@Nullable String header, long length) {
+        if (header == null)
+            return null;
+        header = header.trim();
+        if (!StringUtils.startsWithIgnoreCase(header, BYTES_UNIT + "="))
+            return null;
+
+        List<ByteRange> result = new ArrayList<>();
+        for (String spec : header.substring(BYTES_UNIT.length() + 1).split(",")) {
+            spec = spec.trim();
+            if (spec.isEmpty())
+                continue;
+            int dash = spec.indexOf('-');
+            if (dash < 0)
+                return null;
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            try {
+                if (first.isEmpty()) {
+                    long suffix = Long.parseLong(last);
+                    if (suffix < 0)
+                        return null;
+                    if (suffix == 0)
+                        continue;
+                    start = Math.max(0, length - suffix);
+                    end = length - 1;
+                } else {
+                    start = Long.parseLong(first);
+                    end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+                    if (start < 0 || (!last.isEmpty() && Long.parseLong(last) < start))
+                        return null;
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (start < length)
+                result.add(new ByteRange(start, end));
+        }
+        return coalesce(result);
+    }
+
+    protected static List<ByteRange> coalesce(List<ByteRange> ranges) {
+        if (ranges.size() < 2)
+            return ranges;
+
+        ranges.sort(Comparator.comparingLong(ByteRange::getStart));
+        List<ByteRange> result = new ArrayList<>(ranges.size());
+        ByteRange current = ranges.get(0);
+        for (int i = 1; i < ranges.size(); i++) {
+            ByteRange next = ranges.get(i);
+            if (next.getStart() <= current.getEnd() + 1) {
+                current = new ByteRange(current.getStart(), Math.max(current.getEnd(), next.getEnd()));
+            } else {
+                result.add(current);
+                current = next;
+            }
+        }
+        result.add(current);
+        return result;
+    }
+
+    protected boolean isNotModified() {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return eTag != null && matchesETag(ifNoneMatch);
+        }
+        if (lastModified >= 0) {
+            long ifModifiedSince = getDateHeader("If-Modified-Since");
+            return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+        }
+        return false;
+    }
+
+    protected boolean isRangeApplicable() {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null)
+            return true;
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/"))
+            return ifRange.equals(eTag);
+        long ifRangeDate = getDateHeader("If-Range");
+        return ifRangeDate >= 0 && lastModified >= 0 && lastModified / 1000 == ifRangeDate / 1000;
+    }
+
+    protected boolean matchesETag(String header) {
+        for (String tag : header.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*"))
+                return true;
+            // weak comparison is used for If-None-Match
+            if (tag.startsWith("W/"))
+                tag = tag.substring(2);
+            if (tag.equals(eTag))
+                return true;
+        }
+        return false;
+    }
+
+    protected long getDateHeader(String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Sets status and headers of a partial response.
+     *
+     * @return headers of the parts followed by the closing boundary for a multipart response, null for a single range
+     */
+    @Nullable
+    protected byte[][] prepareRanges() {
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            response.setHeader("Content-Range", getContentRange(range));
+            setContentLength(range.getLength());
+            return null;
+        }
+
+        String contentType = response.getContentType();
+        if (contentType == null)
+            contentType = FileTypesHelper.DEFAULT_MIME_TYPE;
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+
+        byte[][] partHeaders = new byte[ranges.size() + 1][];
+        long contentLength = 0;
+        for (int i = 0; i < ranges.size(); i++) {
+            ByteRange range = ranges.get(i);
+            String partHeader = CRLF + "--" + boundary + CRLF
+                    + "Content-Type: " + contentType + CRLF
+                    + "Content-Range: " + getContentRange(range) + CRLF
+                    + CRLF;
+            partHeaders[i] = partHeader.getBytes(StandardCharsets.ISO_8859_1);
+            contentLength += partHeaders[i].length + range.getLength();
+        }
+        partHeaders[ranges.size()] = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.ISO_8859_1);
+        contentLength += partHeaders[ranges.size()].length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        setContentLength(contentLength);
+        return partHeaders;
+    }
+
+    protected String getContentRange(ByteRange range) {
+        return BYTES_UNIT + " " + range.getStart() + "-" + range.getEnd() + "/" + length;
+    }
+
+    protected void setContentLength(long contentLength) {
+        response.setHeader("Content-Length", String.valueOf(contentLength));
+    }
+
+    protected void transfer(FileChannel channel, long position, long count, WritableByteChannel target)
+            throws IOException {
+        while (count > 0) {
+            long transferred = channel.transferTo(position, count, target);
+            if (transferred <= 0)
+                throw new EOFException("Unexpected end of file at " + position);
+            position += transferred;
+            count -= transferred;
+        }
+    }
+
+    /**
+     * Inclusive range of bytes.
+     */
+    public static class ByteRange {
+        private final long start;
+        private final long end;
+
+        public ByteRange(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public long getLength() {
+            return end - start + 1;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ByteRange that = (ByteRange) o;
+            return start == that.start && end == that.end;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(start) + Long.hashCode(end);
+        }
+
+        @Override
+        public String toString() {
+            return start + "-" + end;
+        }
+    }
+}
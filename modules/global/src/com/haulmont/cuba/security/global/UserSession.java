@@ -26,6 +26,7 @@ import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -58,12 +59,48 @@ public class UserSession implements Serializable {
 
     protected transient Map<String, Object> localAttributes;
 
+    /**
+     * Entity permissions compiled from {@link #permissions} and role types, by entity name.
+     * Built on first check of an entity and dropped when permissions change.
+     */
+    protected transient ConcurrentMap<String, EntityPermissions> entityPermissions;
+
+    /**
+     * Effective entity operation and attribute permissions of an entity, with role type defaults applied.
+     */
+    protected static class EntityPermissions {
+
+        /**
+         * Means that there is no permission for a target, so any value is permitted.
+         */
+        protected static final int NOT_SET = Integer.MIN_VALUE;
+
+        protected final int[] operations;
+        protected final Map<String, Integer> attributes;
+
+        protected EntityPermissions(int[] operations, Map<String, Integer> attributes) {
+            this.operations = operations;
+            this.attributes = attributes;
+        }
+
+        protected boolean isOperationPermitted(EntityOp entityOp) {
+            int v = operations[entityOp.ordinal()];
+            return v == NOT_SET || v >= 1;
+        }
+
+        protected boolean isAttributePermitted(String property, int value) {
+            Integer v = attributes.get(property);
+            return v == null || v >= value;
+        }
+    }
+
     /**
      * INTERNAL
      * Used only for kryo serialization
      */
     public UserSession() {
         localAttributes = new ConcurrentHashMap<>();
+        entityPermissions = new ConcurrentHashMap<>();
     }
 
     /**
@@ -93,6 +130,7 @@ public class UserSession implements Serializable {
         constraints = new HashMap<>();
         attributes = new ConcurrentHashMap<>();
         localAttributes = new ConcurrentHashMap<>();
+        entityPermissions = new ConcurrentHashMap<>();
     }
 
     /**
@@ -116,6 +154,8 @@ public class UserSession implements Serializable {
         locale = src.locale;
         timeZone = src.timeZone;
         permissions = src.permissions;
+        // shared together with permissions, so changes made through any of the sessions invalidate it
+        entityPermissions = src.entityPermissions != null ? src.entityPermissions : new ConcurrentHashMap<>();
         constraints = src.constraints;
         attributes = src.attributes;
         roleTypes = src.roleTypes;
@@ -127,6 +167,7 @@ public class UserSession implements Serializable {
     private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
         stream.defaultReadObject();
         localAttributes = new ConcurrentHashMap<>();
+        entityPermissions = new ConcurrentHashMap<>();
     }
 
     /**
@@ -264,6 +305,7 @@ public class UserSession implements Serializable {
             permissions[type.ordinal()].put(target, value);
             if (extTarget != null)
                 permissions[type.ordinal()].put(extTarget, value);
+            invalidateEntityPermissions(type);
         }
     }
 
@@ -272,6 +314,7 @@ public class UserSession implements Serializable {
      */
     public void removePermission(PermissionType type, String target) {
         permissions[type.ordinal()].remove(target);
+        invalidateEntityPermissions(type);
     }
 
     /**
@@ -299,17 +342,55 @@ public class UserSession implements Serializable {
      * Check user permission for the entity operation
      */
     public boolean isEntityOpPermitted(MetaClass metaClass, EntityOp entityOp) {
-        return isPermitted(PermissionType.ENTITY_OP,
-                metaClass.getName() + Permission.TARGET_PATH_DELIMETER + entityOp.getId());
+        if (roleTypes.contains(RoleType.SUPER))
+            return true;
+        return getEntityPermissions(metaClass.getName()).isOperationPermitted(entityOp);
     }
 
     /**
      * Check user permission for the entity attribute
      */
     public boolean isEntityAttrPermitted(MetaClass metaClass, String property, EntityAttrAccess access) {
-        return isPermitted(PermissionType.ENTITY_ATTR,
-                metaClass.getName() + Permission.TARGET_PATH_DELIMETER + property,
-                access.getId());
+        if (roleTypes.contains(RoleType.SUPER))
+            return true;
+        return getEntityPermissions(metaClass.getName()).isAttributePermitted(property, access.getId());
+    }
+
+    protected EntityPermissions getEntityPermissions(String entityName) {
+        if (entityPermissions == null) {
+            // a subclass instance created by a deserializer bypassing constructors and readObject()
+            entityPermissions = new ConcurrentHashMap<>();
+        }
+        return entityPermissions.computeIfAbsent(entityName, this::compileEntityPermissions);
+    }
+
+    protected EntityPermissions compileEntityPermissions(String entityName) {
+        EntityOp[] entityOps = EntityOp.values();
+        int[] operations = new int[entityOps.length];
+        for (EntityOp entityOp : entityOps) {
+            Integer v = getEffectivePermissionValue(PermissionType.ENTITY_OP,
+                    entityName + Permission.TARGET_PATH_DELIMETER + entityOp.getId());
+            operations[entityOp.ordinal()] = v == null ? EntityPermissions.NOT_SET : v;
+        }
+
+        Map<String, Integer> attributes = new HashMap<>();
+        String prefix = entityName + Permission.TARGET_PATH_DELIMETER;
+        for (String target : permissions[PermissionType.ENTITY_ATTR.ordinal()].keySet()) {
+            if (target.startsWith(prefix)) {
+                String property = target.substring(prefix.length());
+                Integer v = getEffectivePermissionValue(PermissionType.ENTITY_ATTR, target);
+                if (v != null)
+                    attributes.put(property, v);
+            }
+        }
+        return new EntityPermissions(operations, attributes);
+    }
+
+    protected void invalidateEntityPermissions(PermissionType type) {
+        if (entityPermissions != null
+                && (type == PermissionType.ENTITY_OP || type == PermissionType.ENTITY_ATTR)) {
+            entityPermissions.clear();
+        }
     }
 
     /**
@@ -356,6 +437,13 @@ public class UserSession implements Serializable {
         // If we have super-role no need to check anything
         if (roleTypes.contains(RoleType.SUPER))
             return true;
+        Integer v = getEffectivePermissionValue(type, target);
+        // Return true if no value set for this target, or if the value is more than requested
+        return v == null || v >= value;
+    }
+
+    @Nullable
+    protected Integer getEffectivePermissionValue(PermissionType type, String target) {
         // Get permission value assigned by the set of permissions
         Integer v = permissions[type.ordinal()].get(target);
         // Get permission value assigned by non-standard roles
@@ -365,8 +453,7 @@ public class UserSession implements Serializable {
                 v = v1;
             }
         }
-        // Return true if no value set for this target, or if the value is more than requested
-        return v == null || v >= value;
+        return v;
     }
 
     /**
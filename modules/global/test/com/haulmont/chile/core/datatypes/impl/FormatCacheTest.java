@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.chile.core.datatypes.impl;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class FormatCacheTest {
+
+    @Test
+    public void testDecimalFormatIsNotShared() {
+        DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.ENGLISH);
+
+        DecimalFormat format1 = FormatCache.getDecimalFormat("#,##0.00", symbols);
+        format1.setParseBigDecimal(true);
+        format1.setParseIntegerOnly(true);
+
+        DecimalFormat format2 = FormatCache.getDecimalFormat("#,##0.00", symbols);
+        assertNotSame(format1, format2);
+        assertFalse(format2.isParseBigDecimal());
+        assertFalse(format2.isParseIntegerOnly());
+        assertEquals("1,234.50", format2.format(new BigDecimal("1234.5")));
+    }
+
+    @Test
+    public void testChangedSymbols() {
+        DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.ENGLISH);
+        assertEquals("1,234.50", FormatCache.getDecimalFormat("#,##0.00", symbols).format(1234.5));
+
+        symbols.setDecimalSeparator(',');
+        symbols.setGroupingSeparator(' ');
+        assertEquals("1 234,50", FormatCache.getDecimalFormat("#,##0.00", symbols).format(1234.5));
+
+        assertEquals("1,234.50",
+                FormatCache.getDecimalFormat("#,##0.00", new DecimalFormatSymbols(Locale.ENGLISH)).format(1234.5));
+    }
+
+    @Test
+    public void testSimpleDateFormatUsesDefaultTimeZone() {
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("GMT"));
+            SimpleDateFormat format1 = FormatCache.getSimpleDateFormat("dd/MM/yyyy HH:mm");
+
+            TimeZone.setDefault(TimeZone.getTimeZone("GMT+3"));
+            SimpleDateFormat format2 = FormatCache.getSimpleDateFormat("dd/MM/yyyy HH:mm");
+
+            assertNotSame(format1, format2);
+            assertEquals(TimeZone.getTimeZone("GMT+3"), format2.getTimeZone());
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
+
+    @Test
+    public void testDateTimeFormatterIsShared() {
+        assertSame(FormatCache.getDateTimeFormatter("dd.MM.yyyy", Locale.GERMAN),
+                FormatCache.getDateTimeFormatter("dd.MM.yyyy", Locale.GERMAN));
+        assertNotSame(FormatCache.getDateTimeFormatter("dd.MM.yyyy", Locale.GERMAN),
+                FormatCache.getDateTimeFormatter("dd.MM.yyyy", Locale.FRENCH));
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.core.sys;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    public void testLayout() {
+        long before = System.currentTimeMillis();
+        UUID uuid = new TimeOrderedUuidGenerator().createUuid();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+
+        long millis = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= after + 1);
+    }
+
+    @Test
+    public void testMonotonic() {
+        TimeOrderedUuidGenerator generator = new TimeOrderedUuidGenerator();
+
+        String prev = generator.createUuid().toString();
+        for (int i = 0; i < 100_000; i++) {
+            String next = generator.createUuid().toString();
+            assertTrue(prev + " < " + next, prev.compareTo(next) < 0);
+            prev = next;
+        }
+    }
+
+    @Test
+    public void testFrozenClock() {
+        TimeOrderedUuidGenerator generator = new TimeOrderedUuidGenerator() {
+            @Override
+            protected long currentTimeMillis() {
+                return 1000;
+            }
+        };
+
+        UUID prev = generator.createUuid();
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = generator.createUuid();
+            assertTrue(Long.compareUnsigned(prev.getMostSignificantBits(), next.getMostSignificantBits()) < 0);
+            prev = next;
+        }
+        // the counter overflowed and the timestamp was advanced
+        assertTrue((prev.getMostSignificantBits() >>> 16) > 1000);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.core.sys.servlet;
+
+import com.haulmont.cuba.core.sys.servlet.RangeDownload.ByteRange;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RangeDownloadTest {
+
+    @Test
+    public void testParseSingleRange() {
+        assertEquals(Collections.singletonList(new ByteRange(0, 99)), RangeDownload.parseRanges("bytes=0-99", 1000));
+        assertEquals(Collections.singletonList(new ByteRange(500, 999)), RangeDownload.parseRanges("bytes=500-", 1000));
+        assertEquals(Collections.singletonList(new ByteRange(900, 999)), RangeDownload.parseRanges("bytes=-100", 1000));
+        assertEquals(Collections.singletonList(new ByteRange(0, 999)), RangeDownload.parseRanges("bytes=-5000", 1000));
+        assertEquals(Collections.singletonList(new ByteRange(990, 999)), RangeDownload.parseRanges("bytes=990-5000", 1000));
+    }
+
+    @Test
+    public void testParseMultipleRanges() {
+        List<ByteRange> ranges = RangeDownload.parseRanges("bytes=500-599, 0-99, 1000-", 1200);
+        assertEquals(Arrays.asList(new ByteRange(0, 99), new ByteRange(500, 599), new ByteRange(1000, 1199)), ranges);
+
+        // overlapping and adjacent ranges are coalesced
+        ranges = RangeDownload.parseRanges("bytes=0-99,50-149,150-199,300-", 400);
+        assertEquals(Arrays.asList(new ByteRange(0, 199), new ByteRange(300, 399)), ranges);
+    }
+
+    @Test
+    public void testParseInvalidRanges() {
+        assertNull(RangeDownload.parseRanges(null, 1000));
+        assertNull(RangeDownload.parseRanges("items=0-1", 1000));
+        assertNull(RangeDownload.parseRanges("bytes=abc", 1000));
+        assertNull(RangeDownload.parseRanges("bytes=10-5", 1000));
+
+        List<ByteRange> ranges = RangeDownload.parseRanges("bytes=1000-1100", 1000);
+        assertNotNull(ranges);
+        assertTrue(ranges.isEmpty());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.haulmont.cuba.security.global;
+
+import com.haulmont.chile.core.model.MetaClass;
+import com.haulmont.chile.core.model.impl.MetaClassImpl;
+import com.haulmont.chile.core.model.impl.MetaModelImpl;
+import com.haulmont.chile.core.model.impl.SessionImpl;
+import com.haulmont.cuba.security.entity.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class UserSessionPermissionTest {
+
+    private MetaClass metaClass;
+    private User user;
+
+    @Before
+    public void setUp() {
+        MetaModelImpl model = new MetaModelImpl(new SessionImpl(), "test");
+        metaClass = new MetaClassImpl(model, "test$Customer");
+
+        user = new User();
+        user.setLogin("user");
+    }
+
+    @Test
+    public void testEntityPermissions() {
+        UserSession session = createSession(RoleType.STANDARD);
+
+        assertTrue(session.isEntityOpPermitted(metaClass, EntityOp.DELETE));
+        assertTrue(session.isEntityAttrPermitted(metaClass, "name", EntityAttrAccess.MODIFY));
+
+        session.addPermission(PermissionType.ENTITY_OP, "test$Customer:delete", null, 0);
+        session.addPermission(PermissionType.ENTITY_ATTR, "test$Customer:name", null, EntityAttrAccess.VIEW.getId());
+
+        assertFalse(session.isEntityOpPermitted(metaClass, EntityOp.DELETE));
+        assertTrue(session.isEntityOpPermitted(metaClass, EntityOp.READ));
+        assertTrue(session.isEntityAttrPermitted(metaClass, "name", EntityAttrAccess.VIEW));
+        assertFalse(session.isEntityAttrPermitted(metaClass, "name", EntityAttrAccess.MODIFY));
+        assertTrue(session.isEntityAttrPermitted(metaClass, "code", EntityAttrAccess.MODIFY));
+
+        session.removePermission(PermissionType.ENTITY_OP, "test$Customer:delete");
+        session.removePermission(PermissionType.ENTITY_ATTR, "test$Customer:name");
+
+        assertTrue(session.isEntityOpPermitted(metaClass, EntityOp.DELETE));
+        assertTrue(session.isEntityAttrPermitted(metaClass, "name", EntityAttrAccess.MODIFY));
+    }
+
+    @Test
+    public void testRoleTypeDefaults() {
+        UserSession session = createSession(RoleType.READONLY);
+
+        assertTrue(session.isEntityOpPermitted(metaClass, EntityOp.READ));
+        assertFalse(session.isEntityOpPermitted(metaClass, EntityOp.CREATE));
+        assertFalse(session.isEntityOpPermitted(metaClass, EntityOp.UPDATE));
+
+        // explicit permission of another role wins over the role type default
+        session.addPermission(PermissionType.ENTITY_OP, "test$Customer:update", null, 1);
+        assertTrue(session.isEntityOpPermitted(metaClass, EntityOp.UPDATE));
+
+        session = createSession(RoleType.DENYING);
+        assertFalse(session.isEntityOpPermitted(metaClass, EntityOp.READ));
+        assertTrue(session.isEntityAttrPermitted(metaClass, "name", EntityAttrAccess.MODIFY));
+
+        session = createSession(RoleType.SUPER);
+        session.addPermission(PermissionType.ENTITY_OP, "test$Customer:delete", null, 0);
+        assertTrue(session.isEntityOpPermitted(metaClass, EntityOp.DELETE));
+    }
+
+    @Test
+    public void testCopiedSessionSharesPermissions() {
+        UserSession session = createSession(RoleType.STANDARD);
+        assertTrue(session.isEntityOpPermitted(metaClass, EntityOp.DELETE));
+
+        UserSession copy = new UserSession(session);
+        copy.addPermission(PermissionType.ENTITY_OP, "test$Customer:delete", null, 0);
+
+        assertFalse(copy.isEntityOpPermitted(metaClass, EntityOp.DELETE));
+        assertFalse(session.isEntityOpPermitted(metaClass, EntityOp.DELETE));
+    }
+
+    private UserSession createSession(RoleType roleType) {
+        Role role = new Role();
+        role.setName("role");
+        role.setType(roleType);
+        return new UserSession(UUID.randomUUID(), user, Collections.singletonList(role), Locale.ENGLISH, false);
+    }
+}
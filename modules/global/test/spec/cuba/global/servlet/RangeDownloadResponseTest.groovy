@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package spec.cuba.global.servlet
+
+import com.haulmont.cuba.core.sys.servlet.RangeDownload
+import spock.lang.Specification
+
+import javax.servlet.ServletOutputStream
+import javax.servlet.WriteListener
+import javax.servlet.http.HttpServletRequest
+import javax.servlet.http.HttpServletResponse
+import java.nio.charset.StandardCharsets
+import java.time.Instant
+import java.time.ZoneOffset
+import java.time.ZonedDateTime
+import java.time.format.DateTimeFormatter
+import java.time.format.DateTimeParseException
+
+class RangeDownloadResponseTest extends Specification {
+
+    static final String ETAG = '"file-100-1500000000000"'
+    static final long LAST_MODIFIED = 1500000000000L
+    static final byte[] CONTENT = (0..<100).collect { it as byte } as byte[]
+
+    Map<String, String> requestHeaders = [:]
+    Map<String, String> responseHeaders = [:]
+    int status = HttpServletResponse.SC_OK
+    String contentType = 'application/octet-stream'
+    ByteArrayOutputStream body = new ByteArrayOutputStream()
+
+    HttpServletRequest request
+    HttpServletResponse response
+
+    void setup() {
+        request = Stub(HttpServletRequest) {
+            getHeader(_) >> { String name -> requestHeaders[name] }
+            getDateHeader(_) >> { String name -> parseDate(requestHeaders[name]) }
+        }
+        response = Stub(HttpServletResponse) {
+            setHeader(_, _) >> { String name, String value -> responseHeaders[name] = value }
+            setDateHeader(_, _) >> { String name, long value -> responseHeaders[name] = formatDate(value) }
+            setStatus(_) >> { int value -> status = value }
+            getContentType() >> { contentType }
+            setContentType(_) >> { String value -> contentType = value }
+            getOutputStream() >> new TestServletOutputStream(body)
+        }
+    }
+
+    def "whole content is sent with validators"() {
+        when:
+        def completed = download(CONTENT.length)
+
+        then:
+        !completed
+        status == HttpServletResponse.SC_OK
+        responseHeaders['ETag'] == ETAG
+        responseHeaders['Last-Modified'] == formatDate(LAST_MODIFIED)
+        responseHeaders['Accept-Ranges'] == 'bytes'
+        responseHeaders['Content-Length'] == '100'
+        body.toByteArray() == CONTENT
+    }
+
+    def "content of unknown length is sent without Content-Length and ranges"() {
+        requestHeaders['Range'] = 'bytes=0-9'
+
+        when:
+        def completed = download(-1)
+
+        then:
+        !completed
+        status == HttpServletResponse.SC_OK
+        responseHeaders['Accept-Ranges'] == 'none'
+        responseHeaders['Content-Length'] == null
+        body.toByteArray() == CONTENT
+    }
+
+    def "If-None-Match returns 304 for matching entity tag"() {
+        requestHeaders['If-None-Match'] = ifNoneMatch
+
+        when:
+        def completed = download(CONTENT.length)
+
+        then:
+        completed == notModified
+        status == (notModified ? HttpServletResponse.SC_NOT_MODIFIED : HttpServletResponse.SC_OK)
+        body.size() == (notModified ? 0 : CONTENT.length)
+
+        where:
+        ifNoneMatch            | notModified
+        ETAG                   | true
+        'W/' + ETAG            | true
+        '"other", ' + ETAG     | true
+        '*'                    | true
+        '"other"'              | false
+    }
+
+    def "If-Modified-Since returns 304 if content is not modified after the date"() {
+        requestHeaders['If-Modified-Since'] = formatDate(ifModifiedSince)
+
+        when:
+        def completed = download(CONTENT.length)
+
+        then:
+        completed == notModified
+        status == (notModified ? HttpServletResponse.SC_NOT_MODIFIED : HttpServletResponse.SC_OK)
+
+        where:
+        ifModifiedSince        | notModified
+        LAST_MODIFIED          | true
+        LAST_MODIFIED + 60000  | true
+        LAST_MODIFIED - 60000  | false
+    }
+
+    def "single range is sent as 206"() {
+        requestHeaders['Range'] = 'bytes=10-19'
+
+        when:
+        def completed = download(CONTENT.length)
+
+        then:
+        !completed
+        status == HttpServletResponse.SC_PARTIAL_CONTENT
+        responseHeaders['Content-Range'] == 'bytes 10-19/100'
+        responseHeaders['Content-Length'] == '10'
+        body.toByteArray() == Arrays.copyOfRange(CONTENT, 10, 20)
+    }
+
+    def "If-Range mismatch sends the whole content"() {
+        requestHeaders['Range'] = 'bytes=10-19'
+        requestHeaders['If-Range'] = ifRange
+
+        when:
+        download(CONTENT.length)
+
+        then:
+        status == expectedStatus
+        body.size() == expectedSize
+
+        where:
+        ifRange                          | expectedStatus                           | expectedSize
+        '"other"'                        | HttpServletResponse.SC_OK                | 100
+        formatDate(LAST_MODIFIED - 60000) | HttpServletResponse.SC_OK              | 100
+        ETAG                             | HttpServletResponse.SC_PARTIAL_CONTENT   | 10
+        formatDate(LAST_MODIFIED)        | HttpServletResponse.SC_PARTIAL_CONTENT   | 10
+    }
+
+    def "several ranges are sent as multipart/byteranges"() {
+        requestHeaders['Range'] = 'bytes=90-94,0-4'
+
+        when:
+        download(CONTENT.length)
+
+        then:
+        status == HttpServletResponse.SC_PARTIAL_CONTENT
+        contentType.startsWith('multipart/byteranges; boundary=')
+
+        def boundary = contentType.substring('multipart/byteranges; boundary='.length())
+        def text = new String(body.toByteArray(), StandardCharsets.ISO_8859_1)
+        responseHeaders['Content-Length'] == String.valueOf(body.size())
+
+        def parts = text.split('\r\n--' + boundary)
+        parts.length == 4
+        parts[0].isEmpty()
+        parts[1] == '\r\nContent-Type: application/octet-stream\r\nContent-Range: bytes 0-4/100\r\n\r\n' + chars(0, 5)
+        parts[2] == '\r\nContent-Type: application/octet-stream\r\nContent-Range: bytes 90-94/100\r\n\r\n' + chars(90, 95)
+        parts[3] == '--\r\n'
+    }
+
+    def "unsatisfiable range returns 416"() {
+        requestHeaders['Range'] = 'bytes=200-300'
+
+        when:
+        def completed = download(CONTENT.length)
+
+        then:
+        completed
+        status == HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE
+        responseHeaders['Content-Range'] == 'bytes */100'
+        body.size() == 0
+    }
+
+    private boolean download(long length) {
+        def download = new RangeDownload(request, response, ETAG, LAST_MODIFIED, length)
+        if (download.handleConditionalRequest()) {
+            return true
+        }
+        download.write(new ByteArrayInputStream(CONTENT))
+        return false
+    }
+
+    private static String chars(int from, int to) {
+        return new String(Arrays.copyOfRange(CONTENT, from, to), StandardCharsets.ISO_8859_1)
+    }
+
+    private static String formatDate(long millis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC))
+    }
+
+    private static long parseDate(String value) {
+        if (value == null) {
+            return -1
+        }
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli()
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(value, e)
+        }
+    }
+
+    static class TestServletOutputStream extends ServletOutputStream {
+
+        private final OutputStream target
+
+        TestServletOutputStream(OutputStream target) {
+            this.target = target
+        }
+
+        @Override
+        void write(int b) throws IOException {
+            target.write(b)
+        }
+
+        @Override
+        boolean isReady() {
+            return true
+        }
+
+        @Override
+        void setWriteListener(WriteListener writeListener) {
+        }
+    }
+}
@@ -21,6 +21,7 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.haulmont.cuba.client.ClientConfiguration;
 import com.haulmont.cuba.core.config.Config;
 import com.haulmont.cuba.core.global.Configuration;
@@ -74,6 +75,16 @@ public class ControllerDependencyInjector implements ApplicationContextAware {
                         }
                     });
 
+    protected static final LoadingCache<Class<?>, List<InjectElement>> injectElementsCache =
+            CacheBuilder.newBuilder()
+                    .weakKeys()
+                    .build(new CacheLoader<Class<?>, List<InjectElement>>() {
+                        @Override
+                        public List<InjectElement> load(@Nonnull Class<?> concreteClass) {
+                            return getInjectElementsNotCached(concreteClass);
+                        }
+                    });
+
     protected Frame frame;
     protected Map<String, Object> params;
 
@@ -90,28 +101,8 @@ public class ControllerDependencyInjector implements ApplicationContextAware {
     }
 
     public void inject() {
-        Map<AnnotatedElement, Class> toInject = new HashMap<>();
-
-        @SuppressWarnings("unchecked")
-        List<Class<?>> classes = ClassUtils.getAllSuperclasses(frame.getClass());
-        classes.add(0, frame.getClass());
-        Collections.reverse(classes);
-
-        for (Field field : getAllFields(classes)) {
-            Class aClass = injectionAnnotation(field);
-            if (aClass != null) {
-                toInject.put(field, aClass);
-            }
-        }
-        for (Method method : frame.getClass().getMethods()) {
-            Class aClass = injectionAnnotation(method);
-            if (aClass != null) {
-                toInject.put(method, aClass);
-            }
-        }
-
-        for (Map.Entry<AnnotatedElement, Class> entry : toInject.entrySet()) {
-            doInjection(entry.getKey(), entry.getValue());
+        for (InjectElement injectElement : getInjectElements(frame.getClass())) {
+            doInjection(injectElement);
         }
 
         injectEventListeners(frame);
@@ -158,7 +149,46 @@ public class ControllerDependencyInjector implements ApplicationContextAware {
         return ImmutableList.copyOf(eventListenerMethods);
     }
 
-    protected List<Field> getAllFields(List<Class<?>> classes) {
+    protected static List<InjectElement> getInjectElements(Class<?> clazz) {
+        try {
+            return injectElementsCache.getUnchecked(clazz);
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    protected static List<InjectElement> getInjectElementsNotCached(Class<?> clazz) {
+        List<InjectElement> injectElements = new ArrayList<>();
+
+        @SuppressWarnings("unchecked")
+        List<Class<?>> classes = ClassUtils.getAllSuperclasses(clazz);
+        classes.add(0, clazz);
+        Collections.reverse(classes);
+
+        for (Field field : getAllFields(classes)) {
+            Class aClass = injectionAnnotation(field);
+            if (aClass != null) {
+                injectElements.add(new InjectElement(field, aClass));
+            }
+        }
+        for (Method method : clazz.getMethods()) {
+            Class aClass = injectionAnnotation(method);
+            if (aClass != null) {
+                injectElements.add(new InjectElement(method, aClass));
+            }
+        }
+
+        if (injectElements.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return ImmutableList.copyOf(injectElements);
+    }
+
+    protected static List<Field> getAllFields(List<Class<?>> classes) {
         List<Field> list = new ArrayList<>();
 
         for (Class c : classes) {
@@ -169,7 +199,7 @@ public class ControllerDependencyInjector implements ApplicationContextAware {
         return list;
     }
 
-    protected Class injectionAnnotation(AnnotatedElement element) {
+    protected static Class injectionAnnotation(AnnotatedElement element) {
         if (element.isAnnotationPresent(Named.class))
             return Named.class;
         else if (element.isAnnotationPresent(Resource.class))
@@ -183,43 +213,19 @@ public class ControllerDependencyInjector implements ApplicationContextAware {
     }
 
     protected void doInjection(AnnotatedElement element, Class annotationClass) {
-        Class<?> type;
-        String name = null;
-        if (annotationClass == Named.class)
-            name = element.getAnnotation(Named.class).value();
-        else if (annotationClass == Resource.class)
-            name = element.getAnnotation(Resource.class).name();
-        else if (annotationClass == WindowParam.class)
-            name = element.getAnnotation(WindowParam.class).name();
-
-        boolean required = true;
-        if (element.isAnnotationPresent(WindowParam.class))
-            required = element.getAnnotation(WindowParam.class).required();
+        doInjection(new InjectElement(element, annotationClass));
+    }
 
-        if (element instanceof Field) {
-            type = ((Field) element).getType();
-            if (StringUtils.isEmpty(name))
-                name = ((Field) element).getName();
-        } else if (element instanceof Method) {
-            Class<?>[] types = ((Method) element).getParameterTypes();
-            if (types.length != 1)
-                throw new IllegalStateException("Can inject to methods with one parameter only");
-            type = types[0];
-            if (StringUtils.isEmpty(name)) {
-                if (((Method) element).getName().startsWith("set"))
-                    name = StringUtils.uncapitalize(((Method) element).getName().substring(3));
-                else
-                    name = ((Method) element).getName();
-            }
-        } else {
-            throw new IllegalStateException("Can inject to fields and setter methods only");
-        }
+    protected void doInjection(InjectElement injectElement) {
+        AnnotatedElement element = injectElement.getElement();
+        Class<?> type = injectElement.getType();
+        String name = injectElement.getName();
 
-        Object instance = getInjectedInstance(type, name, annotationClass, element);
+        Object instance = getInjectedInstance(type, name, injectElement.getAnnotationClass(), element);
 
         if (instance != null) {
             assignValue(element, instance);
-        } else if (required) {
+        } else if (injectElement.isRequired()) {
             Class<?> declaringClass = ((Member) element).getDeclaringClass();
             Class<? extends Frame> frameClass = frame.getClass();
 
@@ -331,4 +337,75 @@ public class ControllerDependencyInjector implements ApplicationContextAware {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Injection point of a controller class with its type, name and annotation resolved.
+     */
+    protected static class InjectElement {
+
+        protected final AnnotatedElement element;
+        protected final Class annotationClass;
+        protected final Class<?> type;
+        protected final String name;
+        protected final boolean required;
+
+        public InjectElement(AnnotatedElement element, Class annotationClass) {
+            this.element = element;
+            this.annotationClass = annotationClass;
+
+            String name = null;
+            if (annotationClass == Named.class)
+                name = element.getAnnotation(Named.class).value();
+            else if (annotationClass == Resource.class)
+                name = element.getAnnotation(Resource.class).name();
+            else if (annotationClass == WindowParam.class)
+                name = element.getAnnotation(WindowParam.class).name();
+
+            boolean required = true;
+            if (element.isAnnotationPresent(WindowParam.class))
+                required = element.getAnnotation(WindowParam.class).required();
+
+            if (element instanceof Field) {
+                type = ((Field) element).getType();
+                if (StringUtils.isEmpty(name))
+                    name = ((Field) element).getName();
+            } else if (element instanceof Method) {
+                Class<?>[] types = ((Method) element).getParameterTypes();
+                if (types.length != 1)
+                    throw new IllegalStateException("Can inject to methods with one parameter only");
+                type = types[0];
+                if (StringUtils.isEmpty(name)) {
+                    if (((Method) element).getName().startsWith("set"))
+                        name = StringUtils.uncapitalize(((Method) element).getName().substring(3));
+                    else
+                        name = ((Method) element).getName();
+                }
+            } else {
+                throw new IllegalStateException("Can inject to fields and setter methods only");
+            }
+
+            this.name = name;
+            this.required = required;
+        }
+
+        public AnnotatedElement getElement() {
+            return element;
+        }
+
+        public Class getAnnotationClass() {
+            return annotationClass;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isRequired() {
+            return required;
+        }
+    }
+}
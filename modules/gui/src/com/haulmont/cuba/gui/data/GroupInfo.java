@@ -18,15 +18,25 @@ package com.haulmont.cuba.gui.data;
 
 import org.apache.commons.collections4.map.LinkedMap;
 
+import java.util.Objects;
+
 public class GroupInfo<P> {
 
     private LinkedMap groupingValues;
     private P groupProperty;
+    private int hashCode;
 
     @SuppressWarnings("unchecked")
     public GroupInfo(LinkedMap groupingValues) {
         this.groupingValues = new LinkedMap(groupingValues);
         this.groupProperty = (P) groupingValues.get(groupingValues.size() - 1);
+
+        int result = 1;
+        for (int groupIndex = 0; groupIndex < this.groupingValues.size(); groupIndex++) {
+            result = 31 * result + Objects.hashCode(this.groupingValues.get(groupIndex));
+            result = 31 * result + Objects.hashCode(this.groupingValues.getValue(groupIndex));
+        }
+        this.hashCode = result;
     }
 
     public Object getPropertyValue(P propertyPath) {
@@ -71,11 +81,21 @@ public class GroupInfo<P> {
 
         GroupInfo groupInfo = (GroupInfo) o;
 
-        return toString().equals(groupInfo.toString());
+        if (hashCode != groupInfo.hashCode
+                || groupingValues.size() != groupInfo.groupingValues.size()) {
+            return false;
+        }
+        for (int groupIndex = 0; groupIndex < groupingValues.size(); groupIndex++) {
+            if (!Objects.equals(groupingValues.get(groupIndex), groupInfo.groupingValues.get(groupIndex))
+                    || !Objects.equals(groupingValues.getValue(groupIndex), groupInfo.groupingValues.getValue(groupIndex))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        return hashCode;
     }
 }
\ No newline at end of file
@@ -16,59 +16,66 @@
  */
 package com.haulmont.cuba.gui.data.aggregation;
 
-import org.apache.commons.lang3.ArrayUtils;
-import org.apache.commons.lang3.math.NumberUtils;
-
 import javax.annotation.Nullable;
-import java.util.ArrayList;
-import java.util.List;
 
+/**
+ * Accumulates sum, minimum and maximum of added values in primitive fields without storing the values.
+ */
 public class NumberAggregationHelper {
 
-    private final List<Double> items;
+    private int count;
+    private int valuesCount;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
 
     public NumberAggregationHelper() {
-        items = new ArrayList<>();
     }
 
     public void addItem(Double newItem) {
-        items.add(newItem);
+        if (newItem != null) {
+            addItem(newItem.doubleValue());
+        } else {
+            count++;
+        }
+    }
+
+    public void addItem(double newItem) {
+        count++;
+        valuesCount++;
+        sum += newItem;
+        min = Math.min(min, newItem);
+        max = Math.max(max, newItem);
     }
 
     public Double sum() {
-        double sum = 0d;
-        for (final Double item : items) {
-            if (item != null) {
-                sum += item;
-            }
-        }
         return sum;
     }
 
     @Nullable
     public Double avg() {
-        if (items.isEmpty()) {
+        if (count == 0) {
             return null;
         }
 
-        return sum () / items.size();
+        return sum / count;
     }
 
     @Nullable
     public Double min() {
-        if (items.isEmpty()) {
+        if (valuesCount == 0) {
             return null;
         }
 
-        return NumberUtils.min(ArrayUtils.toPrimitive(items.toArray(new Double[items.size()])));
+        return min;
     }
 
     @Nullable
     public Double max() {
-        if (items.isEmpty()) {
+        if (valuesCount == 0) {
             return null;
         }
 
-        return NumberUtils.max(ArrayUtils.toPrimitive(items.toArray(new Double[items.size()])));
+        return max;
     }
-}
\ No newline at end of file
+}
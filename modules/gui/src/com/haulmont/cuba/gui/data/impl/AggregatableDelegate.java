@@ -40,8 +40,11 @@ public abstract class AggregatableDelegate<K> {
 
     protected Map<AggregationInfo, String> doAggregation(Collection<K> itemIds, AggregationInfo[] aggregationInfos) {
         Map<AggregationInfo, String> aggregationResults = new HashMap<>();
+        // values of a property are extracted once for all aggregations by this property
+        Map<MetaPropertyPath, List> valuesCache = new HashMap<>();
+        Locale locale = null;
         for (AggregationInfo aggregationInfo : aggregationInfos) {
-            final Object value = doPropertyAggregation(aggregationInfo, itemIds);
+            final Object value = doPropertyAggregation(aggregationInfo, itemIds, valuesCache);
 
             String formattedValue;
             if (aggregationInfo.getFormatter() != null) {
@@ -63,8 +66,9 @@ public abstract class AggregatableDelegate<K> {
                             resultClass = aggregationInfo.getStrategy().getResultClass();
                         }
 
-                        UserSessionSource userSessionSource = AppBeans.get(UserSessionSource.NAME);
-                        Locale locale = userSessionSource.getLocale();
+                        if (locale == null) {
+                            locale = getLocale();
+                        }
                         formattedValue = Datatypes.getNN(resultClass).format(value, locale);
                     } else {
                         formattedValue = value.toString();
@@ -73,8 +77,9 @@ public abstract class AggregatableDelegate<K> {
                     if (aggregationInfo.getStrategy() != null) {
                         Class resultClass = aggregationInfo.getStrategy().getResultClass();
 
-                        UserSessionSource userSessionSource = AppBeans.get(UserSessionSource.NAME);
-                        Locale locale = userSessionSource.getLocale();
+                        if (locale == null) {
+                            locale = getLocale();
+                        }
                         formattedValue = Datatypes.getNN(resultClass).format(value, locale);
                     } else {
                         formattedValue = value.toString();
@@ -87,8 +92,13 @@ public abstract class AggregatableDelegate<K> {
         return aggregationResults;
     }
 
-    @SuppressWarnings("unchecked")
     protected Object doPropertyAggregation(AggregationInfo aggregationInfo, Collection<K> itemIds) {
+        return doPropertyAggregation(aggregationInfo, itemIds, new HashMap<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Object doPropertyAggregation(AggregationInfo aggregationInfo, Collection<K> itemIds,
+                                           Map<MetaPropertyPath, List> valuesCache) {
         List items;
 
         if (aggregationInfo.getType() == AggregationInfo.Type.CUSTOM
@@ -98,7 +108,8 @@ public abstract class AggregatableDelegate<K> {
                     .map(this::getItem)
                     .collect(Collectors.toList());
         } else {
-            items = valuesByProperty(aggregationInfo.getPropertyPath(), itemIds);
+            items = valuesCache.computeIfAbsent(aggregationInfo.getPropertyPath(),
+                    propertyPath -> valuesByProperty(propertyPath, itemIds));
         }
 
         if (aggregationInfo.getStrategy() == null) {
@@ -122,7 +133,7 @@ public abstract class AggregatableDelegate<K> {
             }
         } else {
             AggregationStrategy strategy = aggregationInfo.getStrategy();
-            return strategy.aggregate(items);
+            return strategy.aggregate(Collections.unmodifiableList(items));
         }
     }
 
@@ -137,6 +148,11 @@ public abstract class AggregatableDelegate<K> {
         return values;
     }
 
+    protected Locale getLocale() {
+        UserSessionSource userSessionSource = AppBeans.get(UserSessionSource.NAME);
+        return userSessionSource.getLocale();
+    }
+
     public abstract Object getItem(K itemId);
 
     public abstract Object getItemValue(MetaPropertyPath property, K itemId);
@@ -106,45 +106,60 @@ public abstract class GroupDelegate<T extends Entity<K>, K> {
         groupItems = new HashMap<>();
         itemGroups = new HashMap<>();
 
+        // child groups by grouping value, allows to find the group of an item without building GroupInfo keys
+        Map<Object, GroupInfo<MetaPropertyPath>> rootsByValue = new HashMap<>();
+        Map<GroupInfo, Map<Object, GroupInfo<MetaPropertyPath>>> childrenByValue = new IdentityHashMap<>();
+
         Collection<K> itemIds = datasource.getItemIds();
         for (K id : itemIds) {
             T item = datasource.getItem(id);
-            GroupInfo<MetaPropertyPath> groupInfo = groupItems(0, null, roots, item, new LinkedMap<>());
+            GroupInfo<MetaPropertyPath> groupInfo = groupItem(item, rootsByValue, childrenByValue);
 
-            if (groupInfo == null) {
-                throw new IllegalStateException("Item group cannot be NULL");
-            }
+            itemGroups.put(id, groupInfo);
 
             List<K> itemsIds = groupItems.computeIfAbsent(groupInfo, k -> new ArrayList<>());
             itemsIds.add(id);
         }
     }
 
-    protected GroupInfo<MetaPropertyPath> groupItems(int propertyIndex, GroupInfo parent, List<GroupInfo> children,
-                                                     T item, LinkedMap<MetaPropertyPath, Object> groupValues) {
-        MetaPropertyPath property = (MetaPropertyPath) groupProperties[propertyIndex++];
-        Object itemValue = getValueByProperty(item, property);
-        groupValues.put(property, itemValue);
-
-        GroupInfo<MetaPropertyPath> groupInfo = new GroupInfo<>(groupValues);
-        itemGroups.put(item.getId(), groupInfo);
+    /**
+     * Finds or creates the groups of all levels for the item in a single pass.
+     *
+     * @return the group of the last level
+     */
+    protected GroupInfo<MetaPropertyPath> groupItem(T item, Map<Object, GroupInfo<MetaPropertyPath>> rootsByValue,
+                                                    Map<GroupInfo, Map<Object, GroupInfo<MetaPropertyPath>>> childrenByValue) {
+        LinkedMap<MetaPropertyPath, Object> groupValues = new LinkedMap<>();
+        Map<Object, GroupInfo<MetaPropertyPath>> groupsByValue = rootsByValue;
+        GroupInfo<MetaPropertyPath> parent = null;
+
+        for (Object groupProperty : groupProperties) {
+            MetaPropertyPath property = (MetaPropertyPath) groupProperty;
+            Object itemValue = getValueByProperty(item, property);
+            groupValues.put(property, itemValue);
+
+            GroupInfo<MetaPropertyPath> groupInfo = groupsByValue.get(itemValue);
+            if (groupInfo == null) {
+                groupInfo = new GroupInfo<>(groupValues);
+                groupsByValue.put(itemValue, groupInfo);
 
-        if (!parents.containsKey(groupInfo)) {
-            parents.put(groupInfo, parent);
-        }
+                parents.put(groupInfo, parent);
+                if (parent == null) {
+                    roots.add(groupInfo);
+                } else {
+                    children.get(parent).add(groupInfo);
+                }
+                children.put(groupInfo, new ArrayList<>());
+            }
 
-        if (!children.contains(groupInfo)) {
-            children.add(groupInfo);
+            groupsByValue = childrenByValue.computeIfAbsent(groupInfo, k -> new HashMap<>());
+            parent = groupInfo;
         }
 
-        List<GroupInfo> groupChildren =
-                this.children.computeIfAbsent(groupInfo, k -> new ArrayList<>());
-
-        if (propertyIndex < groupProperties.length) {
-            groupInfo = groupItems(propertyIndex, groupInfo, groupChildren, item, groupValues);
+        if (parent == null) {
+            throw new IllegalStateException("Item group cannot be NULL");
         }
-
-        return groupInfo;
+        return parent;
     }
 
     protected abstract void doSort(CollectionDatasource.Sortable.SortInfo<MetaPropertyPath>[] sortInfo);
@@ -226,16 +241,24 @@ public abstract class GroupDelegate<T extends Entity<K>, K> {
             List<K> itemIds;
             if ((itemIds = groupItems.get(group)) == null) {
                 itemIds = new ArrayList<>();
-                List<GroupInfo> children = getChildrenInternal(group);
-                for (GroupInfo child : children) {
-                    itemIds.addAll(getGroupItemIds(child));
-                }
+                collectGroupItemIds(group, itemIds);
             }
             return ImmutableList.copyOf(itemIds);
         }
         return Collections.emptyList();
     }
 
+    protected void collectGroupItemIds(GroupInfo group, List<K> result) {
+        List<K> itemIds = groupItems.get(group);
+        if (itemIds != null) {
+            result.addAll(itemIds);
+        } else {
+            for (GroupInfo child : getChildrenInternal(group)) {
+                collectGroupItemIds(child, result);
+            }
+        }
+    }
+
     public int getGroupItemsCount(GroupInfo groupId) {
         if (containsGroup(groupId)) {
             List<K> itemIds;
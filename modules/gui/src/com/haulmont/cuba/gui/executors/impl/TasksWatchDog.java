@@ -23,13 +23,20 @@ import com.haulmont.cuba.gui.executors.WatchDog;
 
 import javax.annotation.concurrent.ThreadSafe;
 import javax.inject.Inject;
-import java.util.ArrayList;
-import java.util.LinkedHashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * WatchDog for {@link com.haulmont.cuba.gui.executors.BackgroundWorker}.
+ * <p>
+ * Tasks having a timeout are kept ordered by their deadline, so {@link #cleanupTasks()} checks only the tasks
+ * whose deadline has passed, and {@link #removeTask(TaskHandlerImpl)} takes logarithmic time. No method of the
+ * watchdog blocks: if the same task is processed concurrently, only the thread that has removed it from
+ * the watches kills it.
  */
 @ThreadSafe
 public abstract class TasksWatchDog implements WatchDog {
@@ -43,66 +50,98 @@ public abstract class TasksWatchDog implements WatchDog {
     @Inject
     protected TimeSource timeSource;
 
-    private final Set<TaskHandlerImpl> watches = new LinkedHashSet<>();
+    private final Map<TaskHandlerImpl, Watch> watches = new ConcurrentHashMap<>();
+
+    private final NavigableSet<Watch> deadlines = new ConcurrentSkipListSet<>(
+            Comparator.comparingLong((Watch watch) -> watch.deadline).thenComparingLong(watch -> watch.sequence));
+
+    private final AtomicLong sequence = new AtomicLong();
 
     public TasksWatchDog() {
     }
 
     @Override
-    public synchronized void cleanupTasks() {
+    public void cleanupTasks() {
         if (!AppContext.isStarted()) {
             return;
         }
 
         long actual = timeSource.currentTimestamp().getTime();
 
-        List<TaskHandlerImpl> forRemove = new ArrayList<>();
-        // copy watches since task.kill tries to remove task handler from watches
-        for (TaskHandlerImpl task : new ArrayList<>(watches)) {
+        for (Watch watch : deadlines) {
+            if (watch.deadline > actual) {
+                break;
+            }
+
+            TaskHandlerImpl task = watch.taskHandler;
+            if (watches.get(task) != watch) {
+                // task has been removed concurrently with its registration
+                deadlines.remove(watch);
+                continue;
+            }
+
             if (task.isCancelled() || task.isDone()) {
-                forRemove.add(task);
-            } else {
-                ExecutionStatus status = getExecutionStatus(actual, task);
+                release(task, watch);
+                continue;
+            }
 
-                switch (status) {
-                    case TIMEOUT_EXCEEDED:
+            ExecutionStatus status = getExecutionStatus(actual, task);
+            switch (status) {
+                case TIMEOUT_EXCEEDED:
+                    if (release(task, watch)) {
                         task.closeByTimeout();
                         task.timeoutExceeded();
-                        forRemove.add(task);
-                        break;
+                    }
+                    break;
 
-                    case SHOULD_BE_KILLED:
+                case SHOULD_BE_KILLED:
+                    if (release(task, watch)) {
                         task.kill();
-                        forRemove.add(task);
-                        break;
+                    }
+                    break;
 
-                    default:
-                        break;
-                }
+                default:
+                    break;
             }
         }
 
-        watches.removeAll(forRemove);
+        // tasks without timeout are removed on completion, here we only drop the ones that have not been unregistered
+        for (Map.Entry<TaskHandlerImpl, Watch> entry : watches.entrySet()) {
+            TaskHandlerImpl task = entry.getKey();
+            if (entry.getValue().deadline == Long.MAX_VALUE && (task.isCancelled() || task.isDone())) {
+                release(task, entry.getValue());
+            }
+        }
     }
 
     protected abstract ExecutionStatus getExecutionStatus(long actualTimeMs, TaskHandlerImpl taskHandler);
 
+    /**
+     * Returns the time after which {@link #getExecutionStatus(long, TaskHandlerImpl)} is checked for the task.
+     *
+     * @param taskHandler task handler
+     * @return deadline in milliseconds or {@link Long#MAX_VALUE} if the task has no timeout
+     */
+    protected long getDeadline(TaskHandlerImpl taskHandler) {
+        long timeout = taskHandler.getTimeoutMs();
+        return timeout > 0 ? taskHandler.getStartTimeStamp() + timeout : Long.MAX_VALUE;
+    }
+
     @Override
-    public synchronized void stopTasks() {
+    public void stopTasks() {
         if (!AppContext.isStarted()) {
             return;
         }
 
-        // copy watches since task.kill tries to remove task handler from watches
-        ArrayList<TaskHandlerImpl> taskHandlers = new ArrayList<>(watches);
-        watches.clear();
-        for (TaskHandlerImpl task : taskHandlers) {
-            task.kill();
+        for (Map.Entry<TaskHandlerImpl, Watch> entry : watches.entrySet()) {
+            if (release(entry.getKey(), entry.getValue())) {
+                entry.getKey().kill();
+            }
         }
     }
 
     @Override
-    public synchronized int getActiveTasksCount() {
+    public int getActiveTasksCount() {
         return watches.size();
     }
 
@@ -112,12 +151,43 @@ public abstract class TasksWatchDog implements WatchDog {
      * @param taskHandler Task handler
      */
     @Override
-    public synchronized void manageTask(TaskHandlerImpl taskHandler) {
-        watches.add(taskHandler);
+    public void manageTask(TaskHandlerImpl taskHandler) {
+        Watch watch = new Watch(taskHandler, getDeadline(taskHandler), sequence.incrementAndGet());
+
+        Watch previous = watches.put(taskHandler, watch);
+        if (previous != null) {
+            deadlines.remove(previous);
+        }
+        if (watch.deadline != Long.MAX_VALUE) {
+            deadlines.add(watch);
+        }
     }
 
     @Override
-    public synchronized void removeTask(TaskHandlerImpl taskHandler) {
-        watches.remove(taskHandler);
+    public void removeTask(TaskHandlerImpl taskHandler) {
+        Watch watch = watches.remove(taskHandler);
+        if (watch != null) {
+            deadlines.remove(watch);
+        }
+    }
+
+    /**
+     * @return true if the watch has been removed by the current thread
+     */
+    private boolean release(TaskHandlerImpl taskHandler, Watch watch) {
+        deadlines.remove(watch);
+        return watches.remove(taskHandler, watch);
+    }
+
+    private static class Watch {
+        private final TaskHandlerImpl taskHandler;
+        private final long deadline;
+        private final long sequence;
+
+        private Watch(TaskHandlerImpl taskHandler, long deadline, long sequence) {
+            this.taskHandler = taskHandler;
+            this.deadline = deadline;
+            this.sequence = sequence;
+        }
     }
-}
\ No newline at end of file
+}
@@ -16,6 +16,8 @@
  */
 package com.haulmont.cuba.gui.xml.layout;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.haulmont.bali.datastruct.Pair;
 import com.haulmont.cuba.core.global.AppBeans;
 import com.haulmont.cuba.gui.GuiDevelopmentException;
@@ -30,6 +32,11 @@ import java.util.Map;
 
 public class LayoutLoader {
 
+    protected static final Cache<Class<? extends ComponentLoader>, Constructor<? extends ComponentLoader>>
+            loaderConstructorsCache = CacheBuilder.newBuilder()
+                    .weakKeys()
+                    .build();
+
     protected ComponentLoader.Context context;
     protected ComponentsFactory factory;
     protected LayoutLoaderConfig config;
@@ -59,7 +66,11 @@ public class LayoutLoader {
 
         ComponentLoader loader;
         try {
-            Constructor<? extends ComponentLoader> constructor = loaderClass.getConstructor();
+            Constructor<? extends ComponentLoader> constructor = loaderConstructorsCache.getIfPresent(loaderClass);
+            if (constructor == null) {
+                constructor = loaderClass.getConstructor();
+                loaderConstructorsCache.put(loaderClass, constructor);
+            }
             loader = constructor.newInstance();
 
             loader.setLocale(locale);
@@ -26,6 +26,7 @@ import org.dom4j.Element;
 import org.perf4j.StopWatch;
 import org.perf4j.slf4j.Slf4JStopWatch;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
@@ -63,16 +64,45 @@ public class ScreenXmlLoader {
                 UIPerformanceLogger.LifeCycle.XML,
                 LoggerFactory.getLogger(UIPerformanceLogger.class));
 
-        String template = loadTemplate(resourcePath);
-        Document document = getDocument(template, params);
+        Document document = getDocument(resourcePath, params);
 
         xmlLoadWatch.stop();
         return document.getRootElement();
     }
 
-    protected String loadTemplate(String resourcePath) {
-        InputStream stream = resources.getResourceAsStream(resourcePath);
-        if (stream == null) {
+    protected Document getDocument(String resourcePath, Map<String, Object> params) {
+        Resource resource = resources.getResource(resourcePath);
+        if (!resource.exists()) {
+            throw new DevelopmentException("Template is not found", "Path", resourcePath);
+        }
+
+        // the resource is resolved on each call, so a descriptor changed or overridden
+        // in the configuration directory on hot deploy gets another cache key
+        String cacheKey = getCacheKey(resource);
+        Document document = screenXmlCache.get(cacheKey);
+        if (document == null) {
+            String template = loadTemplate(resource, resourcePath);
+            document = createDocument(template, params);
+            screenXmlCache.put(cacheKey, document);
+        }
+        return document;
+    }
+
+    protected String getCacheKey(Resource resource) {
+        long lastModified;
+        try {
+            lastModified = resource.lastModified();
+        } catch (IOException e) {
+            lastModified = 0;
+        }
+        return resource.getDescription() + "#" + lastModified;
+    }
+
+    protected String loadTemplate(Resource resource, String resourcePath) {
+        InputStream stream;
+        try {
+            stream = resource.getInputStream();
+        } catch (IOException e) {
             throw new DevelopmentException("Template is not found", "Path", resourcePath);
         }
 
@@ -85,15 +115,6 @@ public class ScreenXmlLoader {
         }
     }
 
-    protected Document getDocument(String template, Map<String, Object> params) {
-        Document document = screenXmlCache.get(template);
-        if (document == null) {
-            document = createDocument(template, params);
-            screenXmlCache.put(template, document);
-        }
-        return document;
-    }
-
     protected Document createDocument(String template, Map<String, Object> params) {
         Document originalDocument = screenXmlParser.parseDescriptor(template);
 
@@ -33,7 +33,10 @@ import javax.inject.Inject;
 import java.lang.reflect.Field;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertSame;
 import static junit.framework.Assert.assertTrue;
 
 public class ControllerDependencyInjectorTest extends CubaClientTestCase {
@@ -82,6 +85,24 @@ public class ControllerDependencyInjectorTest extends CubaClientTestCase {
         assertTrue(controller.someObj == testMap.get("someObj"));
     }
 
+    @Test
+    public void testInjectElementsAreCachedPerClass() throws Exception {
+        List<ControllerDependencyInjector.InjectElement> elements =
+                ControllerDependencyInjector.getInjectElements(TestController.class);
+        assertSame(elements, ControllerDependencyInjector.getInjectElements(TestController.class));
+        assertNotSame(elements, ControllerDependencyInjector.getInjectElements(WindowParamTestController.class));
+
+        for (int i = 0; i < 2; i++) {
+            TestController controller = new TestController();
+            ControllerDependencyInjector injector = new ControllerDependencyInjector(controller, new HashMap<>());
+            injector.setApplicationContext(applicationContext);
+            injector.inject();
+
+            assertTrue(controller.messages == messages);
+        }
+        assertSame(elements, ControllerDependencyInjector.getInjectElements(TestController.class));
+    }
+
     private class TestController extends AbstractWindow {
 
         @Inject
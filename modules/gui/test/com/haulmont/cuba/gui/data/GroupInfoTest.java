@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.gui.data;
+
+import org.apache.commons.collections4.map.LinkedMap;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GroupInfoTest {
+
+    @Test
+    public void groupsWithSameValuesShouldBeEqual() throws Exception {
+        GroupInfo<String> first = new GroupInfo<>(values("status", "NEW", "city", null));
+        GroupInfo<String> second = new GroupInfo<>(values("status", "NEW", "city", null));
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals("city", first.getProperty());
+        assertNull(first.getValue());
+    }
+
+    @Test
+    public void groupsWithDifferentValuesOrPathsShouldBeDifferent() throws Exception {
+        GroupInfo<String> group = new GroupInfo<>(values("status", "NEW", "city", "Samara"));
+
+        assertNotEquals(group, new GroupInfo<>(values("status", "NEW", "city", "Moscow")));
+        assertNotEquals(group, new GroupInfo<>(values("status", "OLD", "city", "Samara")));
+        assertNotEquals(group, new GroupInfo<>(values("city", "Samara", "status", "NEW")));
+        assertNotEquals(group, new GroupInfo<>(values("status", "NEW")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LinkedMap values(Object... keysAndValues) {
+        LinkedMap map = new LinkedMap();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.gui.data.aggregation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NumberAggregationHelperTest {
+
+    @Test
+    public void aggregatesAddedValues() throws Exception {
+        NumberAggregationHelper helper = new NumberAggregationHelper();
+        helper.addItem(3.0);
+        helper.addItem(-1.5);
+        helper.addItem(Double.valueOf(10));
+
+        assertEquals(11.5, helper.sum(), 0);
+        assertEquals(11.5 / 3, helper.avg(), 1e-9);
+        assertEquals(-1.5, helper.min(), 0);
+        assertEquals(10.0, helper.max(), 0);
+    }
+
+    @Test
+    public void emptyHelperHasNoAvgMinMax() throws Exception {
+        NumberAggregationHelper helper = new NumberAggregationHelper();
+
+        assertEquals(0.0, helper.sum(), 0);
+        assertNull(helper.avg());
+        assertNull(helper.min());
+        assertNull(helper.max());
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.gui.executors.impl;
+
+import com.haulmont.cuba.core.global.TimeSource;
+import com.haulmont.cuba.core.sys.AppContext;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TasksWatchDogTest {
+
+    @Mocked
+    protected AppContext appContext;
+
+    @Mocked
+    protected TimeSource timeSource;
+
+    @Mocked
+    protected TaskHandlerImpl expiredTask;
+
+    @Mocked
+    protected TaskHandlerImpl runningTask;
+
+    @Mocked
+    protected TaskHandlerImpl taskWithoutTimeout;
+
+    protected TestWatchDog watchDog;
+
+    @Before
+    public void setUp() throws Exception {
+        new Expectations() {
+            {
+                AppContext.isStarted();
+                result = true; minTimes = 0;
+
+                timeSource.currentTimestamp();
+                result = new Date(10_000); minTimes = 0;
+
+                expiredTask.getStartTimeStamp();
+                result = 0L; minTimes = 0;
+                expiredTask.getTimeoutMs();
+                result = 1_000L; minTimes = 0;
+
+                runningTask.getStartTimeStamp();
+                result = 5_000L; minTimes = 0;
+                runningTask.getTimeoutMs();
+                result = 60_000L; minTimes = 0;
+
+                taskWithoutTimeout.getTimeoutMs();
+                result = 0L; minTimes = 0;
+            }
+        };
+
+        watchDog = new TestWatchDog();
+        watchDog.timeSource = timeSource;
+    }
+
+    @Test
+    public void testOnlyExpiredTasksAreChecked() throws Exception {
+        watchDog.statuses.put(expiredTask, TasksWatchDog.ExecutionStatus.TIMEOUT_EXCEEDED);
+
+        watchDog.manageTask(expiredTask);
+        watchDog.manageTask(runningTask);
+        watchDog.manageTask(taskWithoutTimeout);
+        assertEquals(3, watchDog.getActiveTasksCount());
+
+        watchDog.cleanupTasks();
+
+        assertEquals(Collections.singletonList(expiredTask), watchDog.checked);
+        assertEquals(2, watchDog.getActiveTasksCount());
+
+        new Verifications() {
+            {
+                expiredTask.closeByTimeout(); times = 1;
+                expiredTask.timeoutExceeded(); times = 1;
+                runningTask.kill(); times = 0;
+                taskWithoutTimeout.kill(); times = 0;
+            }
+        };
+    }
+
+    @Test
+    public void testTaskToBeKilled() throws Exception {
+        watchDog.statuses.put(expiredTask, TasksWatchDog.ExecutionStatus.SHOULD_BE_KILLED);
+
+        watchDog.manageTask(expiredTask);
+        watchDog.cleanupTasks();
+
+        assertEquals(0, watchDog.getActiveTasksCount());
+
+        new Verifications() {
+            {
+                expiredTask.kill(); times = 1;
+                expiredTask.closeByTimeout(); times = 0;
+            }
+        };
+    }
+
+    @Test
+    public void testRemovedTaskIsNotChecked() throws Exception {
+        watchDog.statuses.put(expiredTask, TasksWatchDog.ExecutionStatus.SHOULD_BE_KILLED);
+
+        watchDog.manageTask(expiredTask);
+        watchDog.manageTask(runningTask);
+        watchDog.removeTask(expiredTask);
+        assertEquals(1, watchDog.getActiveTasksCount());
+
+        watchDog.cleanupTasks();
+
+        assertTrue(watchDog.checked.isEmpty());
+        assertEquals(1, watchDog.getActiveTasksCount());
+
+        new Verifications() {
+            {
+                expiredTask.kill(); times = 0;
+            }
+        };
+    }
+
+    @Test
+    public void testFinishedTasksAreReleased() throws Exception {
+        new Expectations() {
+            {
+                expiredTask.isDone();
+                result = true; minTimes = 0;
+
+                taskWithoutTimeout.isCancelled();
+                result = true; minTimes = 0;
+            }
+        };
+
+        watchDog.manageTask(expiredTask);
+        watchDog.manageTask(runningTask);
+        watchDog.manageTask(taskWithoutTimeout);
+
+        watchDog.cleanupTasks();
+
+        assertTrue(watchDog.checked.isEmpty());
+        assertEquals(1, watchDog.getActiveTasksCount());
+    }
+
+    @Test
+    public void testConcurrentCleanupKillsTaskOnce() throws Exception {
+        watchDog.statuses.put(expiredTask, TasksWatchDog.ExecutionStatus.TIMEOUT_EXCEEDED);
+        watchDog.manageTask(expiredTask);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    watchDog.cleanupTasks();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(10_000);
+        }
+
+        assertEquals(0, watchDog.getActiveTasksCount());
+
+        new Verifications() {
+            {
+                expiredTask.closeByTimeout(); times = 1;
+                expiredTask.timeoutExceeded(); times = 1;
+            }
+        };
+    }
+
+    protected static class TestWatchDog extends TasksWatchDog {
+
+        protected final Map<TaskHandlerImpl, ExecutionStatus> statuses = new HashMap<>();
+
+        protected final List<TaskHandlerImpl> checked = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        protected ExecutionStatus getExecutionStatus(long actualTimeMs, TaskHandlerImpl taskHandler) {
+            checked.add(taskHandler);
+            return statuses.getOrDefault(taskHandler, ExecutionStatus.NORMAL);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.gui.xml.layout;
+
+import com.haulmont.bali.util.Dom4j;
+import com.haulmont.cuba.core.global.Resources;
+import mockit.Expectations;
+import mockit.Mocked;
+import org.apache.commons.io.FileUtils;
+import org.dom4j.Document;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ScreenXmlLoaderTest {
+
+    @Mocked
+    private Resources resources;
+
+    private File descriptor;
+    private int parsedCount;
+    private ScreenXmlLoader loader;
+
+    @Before
+    public void setUp() throws Exception {
+        descriptor = File.createTempFile("screen", ".xml");
+        FileUtils.write(descriptor, "<window caption=\"first\"/>", StandardCharsets.UTF_8);
+        descriptor.setLastModified(1000000L);
+
+        new Expectations() {
+            {
+                resources.getResource("test-screen.xml");
+                result = new FileSystemResource(descriptor); minTimes = 0;
+            }
+        };
+
+        loader = new ScreenXmlLoader() {
+            @Override
+            protected Document createDocument(String template, Map<String, Object> params) {
+                parsedCount++;
+                return Dom4j.readDocument(template);
+            }
+        };
+        loader.resources = resources;
+        loader.screenXmlCache = new ScreenXmlDocumentCache();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteQuietly(descriptor);
+    }
+
+    @Test
+    public void testDocumentIsCached() throws Exception {
+        assertEquals("first", loader.load("test-screen.xml", "test", Collections.emptyMap()).attributeValue("caption"));
+        assertEquals("first", loader.load("test-screen.xml", "test", Collections.emptyMap()).attributeValue("caption"));
+        assertEquals(1, parsedCount);
+    }
+
+    @Test
+    public void testCacheIsInvalidatedOnModification() throws Exception {
+        assertEquals("first", loader.load("test-screen.xml", "test", Collections.emptyMap()).attributeValue("caption"));
+
+        FileUtils.write(descriptor, "<window caption=\"second\"/>", StandardCharsets.UTF_8);
+        descriptor.setLastModified(2000000L);
+
+        assertEquals("second", loader.load("test-screen.xml", "test", Collections.emptyMap()).attributeValue("caption"));
+        assertEquals(2, parsedCount);
+    }
+}
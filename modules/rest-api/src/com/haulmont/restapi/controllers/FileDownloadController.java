@@ -20,18 +20,20 @@ import com.haulmont.cuba.core.app.DataService;
 import com.haulmont.cuba.core.entity.FileDescriptor;
 import com.haulmont.cuba.core.global.*;
 import com.haulmont.cuba.core.sys.remoting.discovery.ServerSelector;
+import com.haulmont.cuba.core.sys.servlet.RangeDownload;
 import com.haulmont.restapi.exception.RestAPIException;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
-import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
@@ -63,6 +65,7 @@ public class FileDownloadController {
     @GetMapping("/{fileDescriptorId}")
     public void downloadFile(@PathVariable String fileDescriptorId,
                              @RequestParam(required = false) Boolean attachment,
+                             HttpServletRequest request,
                              HttpServletResponse response) {
         UUID uuid;
         try {
@@ -86,7 +89,7 @@ public class FileDownloadController {
             response.setHeader("Content-Disposition", (BooleanUtils.isTrue(attachment) ? "attachment" : "inline")
                     + "; filename=\"" + fd.getName() + "\"");
 
-            downloadFromMiddlewareAndWriteResponse(fd, response);
+            downloadFromMiddlewareAndWriteResponse(fd, request, response);
         } catch (Exception e) {
             log.error("Error on downloading the file {}", fileDescriptorId, e);
             throw new RestAPIException("Error on downloading the file", "", HttpStatus.INTERNAL_SERVER_ERROR);
@@ -94,10 +97,23 @@ public class FileDownloadController {
     }
 
     protected void downloadFromMiddlewareAndWriteResponse(FileDescriptor fd, HttpServletResponse response) throws IOException {
-        ServletOutputStream os = response.getOutputStream();
-        try (InputStream is = fileLoader.openStream(fd)) {
-            IOUtils.copy(is, os);
-            os.flush();
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        downloadFromMiddlewareAndWriteResponse(fd, request, response);
+    }
+
+    protected void downloadFromMiddlewareAndWriteResponse(FileDescriptor fd, HttpServletRequest request,
+                                                          HttpServletResponse response) throws IOException {
+        long lastModified = fd.getCreateDate() != null ? fd.getCreateDate().getTime() : -1;
+
+        try {
+            RangeDownload download = new RangeDownload(request, response, RangeDownload.getETag(fd), lastModified,
+                    fileLoader.getFileSize(fd));
+            if (download.handleConditionalRequest())
+                return;
+
+            try (InputStream is = fileLoader.openStream(fd)) {
+                download.write(is);
+            }
         } catch (FileStorageException e) {
             throw new RestAPIException("Unable to download file from FileStorage",
                     "Unable to download file from FileStorage: " + fd.getId(),
@@ -199,6 +199,22 @@ public interface WebConfig extends Config {
     @DefaultInteger(100)
     Integer getMaxActiveBackgroundTasksCount();
 
+    /**
+     * @return maximum number of background tasks executed concurrently for one user session, other tasks of the
+     * session are queued. 0 means no limit.
+     */
+    @Property("cuba.backgroundWorker.maxActiveTasksPerSession")
+    @DefaultInt(0)
+    int getMaxActiveBackgroundTasksPerSession();
+
+    /**
+     * @return maximum number of background tasks executed concurrently for one UI (browser tab), other tasks of the
+     * UI are queued. 0 means no limit.
+     */
+    @Property("cuba.backgroundWorker.maxActiveTasksPerUi")
+    @DefaultInt(0)
+    int getMaxActiveBackgroundTasksPerUi();
+
     @Property("cuba.backgroundWorker.maxClientLatencySeconds")
     @DefaultInt(60)
     int getClientBackgroundTasksLatencySeconds();
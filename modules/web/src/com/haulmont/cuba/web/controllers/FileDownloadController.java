@@ -25,10 +25,10 @@ import com.haulmont.cuba.core.global.FileTypesHelper;
 import com.haulmont.cuba.core.global.LoadContext;
 import com.haulmont.cuba.core.sys.AppContext;
 import com.haulmont.cuba.core.sys.SecurityContext;
+import com.haulmont.cuba.core.sys.servlet.RangeDownload;
 import com.haulmont.cuba.security.app.UserSessionService;
 import com.haulmont.cuba.security.global.NoUserSessionException;
 import com.haulmont.cuba.security.global.UserSession;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpHeaders;
 import org.slf4j.Logger;
@@ -36,10 +36,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.servlet.ModelAndView;
 
 import javax.inject.Inject;
-import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
@@ -102,7 +103,7 @@ public class FileDownloadController {
             response.setHeader("Content-Disposition", (attach ? "attachment" : "inline")
                     + "; filename=" + fileName);
 
-            downloadFromMiddlewareAndWriteResponse(fd, response);
+            downloadFromMiddlewareAndWriteResponse(fd, request, response);
         } finally {
             AppContext.setSecurityContext(null);
         }
@@ -110,10 +111,23 @@ public class FileDownloadController {
     }
 
     protected void downloadFromMiddlewareAndWriteResponse(FileDescriptor fd, HttpServletResponse response) throws IOException {
-        ServletOutputStream os = response.getOutputStream();
-        try (InputStream is = fileLoader.openStream(fd)) {
-            IOUtils.copy(is, os);
-            os.flush();
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        downloadFromMiddlewareAndWriteResponse(fd, request, response);
+    }
+
+    protected void downloadFromMiddlewareAndWriteResponse(FileDescriptor fd, HttpServletRequest request,
+                                                          HttpServletResponse response) throws IOException {
+        long lastModified = fd.getCreateDate() != null ? fd.getCreateDate().getTime() : -1;
+
+        try {
+            RangeDownload download = new RangeDownload(request, response, RangeDownload.getETag(fd), lastModified,
+                    fileLoader.getFileSize(fd));
+            if (download.handleConditionalRequest())
+                return;
+
+            try (InputStream is = fileLoader.openStream(fd)) {
+                download.write(is);
+            }
         } catch (FileStorageException e) {
             log.error("Unable to load file from middleware", e);
             error(response);
@@ -40,10 +40,7 @@ import org.springframework.stereotype.Component;
 import javax.annotation.Nonnull;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -52,6 +49,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Web implementation of {@link BackgroundWorker}
+ * <p>
+ * If {@link WebConfig#getMaxActiveBackgroundTasksPerSession()} or {@link WebConfig#getMaxActiveBackgroundTasksPerUi()}
+ * is set, tasks exceeding the limit are queued per user session and started in order of submission when other
+ * tasks of the session or UI complete. Time spent in the queue counts towards the task timeout.
  */
 @Component(BackgroundWorker.NAME)
 public class WebBackgroundWorker implements BackgroundWorker {
@@ -74,6 +75,8 @@ public class WebBackgroundWorker implements BackgroundWorker {
 
     protected ExecutorService executorService;
 
+    protected final ConcurrentMap<UUID, SessionTasks> sessionTasks = new ConcurrentHashMap<>();
+
     public WebBackgroundWorker() {
     }
 
@@ -132,6 +135,81 @@ public class WebBackgroundWorker implements BackgroundWorker {
         return taskHandler;
     }
 
+    protected void submitTask(UUID sessionId, int uiId, FutureTask<?> future) {
+        WebConfig webConfig = configuration.getConfig(WebConfig.class);
+        int maxPerSession = webConfig.getMaxActiveBackgroundTasksPerSession();
+        int maxPerUi = webConfig.getMaxActiveBackgroundTasksPerUi();
+
+        if (maxPerSession <= 0 && maxPerUi <= 0) {
+            executorService.execute(future);
+            return;
+        }
+
+        List<LimitedTask> toStart = new ArrayList<>();
+        sessionTasks.compute(sessionId, (id, tasks) -> {
+            if (tasks == null) {
+                tasks = new SessionTasks();
+            }
+            tasks.pending.add(new LimitedTask(sessionId, uiId, future));
+            tasks.drain(maxPerSession, maxPerUi, toStart);
+            return tasks.isEmpty() ? null : tasks;
+        });
+
+        if (toStart.isEmpty()) {
+            log.debug("Background task is queued, active tasks limit is reached for session {}", sessionId);
+        }
+        startTasks(toStart);
+    }
+
+    /**
+     * Starts the tasks taken from the queue. If the executor rejects a task, e.g. when it is shut down, the task and
+     * all the following ones are cancelled and released without starting other queued tasks. Never throws, because
+     * it is also invoked by worker threads on completion of a task.
+     */
+    protected void startTasks(List<LimitedTask> tasks) {
+        for (int i = 0; i < tasks.size(); i++) {
+            LimitedTask task = tasks.get(i);
+            try {
+                executorService.execute(() -> {
+                    try {
+                        task.future.run();
+                    } finally {
+                        releaseTask(task);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                List<LimitedTask> notStarted = tasks.subList(i, tasks.size());
+                log.warn("Unable to start {} background tasks, they are cancelled", notStarted.size(), e);
+                cancelTasks(notStarted);
+                return;
+            }
+        }
+    }
+
+    protected void cancelTasks(List<LimitedTask> tasks) {
+        for (LimitedTask task : tasks) {
+            task.future.cancel(false);
+            sessionTasks.computeIfPresent(task.sessionId, (id, state) -> {
+                state.release(task);
+                return state.isEmpty() ? null : state;
+            });
+        }
+    }
+
+    protected void releaseTask(LimitedTask task) {
+        WebConfig webConfig = configuration.getConfig(WebConfig.class);
+        int maxPerSession = webConfig.getMaxActiveBackgroundTasksPerSession();
+        int maxPerUi = webConfig.getMaxActiveBackgroundTasksPerUi();
+
+        List<LimitedTask> toStart = new ArrayList<>();
+        sessionTasks.computeIfPresent(task.sessionId, (id, tasks) -> {
+            tasks.release(task);
+            tasks.drain(maxPerSession, maxPerUi, toStart);
+            return tasks.isEmpty() ? null : tasks;
+        });
+        startTasks(toStart);
+    }
+
     @Override
     public UIAccessor getUIAccessor() {
         checkUIAccess();
@@ -162,6 +240,7 @@ public class WebBackgroundWorker implements BackgroundWorker {
 
         private SecurityContext securityContext;
         private String userLogin;
+        private UUID sessionId;
 
         private Map<String, Object> params;
         private TaskHandlerImpl<T, V> taskHandler;
@@ -179,6 +258,7 @@ public class WebBackgroundWorker implements BackgroundWorker {
 
             UserSession userSession = userSessionSource.getUserSession();
             this.userLogin = userSession.getUser().getLogin();
+            this.sessionId = userSession.getId();
 
             this.future = new FutureTask<V>(this) {
                 @Override
@@ -371,10 +451,8 @@ public class WebBackgroundWorker implements BackgroundWorker {
         @ExecutedOnUIThread
         @Override
         public final void startExecution() {
-            // Start thread
-            executorService.execute(() ->
-                    future.run()
-            );
+            // Start thread or queue the task if the session or UI has too many active tasks
+            submitTask(sessionId, ui.getUIId(), future);
         }
 
         @Override
@@ -412,6 +490,56 @@ public class WebBackgroundWorker implements BackgroundWorker {
         }
     }
 
+    /**
+     * Active and queued tasks of a user session. Accessed only inside atomic operations of {@link #sessionTasks}.
+     */
+    protected static class SessionTasks {
+        protected final Deque<LimitedTask> pending = new ArrayDeque<>();
+        protected final Map<Integer, Integer> activeByUi = new HashMap<>();
+        protected int active;
+
+        protected void drain(int maxPerSession, int maxPerUi, List<LimitedTask> toStart) {
+            Iterator<LimitedTask> iterator = pending.iterator();
+            while (iterator.hasNext() && (maxPerSession <= 0 || active < maxPerSession)) {
+                LimitedTask task = iterator.next();
+                if (task.future.isDone()) {
+                    // cancelled while waiting in the queue
+                    iterator.remove();
+                    continue;
+                }
+
+                int uiActive = activeByUi.getOrDefault(task.uiId, 0);
+                if (maxPerUi <= 0 || uiActive < maxPerUi) {
+                    iterator.remove();
+                    active++;
+                    activeByUi.put(task.uiId, uiActive + 1);
+                    toStart.add(task);
+                }
+            }
+        }
+
+        protected void release(LimitedTask task) {
+            active--;
+            activeByUi.computeIfPresent(task.uiId, (uiId, count) -> count > 1 ? count - 1 : null);
+        }
+
+        protected boolean isEmpty() {
+            return active == 0 && pending.isEmpty();
+        }
+    }
+
+    protected static class LimitedTask {
+        protected final UUID sessionId;
+        protected final int uiId;
+        protected final FutureTask<?> future;
+
+        protected LimitedTask(UUID sessionId, int uiId, FutureTask<?> future) {
+            this.sessionId = sessionId;
+            this.uiId = uiId;
+            this.future = future;
+        }
+    }
+
     private static class WebUIAccessor implements UIAccessor {
         private UI ui;
 
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2008-2018 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.haulmont.cuba.web.gui.executors.impl;
+
+import com.haulmont.cuba.core.global.Configuration;
+import com.haulmont.cuba.web.WebConfig;
+import mockit.Expectations;
+import mockit.Mocked;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+public class WebBackgroundWorkerTest {
+
+    @Mocked
+    protected Configuration configuration;
+
+    @Mocked
+    protected WebConfig webConfig;
+
+    protected WebBackgroundWorker worker;
+
+    protected Set<String> started = ConcurrentHashMap.newKeySet();
+
+    protected List<CountDownLatch> latches = new ArrayList<>();
+
+    @After
+    public void tearDown() throws Exception {
+        latches.forEach(CountDownLatch::countDown);
+        if (worker != null) {
+            worker.destroy();
+        }
+    }
+
+    @Test
+    public void testTasksAreQueuedPerUi() throws Exception {
+        createWorker(2, 1);
+        UUID sessionId = UUID.randomUUID();
+
+        CountDownLatch releaseA = createLatch();
+        worker.submitTask(sessionId, 1, createTask("A", releaseA));
+        worker.submitTask(sessionId, 1, createTask("B", createLatch()));
+        worker.submitTask(sessionId, 2, createTask("C", createLatch()));
+
+        waitFor(() -> started.containsAll(Arrays.asList("A", "C")));
+        assertFalse(started.contains("B"));
+        assertEquals(1, worker.sessionTasks.get(sessionId).pending.size());
+
+        releaseA.countDown();
+        waitFor(() -> started.contains("B"));
+    }
+
+    @Test
+    public void testTasksAreQueuedPerSession() throws Exception {
+        createWorker(1, 0);
+        UUID sessionId = UUID.randomUUID();
+        UUID otherSessionId = UUID.randomUUID();
+
+        CountDownLatch releaseA = createLatch();
+        worker.submitTask(sessionId, 1, createTask("A", releaseA));
+        worker.submitTask(sessionId, 2, createTask("B", createLatch()));
+        worker.submitTask(otherSessionId, 3, createTask("C", createLatch()));
+
+        waitFor(() -> started.containsAll(Arrays.asList("A", "C")));
+        assertFalse(started.contains("B"));
+
+        releaseA.countDown();
+        waitFor(() -> started.contains("B"));
+    }
+
+    @Test
+    public void testTaskCancelledInQueueIsSkipped() throws Exception {
+        createWorker(1, 0);
+        UUID sessionId = UUID.randomUUID();
+
+        CountDownLatch releaseA = createLatch();
+        FutureTask<Object> taskB = createTask("B", createLatch());
+        worker.submitTask(sessionId, 1, createTask("A", releaseA));
+        worker.submitTask(sessionId, 1, taskB);
+        worker.submitTask(sessionId, 1, createTask("C", createLatch()));
+
+        waitFor(() -> started.contains("A"));
+        taskB.cancel(false);
+
+        releaseA.countDown();
+        waitFor(() -> started.contains("C"));
+        assertFalse(started.contains("B"));
+    }
+
+    @Test
+    public void testRejectedTasksAreCancelled() throws Exception {
+        createWorker(1, 0);
+        UUID sessionId = UUID.randomUUID();
+
+        worker.destroy();
+
+        FutureTask<Object> task = createTask("A", createLatch());
+        worker.submitTask(sessionId, 1, task);
+
+        assertTrue(task.isCancelled());
+        assertFalse(started.contains("A"));
+        assertNull(worker.sessionTasks.get(sessionId));
+    }
+
+    protected void createWorker(int maxPerSession, int maxPerUi) {
+        new Expectations() {
+            {
+                configuration.getConfig(WebConfig.class);
+                result = webConfig; minTimes = 0;
+
+                webConfig.getMinBackgroundThreadsCount();
+                result = 4; minTimes = 0;
+                webConfig.getMaxActiveBackgroundTasksCount();
+                result = 4; minTimes = 0;
+
+                webConfig.getMaxActiveBackgroundTasksPerSession();
+                result = maxPerSession; minTimes = 0;
+                webConfig.getMaxActiveBackgroundTasksPerUi();
+                result = maxPerUi; minTimes = 0;
+            }
+        };
+
+        worker = new WebBackgroundWorker();
+        worker.setConfiguration(configuration);
+    }
+
+    protected CountDownLatch createLatch() {
+        CountDownLatch latch = new CountDownLatch(1);
+        latches.add(latch);
+        return latch;
+    }
+
+    protected FutureTask<Object> createTask(String name, CountDownLatch release) {
+        return new FutureTask<>(() -> {
+            started.add(name);
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        });
+    }
+
+    protected void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Condition is not met in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}